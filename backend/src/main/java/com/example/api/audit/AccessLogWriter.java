@@ -0,0 +1,248 @@
+package com.example.api.audit;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background thread that tails the in-memory audit ring and writes each request, together with
+ * the sampled SQL statements, as one JSON line. Lines are formatted and written in batches every
+ * flush interval, so request threads never format or write log output. If the writer falls more
+ * than a full ring behind, the overwritten entries are counted as dropped.
+ */
+public class AccessLogWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final int BATCH_SIZE = 4096;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AuditLogService auditLogService;
+    private final SqlStatementSampler sqlSampler;
+    private final Path path;
+    private final long flushIntervalNanos;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final ThreadFactory threadFactory;
+
+    private volatile boolean running;
+    private Thread thread;
+    private JsonGenerator generator;
+    private long cursor;
+    private long requestLines;
+
+    public AccessLogWriter(AuditLogService auditLogService,
+                           SqlStatementSampler sqlSampler,
+                           AuditLogProperties.AccessLog properties,
+                           MeterRegistry meterRegistry,
+                           WorkerThreads workerThreads) {
+        this.auditLogService = auditLogService;
+        this.sqlSampler = sqlSampler;
+        this.path = properties.getPath();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.threadFactory = workerThreads.factory("access-log-writer-");
+        this.written = Counter.builder("access.log.written")
+                .description("Lines written to the access log")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("access.log.dropped")
+                .description("Access log lines lost because the writer fell behind")
+                .tag("source", "request")
+                .register(meterRegistry);
+        this.failed = Counter.builder("access.log.failed")
+                .description("Access log batches that could not be written")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        try {
+            OutputStream out = path == null
+                    ? new WholeLineOutputStream(System.out)
+                    : new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), BUFFER_SIZE);
+            generator = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open the access log " + path, ex);
+        }
+        generator.setRootValueSeparator(null);
+        cursor = auditLogService.nextSequence();
+        running = true;
+        thread = threadFactory.newThread(this::run);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            writeBatch();
+            LockSupport.parkNanos(flushIntervalNanos);
+        }
+        writeBatch();
+        try {
+            // Standard output stays open for the rest of the shutdown logging.
+            if (path != null) {
+                generator.close();
+            }
+        } catch (IOException ex) {
+            log.warn("Could not close the access log", ex);
+        }
+    }
+
+    private void writeBatch() {
+        try {
+            requestLines = 0;
+            long read;
+            do {
+                long previous = cursor;
+                long next = auditLogService.readFrom(cursor, BATCH_SIZE, this::writeRequest);
+                if (next > cursor) {
+                    dropped.increment(next - cursor);
+                    cursor = next;
+                }
+                read = next - previous;
+            } while (read == BATCH_SIZE);
+            // Ring positions read include the dropped entries; only lines actually written count.
+            long lines = requestLines + sqlSampler.drain(this::writeStatement);
+            if (lines > 0) {
+                generator.flush();
+                written.increment(lines);
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            failed.increment();
+            log.warn("Could not write the access log", ex);
+        }
+    }
+
+    private void writeRequest(AuditLogEntry entry) {
+        if (entry.sequence() > cursor) {
+            dropped.increment(entry.sequence() - cursor);
+        }
+        cursor = entry.sequence() + 1;
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("time", entry.timestamp().toString());
+            generator.writeStringField("type", "request");
+            generator.writeNumberField("seq", entry.sequence());
+            generator.writeStringField("method", entry.method());
+            generator.writeStringField("path", entry.path());
+            generator.writeStringField("user", entry.user());
+            generator.writeNumberField("status", entry.status());
+            generator.writeNumberField("durationUs", entry.durationMicros());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            requestLines++;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeStatement(SqlStatementSampler.SqlStatement statement) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("time", statement.timestamp().toString());
+            generator.writeStringField("type", "sql");
+            generator.writeStringField("sql", statement.sql());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Buffers output and passes only complete lines on, each batch of them in a single
+     * {@link PrintStream#write(byte[], int, int)} call. That call holds the print stream's lock,
+     * which Logback's console appender takes as well for each event it writes to
+     * {@code System.out}. Closing does not close the target.
+     */
+    static final class WholeLineOutputStream extends OutputStream {
+
+        private final PrintStream target;
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int size;
+
+        WholeLineOutputStream(PrintStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+            if (size >= BUFFER_SIZE) {
+                writeLines();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeLines();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        private void writeLines() throws IOException {
+            int end = size;
+            while (end > 0 && buffer[end - 1] != '\n') {
+                end--;
+            }
+            if (end == 0) {
+                return;
+            }
+            target.write(buffer, 0, end);
+            System.arraycopy(buffer, end, buffer, 0, size - end);
+            size -= end;
+            // Flushes the print stream; it reports write failures only through this flag.
+            if (target.checkError()) {
+                throw new IOException("Could not write to standard output");
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.api.audit;
+
+import com.example.api.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Configuration
+@EnableConfigurationProperties(AuditLogProperties.class)
+public class AuditLogConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.audit.store", name = "enabled", havingValue = "true")
+    public AuditLogStore auditLogStore(AuditLogProperties properties) throws IOException {
+        return new AuditLogStore(properties.getStore());
+    }
+
+    @Bean
+    @ConditionalOnBean(AuditLogStore.class)
+    public AuditStoreWriter auditStoreWriter(AuditLogService auditLogService,
+                                             AuditLogStore store,
+                                             AuditLogProperties properties,
+                                             MeterRegistry meterRegistry,
+                                             WorkerThreads workerThreads) {
+        return new AuditStoreWriter(auditLogService, store, properties, meterRegistry, workerThreads);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.audit.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SqlStatementSampler sqlStatementSampler(AuditLogProperties properties, MeterRegistry meterRegistry) {
+        AuditLogProperties.AccessLog accessLog = properties.getAccessLog();
+        return new SqlStatementSampler(accessLog.getSqlSampleRate(), accessLog.getSqlQueueCapacity(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(SqlStatementSampler.class)
+    public HibernatePropertiesCustomizer sqlStatementSamplerCustomizer(SqlStatementSampler sampler) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, sampler);
+    }
+
+    @Bean
+    @ConditionalOnBean(SqlStatementSampler.class)
+    public AccessLogWriter accessLogWriter(AuditLogService auditLogService,
+                                           SqlStatementSampler sampler,
+                                           AuditLogProperties properties,
+                                           MeterRegistry meterRegistry,
+                                           WorkerThreads workerThreads) {
+        return new AccessLogWriter(auditLogService, sampler, properties.getAccessLog(), meterRegistry, workerThreads);
+    }
+}
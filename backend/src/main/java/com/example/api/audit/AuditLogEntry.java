@@ -2,5 +2,6 @@ package com.example.api.audit;
 
 import java.time.Instant;
 
-public record AuditLogEntry(Instant timestamp, String method, String path, String user, int status) {
+public record AuditLogEntry(long sequence, Instant timestamp, String method, String path, String user, int status,
+                            long durationMicros) {
 }
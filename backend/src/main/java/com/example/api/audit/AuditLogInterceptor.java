@@ -1,29 +1,82 @@
 package com.example.api.audit;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class AuditLogInterceptor implements HandlerInterceptor {
 
-    private static final Logger log = LoggerFactory.getLogger(AuditLogInterceptor.class);
+    private static final String START_ATTRIBUTE = AuditLogInterceptor.class.getName() + ".start";
+    private static final String RECORDED_ATTRIBUTE = AuditLogInterceptor.class.getName() + ".recorded";
+    private static final String UNMATCHED_ROUTE = "UNMATCHED";
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
     private final AuditLogService auditLogService;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<RouteKey, Timer> timers = new ConcurrentHashMap<>();
 
-    public AuditLogInterceptor(AuditLogService auditLogService) {
+    public AuditLogInterceptor(AuditLogService auditLogService, MeterRegistry meterRegistry) {
         this.auditLogService = auditLogService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async requests pass through preHandle again on redispatch; keep the original start.
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // A handler exception is recorded below as a 500 on its route; the error page dispatch
+        // that follows would record the same request again under /error.
+        if (request.getDispatcherType() == DispatcherType.ERROR && request.getAttribute(RECORDED_ATTRIBUTE) != null) {
+            return;
+        }
+        request.setAttribute(RECORDED_ATTRIBUTE, Boolean.TRUE);
+        long durationNanos = request.getAttribute(START_ATTRIBUTE) instanceof Long start ? System.nanoTime() - start : 0;
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String user = authentication != null ? authentication.getName() : "anonymous";
-        log.info("{} {} by {} -> {}", request.getMethod(), request.getRequestURI(), user, response.getStatus());
-        auditLogService.addEvent(request.getMethod(), request.getRequestURI(), user, response.getStatus());
+        // The container turns an unhandled exception into a 500 after this callback.
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        String route = route(request);
+        timer(request.getMethod(), route, status).record(durationNanos, TimeUnit.NANOSECONDS);
+        long durationMicros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        auditLogService.addEvent(request.getMethod(), request.getRequestURI(), route, user, status, durationMicros);
+    }
+
+    private Timer timer(String method, String route, int status) {
+        // Timers are cached per key so the hot path does not rebuild meter ids and tag lists.
+        return timers.computeIfAbsent(new RouteKey(method, route, status), key -> Timer.builder("api.request.latency")
+                .description("Request latency per route template, recorded by the audit interceptor")
+                .tag("method", key.method())
+                .tag("route", key.route())
+                .tag("status", Integer.toString(key.status()))
+                .publishPercentiles(PERCENTILES)
+                .percentilePrecision(2)
+                .register(meterRegistry));
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+    }
+
+    private record RouteKey(String method, String route, int status) {
     }
 }
@@ -0,0 +1,372 @@
+package com.example.api.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditLogProperties {
+
+    /**
+     * Number of entries kept in the in-memory ring. When the persistent store is enabled the ring
+     * also buffers entries until the background writer has appended them, so it should cover the
+     * longest expected writer stall at peak request rate.
+     */
+    private int capacity = 8192;
+
+    /**
+     * Settings for the on-disk audit store.
+     */
+    private final Store store = new Store();
+
+    /**
+     * Settings for live tailing of the audit trail.
+     */
+    private final Tail tail = new Tail();
+
+    /**
+     * Settings for the per-minute request rollups.
+     */
+    private final Rollups rollups = new Rollups();
+
+    /**
+     * Settings for the access log written from the audit ring.
+     */
+    private final AccessLog accessLog = new AccessLog();
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public Tail getTail() {
+        return tail;
+    }
+
+    public Rollups getRollups() {
+        return rollups;
+    }
+
+    public AccessLog getAccessLog() {
+        return accessLog;
+    }
+
+    public static class Store {
+
+        /**
+         * Persists the audit trail to memory-mapped segment files so it survives restarts and
+         * can be queried beyond the in-memory window.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding the segment files. Must be writable and, to survive pod
+         * restarts, backed by a volume.
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "azure-api-first", "audit");
+
+        /**
+         * Size of each preallocated segment file. A new segment is started once the active one
+         * is full.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Oldest segments are deleted once the store exceeds this size on disk.
+         */
+        private DataSize maxSize = DataSize.ofGigabytes(1);
+
+        /**
+         * Segments whose newest entry is older than this are deleted.
+         */
+        private Duration maxAge = Duration.ofDays(7);
+
+        /**
+         * How often the active segment is forced to disk and retention is applied.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Number of records between two entries of a segment's sparse timestamp index.
+         */
+        private int indexInterval = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getIndexInterval() {
+            return indexInterval;
+        }
+
+        public void setIndexInterval(int indexInterval) {
+            this.indexInterval = indexInterval;
+        }
+    }
+
+    public static class Tail {
+
+        /**
+         * Maximum number of concurrent live-tail subscribers; further requests get a 503.
+         */
+        private int maxSubscribers = 16;
+
+        /**
+         * Number of entries a subscriber may fall behind the newest entry before the slow
+         * consumer policy applies. Capped at the ring capacity.
+         */
+        private int maxLag = 1024;
+
+        /**
+         * What happens to a subscriber that falls more than max-lag entries behind.
+         */
+        private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.DROP;
+
+        /**
+         * How long an idle subscriber waits before checking the ring for new entries.
+         */
+        private Duration pollInterval = Duration.ofMillis(100);
+
+        /**
+         * Interval of keep-alive lines on an idle stream, which also detect closed connections.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Lifetime of a single live-tail connection. Clients reconnect and resume from the last
+         * sequence they received.
+         */
+        private Duration maxDuration = Duration.ofMinutes(30);
+
+        public int getMaxSubscribers() {
+            return maxSubscribers;
+        }
+
+        public void setMaxSubscribers(int maxSubscribers) {
+            this.maxSubscribers = maxSubscribers;
+        }
+
+        public int getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(int maxLag) {
+            this.maxLag = maxLag;
+        }
+
+        public SlowConsumerPolicy getSlowConsumerPolicy() {
+            return slowConsumerPolicy;
+        }
+
+        public void setSlowConsumerPolicy(SlowConsumerPolicy slowConsumerPolicy) {
+            this.slowConsumerPolicy = slowConsumerPolicy;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+    }
+
+    public static class Rollups {
+
+        /**
+         * How far back rollups can be queried; one bucket is kept per minute.
+         */
+        private Duration retention = Duration.ofHours(24);
+
+        /**
+         * Distinct method and route template pairs counted per minute. Further routes are
+         * counted together as OTHER.
+         */
+        private int maxRoutes = 256;
+
+        /**
+         * Principals tracked per minute. Callers with more than 1/tracked-principals of a
+         * minute's requests are always listed; fewer tracked principals use less memory but make
+         * the counts of lighter callers less exact.
+         */
+        private int trackedPrincipals = 100;
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public int getMaxRoutes() {
+            return maxRoutes;
+        }
+
+        public void setMaxRoutes(int maxRoutes) {
+            this.maxRoutes = maxRoutes;
+        }
+
+        public int getTrackedPrincipals() {
+            return trackedPrincipals;
+        }
+
+        public void setTrackedPrincipals(int trackedPrincipals) {
+            this.trackedPrincipals = trackedPrincipals;
+        }
+    }
+
+    public static class AccessLog {
+
+        /**
+         * Writes every request as a JSON line from a background thread. Requests only publish
+         * into the audit ring; entries the writer could not reach before the ring wrapped are
+         * counted as dropped.
+         */
+        private boolean enabled = true;
+
+        /**
+         * File the lines are appended to; standard output when not set, where lines are written
+         * whole so they do not interleave with the console log.
+         */
+        private Path path;
+
+        /**
+         * How long the writer waits for more lines before writing the next batch.
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * Fraction of SQL statements written to the access log, from 0 (none) to 1 (all).
+         * Replaces spring.jpa.show-sql, which prints every statement on the calling thread.
+         */
+        private double sqlSampleRate = 0.01;
+
+        /**
+         * Sampled SQL statements held for the writer; further samples are counted as dropped.
+         */
+        private int sqlQueueCapacity = 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public void setPath(Path path) {
+            this.path = path;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public double getSqlSampleRate() {
+            return sqlSampleRate;
+        }
+
+        public void setSqlSampleRate(double sqlSampleRate) {
+            this.sqlSampleRate = sqlSampleRate;
+        }
+
+        public int getSqlQueueCapacity() {
+            return sqlQueueCapacity;
+        }
+
+        public void setSqlQueueCapacity(int sqlQueueCapacity) {
+            this.sqlQueueCapacity = sqlQueueCapacity;
+        }
+    }
+
+    public enum SlowConsumerPolicy {
+
+        /**
+         * Skip the entries the subscriber missed and tell it about the gap.
+         */
+        DROP,
+
+        /**
+         * Close the stream; the client reconnects and resumes from its last sequence.
+         */
+        DISCONNECT
+    }
+}
@@ -3,24 +3,64 @@ package com.example.api.audit;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class AuditLogService {
 
-    private static final int MAX_EVENTS = 1000;
-    private final Deque<AuditLogEntry> events = new LinkedList<>();
+    private final AuditRingBuffer events;
+    private final Optional<AuditLogStore> store;
+    private final AuditRollups rollups;
 
-    public synchronized void addEvent(String method, String path, String user, int status) {
-        if (events.size() >= MAX_EVENTS) {
-            events.removeFirst();
+    public AuditLogService(AuditLogProperties properties, Optional<AuditLogStore> store) {
+        this.store = store;
+        this.events = new AuditRingBuffer(properties.getCapacity(), store.map(AuditLogStore::nextSequence).orElse(0L));
+        this.rollups = new AuditRollups(properties.getRollups());
+    }
+
+    /**
+     * Records a completed request. {@code route} is the matched route template, used to group
+     * requests in the rollups.
+     */
+    public void addEvent(String method, String path, String route, String user, int status, long durationMicros) {
+        Instant now = Instant.now();
+        long sequence = events.claim();
+        events.publish(new AuditLogEntry(sequence, now, method, path, user, status, durationMicros));
+        rollups.record(now, method, route, user, status);
+    }
+
+    public List<AuditLogEntry> recentEvents() {
+        return events.snapshot();
+    }
+
+    /**
+     * Returns the newest entries matching {@code query}, oldest first. Served from the persistent
+     * store when it is enabled, otherwise from the in-memory ring.
+     */
+    public List<AuditLogEntry> query(AuditQuery query) {
+        if (store.isPresent()) {
+            return store.get().query(query);
         }
-        events.addLast(new AuditLogEntry(Instant.now(), method, path, user, status));
+        List<AuditLogEntry> matches = events.snapshot().stream().filter(query::matches).toList();
+        return matches.subList(Math.max(0, matches.size() - query.limit()), matches.size());
+    }
+
+    /**
+     * Request counts over {@code [from, to)}, widened to whole minutes, with the {@code limit}
+     * heaviest principals. Windows that are empty or reach back beyond the rollup retention are
+     * rejected with a 400.
+     */
+    public AuditRollupReport rollups(Instant from, Instant to, int limit) {
+        return rollups.query(from, to, limit, Instant.now());
+    }
+
+    long nextSequence() {
+        return events.nextSequence();
     }
 
-    public synchronized List<AuditLogEntry> recentEvents() {
-        return List.copyOf(events);
+    long readFrom(long fromSequence, int maxEntries, Consumer<AuditLogEntry> consumer) {
+        return events.read(fromSequence, maxEntries, consumer);
     }
 }
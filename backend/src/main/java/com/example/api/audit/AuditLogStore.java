@@ -0,0 +1,162 @@
+package com.example.api.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, segment-rolled audit store on local disk.
+ *
+ * <p>Appends, flushes and retention run on a single writer thread ({@link AuditStoreWriter});
+ * queries may run concurrently from any thread against the published part of each segment.
+ * On startup existing segments are mapped and recovered so the trail and its sequence numbers
+ * continue across restarts.
+ */
+public class AuditLogStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogStore.class);
+
+    private final AuditLogProperties.Store settings;
+    private final Path directory;
+    private final List<AuditSegment> segments = new CopyOnWriteArrayList<>();
+    private AuditSegment active;
+
+    public AuditLogStore(AuditLogProperties.Store settings) throws IOException {
+        if (settings.getSegmentSize().toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("app.audit.store.segment-size must not exceed 2GB");
+        }
+        this.settings = settings;
+        this.directory = settings.getDirectory();
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(AuditSegment.FILE_SUFFIX)).sorted().toList()) {
+                segments.add(AuditSegment.open(file, settings.getIndexInterval()));
+            }
+        }
+        segments.sort(Comparator.comparingLong(AuditSegment::baseSequence));
+        active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        log.info("Opened audit store in {} with {} segments; next sequence {}", directory, segments.size(), nextSequence());
+    }
+
+    /**
+     * Sequence number following the newest stored entry.
+     */
+    public long nextSequence() {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            AuditSegment segment = segments.get(i);
+            if (segment.lastSequence() >= 0) {
+                return segment.lastSequence() + 1;
+            }
+        }
+        return active != null ? active.baseSequence() : 0;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long sizeInBytes() {
+        long total = 0;
+        for (AuditSegment segment : segments) {
+            total += segment.sizeInBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Appends an entry, rolling to a new segment when the active one is full. Writer thread only.
+     */
+    void append(AuditLogEntry entry) throws IOException {
+        if (active != null && active.append(entry)) {
+            return;
+        }
+        roll(entry.sequence());
+        if (!active.append(entry)) {
+            throw new IOException("Audit entry %d does not fit in an empty segment".formatted(entry.sequence()));
+        }
+    }
+
+    /**
+     * Forces the active segment to disk. Writer thread only.
+     */
+    void flush() {
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    /**
+     * Deletes the oldest sealed segments while the store is over its size budget or they only
+     * hold entries older than the maximum age. Writer thread only.
+     */
+    void enforceRetention(Instant now) {
+        long maxBytes = settings.getMaxSize().toBytes();
+        long oldestAllowed = now.minus(settings.getMaxAge()).toEpochMilli();
+        while (segments.size() > 1) {
+            AuditSegment oldest = segments.get(0);
+            if (sizeInBytes() <= maxBytes && oldest.maxEpochMilli() >= oldestAllowed) {
+                return;
+            }
+            segments.remove(0);
+            try {
+                oldest.delete();
+            } catch (IOException ex) {
+                log.warn("Could not delete expired audit segment {}", AuditSegment.fileName(oldest.baseSequence()), ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the newest {@code query.limit()} matching entries, oldest first. Segments outside
+     * the time range are skipped and each scanned segment starts from its sparse index.
+     */
+    public List<AuditLogEntry> query(AuditQuery query) {
+        List<AuditSegment> candidates = List.copyOf(segments);
+        ArrayDeque<List<AuditLogEntry>> chunks = new ArrayDeque<>();
+        int found = 0;
+        for (int i = candidates.size() - 1; i >= 0 && found < query.limit(); i--) {
+            AuditSegment segment = candidates.get(i);
+            if (!segment.overlaps(query)) {
+                continue;
+            }
+            int wanted = query.limit() - found;
+            ArrayDeque<AuditLogEntry> newest = new ArrayDeque<>(Math.min(wanted, 1024));
+            segment.scan(query, entry -> {
+                if (newest.size() == wanted) {
+                    newest.pollFirst();
+                }
+                newest.addLast(entry);
+            });
+            found += newest.size();
+            chunks.addFirst(new ArrayList<>(newest));
+        }
+        List<AuditLogEntry> result = new ArrayList<>(found);
+        chunks.forEach(result::addAll);
+        return result;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void roll(long baseSequence) throws IOException {
+        if (active != null) {
+            active.force();
+        }
+        active = AuditSegment.create(directory, baseSequence, (int) settings.getSegmentSize().toBytes(), settings.getIndexInterval());
+        segments.add(active);
+        enforceRetention(Instant.now());
+    }
+}
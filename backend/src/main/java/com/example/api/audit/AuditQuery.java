@@ -0,0 +1,18 @@
+package com.example.api.audit;
+
+import java.time.Instant;
+
+/**
+ * Filter for audit trail queries. Every criterion is optional; {@code from} is inclusive and
+ * {@code to} exclusive. At most {@code limit} of the newest matching entries are returned.
+ */
+public record AuditQuery(Instant from, Instant to, String user, String pathPrefix, Integer status, int limit) {
+
+    public boolean matches(AuditLogEntry entry) {
+        return (from == null || !entry.timestamp().isBefore(from))
+                && (to == null || entry.timestamp().isBefore(to))
+                && (user == null || user.equals(entry.user()))
+                && (pathPrefix == null || entry.path().startsWith(pathPrefix))
+                && (status == null || status == entry.status());
+    }
+}
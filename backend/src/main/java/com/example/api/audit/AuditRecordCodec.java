@@ -0,0 +1,186 @@
+package com.example.api.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of one audit record inside a segment:
+ *
+ * <pre>
+ * int   body length (0 marks the end of the written region)
+ * int   CRC32C of the body
+ * body: long   sequence
+ *       long   epoch second
+ *       int    nano adjustment
+ *       short  status
+ *       byte   method code (0 = method string follows)
+ *       [str   method]
+ *       str    path
+ *       str    user
+ *       [long  duration in microseconds]
+ * </pre>
+ *
+ * Strings are an unsigned short byte length followed by UTF-8. Records written before request
+ * durations were captured end after the user and decode with a duration of 0. The length is written last so a
+ * record torn by a crash reads as the end of the segment; the checksum catches the rest.
+ */
+final class AuditRecordCodec {
+
+    static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final String[] METHODS = {null, "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"};
+
+    private AuditRecordCodec() {
+    }
+
+    /**
+     * Writes the record at {@code position} using absolute puts.
+     *
+     * @return the number of bytes written, or {@code -1} if it does not fit before the buffer limit
+     */
+    static int encode(AuditLogEntry entry, ByteBuffer buffer, int position) {
+        int methodCode = methodCode(entry.method());
+        byte[] method = methodCode == 0 ? utf8(entry.method()) : null;
+        byte[] path = utf8(entry.path());
+        byte[] user = utf8(entry.user());
+        int bodyLength = Long.BYTES * 2 + Integer.BYTES + Short.BYTES + 1
+                + (method != null ? Short.BYTES + method.length : 0)
+                + Short.BYTES + path.length
+                + Short.BYTES + user.length
+                + Long.BYTES;
+        if (position + HEADER_BYTES + bodyLength > buffer.limit()) {
+            return -1;
+        }
+
+        int cursor = position + HEADER_BYTES;
+        buffer.putLong(cursor, entry.sequence());
+        cursor += Long.BYTES;
+        buffer.putLong(cursor, entry.timestamp().getEpochSecond());
+        cursor += Long.BYTES;
+        buffer.putInt(cursor, entry.timestamp().getNano());
+        cursor += Integer.BYTES;
+        buffer.putShort(cursor, (short) entry.status());
+        cursor += Short.BYTES;
+        buffer.put(cursor, (byte) methodCode);
+        cursor += 1;
+        if (method != null) {
+            cursor = putString(buffer, cursor, method);
+        }
+        cursor = putString(buffer, cursor, path);
+        cursor = putString(buffer, cursor, user);
+        buffer.putLong(cursor, entry.durationMicros());
+
+        buffer.putInt(position + Integer.BYTES, checksum(buffer, position + HEADER_BYTES, bodyLength));
+        buffer.putInt(position, bodyLength);
+        return HEADER_BYTES + bodyLength;
+    }
+
+    /**
+     * Returns the total size of the record at {@code position}, which must lie inside the region
+     * the writer has already published.
+     */
+    static int recordLength(ByteBuffer buffer, int position) {
+        return HEADER_BYTES + buffer.getInt(position);
+    }
+
+    /**
+     * Returns the total size of the record at {@code position} after validating it, or {@code 0}
+     * when the written region ends there (unwritten space, a torn write or a checksum mismatch).
+     * Used when recovering a segment whose end is not known.
+     */
+    static int validRecordLength(ByteBuffer buffer, int position) {
+        if (position + HEADER_BYTES > buffer.limit()) {
+            return 0;
+        }
+        int bodyLength = buffer.getInt(position);
+        if (bodyLength <= 0 || position + HEADER_BYTES + bodyLength > buffer.limit()) {
+            return 0;
+        }
+        int expected = buffer.getInt(position + Integer.BYTES);
+        if (checksum(buffer, position + HEADER_BYTES, bodyLength) != expected) {
+            return 0;
+        }
+        return HEADER_BYTES + bodyLength;
+    }
+
+    static long sequence(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + HEADER_BYTES);
+    }
+
+    static long epochMilli(ByteBuffer buffer, int position) {
+        int cursor = position + HEADER_BYTES + Long.BYTES;
+        return Math.addExact(Math.multiplyExact(buffer.getLong(cursor), 1000L), buffer.getInt(cursor + Long.BYTES) / 1_000_000);
+    }
+
+    static AuditLogEntry decode(ByteBuffer buffer, int position) {
+        int end = position + recordLength(buffer, position);
+        int cursor = position + HEADER_BYTES;
+        long sequence = buffer.getLong(cursor);
+        cursor += Long.BYTES;
+        long epochSecond = buffer.getLong(cursor);
+        cursor += Long.BYTES;
+        int nano = buffer.getInt(cursor);
+        cursor += Integer.BYTES;
+        int status = buffer.getShort(cursor);
+        cursor += Short.BYTES;
+        int methodCode = buffer.get(cursor);
+        cursor += 1;
+        String method;
+        if (methodCode == 0) {
+            method = getString(buffer, cursor);
+            cursor += Short.BYTES + stringLength(buffer, cursor);
+        } else {
+            method = METHODS[methodCode];
+        }
+        String path = getString(buffer, cursor);
+        cursor += Short.BYTES + stringLength(buffer, cursor);
+        String user = getString(buffer, cursor);
+        cursor += Short.BYTES + stringLength(buffer, cursor);
+        long durationMicros = end - cursor >= Long.BYTES ? buffer.getLong(cursor) : 0;
+        return new AuditLogEntry(sequence, Instant.ofEpochSecond(epochSecond, nano), method, path, user, status, durationMicros);
+    }
+
+    private static int methodCode(String method) {
+        for (int code = 1; code < METHODS.length; code++) {
+            if (METHODS[code].equals(method)) {
+                return code;
+            }
+        }
+        return 0;
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            byte[] truncated = new byte[MAX_STRING_BYTES];
+            System.arraycopy(bytes, 0, truncated, 0, MAX_STRING_BYTES);
+            return truncated;
+        }
+        return bytes;
+    }
+
+    private static int putString(ByteBuffer buffer, int cursor, byte[] value) {
+        buffer.putShort(cursor, (short) value.length);
+        buffer.put(cursor + Short.BYTES, value);
+        return cursor + Short.BYTES + value.length;
+    }
+
+    private static int stringLength(ByteBuffer buffer, int cursor) {
+        return Short.toUnsignedInt(buffer.getShort(cursor));
+    }
+
+    private static String getString(ByteBuffer buffer, int cursor) {
+        byte[] bytes = new byte[stringLength(buffer, cursor)];
+        buffer.get(cursor + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.api.audit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-capacity, multi-producer ring of the most recent audit entries.
+ *
+ * <p>Writers claim a sequence number with a single atomic increment and publish the entry into a
+ * preallocated slot with one reference write; nothing is locked and no per-entry node is
+ * allocated. Each entry carries its own sequence, so readers can tell whether a slot still holds
+ * the entry they expect and take an ordered snapshot without blocking writers. A writer that
+ * stalls for a full lap of the ring never overwrites the newer entry already in its slot.
+ */
+final class AuditRingBuffer {
+
+    private final int capacity;
+    private final long firstSequence;
+    private final AtomicReferenceArray<AuditLogEntry> entries;
+    private final AtomicLong nextSequence;
+
+    AuditRingBuffer(int capacity) {
+        this(capacity, 0);
+    }
+
+    AuditRingBuffer(int capacity, long firstSequence) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Audit ring capacity must be positive but was " + capacity);
+        }
+        this.capacity = capacity;
+        this.firstSequence = firstSequence;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.nextSequence = new AtomicLong(firstSequence);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Sequence number the next claimed entry will get.
+     */
+    long nextSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Reserves the sequence number for the next entry. The caller must pass an entry carrying it
+     * to {@link #publish(AuditLogEntry)}.
+     */
+    long claim() {
+        return nextSequence.getAndIncrement();
+    }
+
+    /**
+     * Stores an entry in the slot for its sequence, overwriting the entry a full lap older.
+     */
+    void publish(AuditLogEntry entry) {
+        int index = index(entry.sequence());
+        AuditLogEntry current = entries.get(index);
+        while (current == null || current.sequence() < entry.sequence()) {
+            AuditLogEntry witness = entries.compareAndExchange(index, current, entry);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    /**
+     * Returns the published entries currently in the ring, oldest first. Entries whose sequence
+     * was claimed but not yet published are left out.
+     */
+    List<AuditLogEntry> snapshot() {
+        long end = nextSequence.get();
+        long start = Math.max(firstSequence, end - capacity);
+        List<AuditLogEntry> snapshot = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            AuditLogEntry entry = entries.get(index(sequence));
+            if (entry != null && entry.sequence() == sequence) {
+                snapshot.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(snapshot);
+    }
+
+    /**
+     * Passes up to {@code maxEntries} published entries to {@code consumer} in sequence order,
+     * starting at {@code fromSequence} and stopping at the first sequence that has been claimed
+     * but not yet published. Sequences already overwritten, or older than the ring itself, are
+     * skipped, so a consumer that fell a full ring behind sees a gap in the entry sequences.
+     *
+     * @return the sequence to pass to the next call
+     */
+    long read(long fromSequence, int maxEntries, Consumer<AuditLogEntry> consumer) {
+        long end = nextSequence.get();
+        long sequence = Math.max(fromSequence, Math.max(firstSequence, end - capacity));
+        long limit = sequence + Math.min(maxEntries, end - sequence);
+        while (sequence < limit) {
+            AuditLogEntry entry = entries.get(index(sequence));
+            if (entry == null || entry.sequence() < sequence) {
+                break;
+            }
+            if (entry.sequence() == sequence) {
+                consumer.accept(entry);
+            }
+            sequence++;
+        }
+        return sequence;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+}
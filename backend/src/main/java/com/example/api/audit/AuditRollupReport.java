@@ -0,0 +1,32 @@
+package com.example.api.audit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request counts aggregated from the per-minute audit rollups over {@code [from, to)}, both
+ * aligned to whole minutes. Status counts are keyed by status class ({@code "2xx"},
+ * {@code "4xx"}, ...) and omit classes that did not occur.
+ *
+ * <p>Principals are the heaviest callers of the window. Their {@code requests} may overestimate
+ * by up to {@code maxOverestimate}, and their status counts may miss requests made while they were
+ * not among the tracked heavy hitters of a minute.
+ */
+public record AuditRollupReport(Instant from,
+                                Instant to,
+                                long requests,
+                                Map<String, Long> statuses,
+                                List<RouteRollup> routes,
+                                List<PrincipalRollup> principals,
+                                List<MinuteRollup> minutes) {
+
+    public record RouteRollup(String method, String route, long requests, Map<String, Long> statuses) {
+    }
+
+    public record PrincipalRollup(String user, long requests, long maxOverestimate, Map<String, Long> statuses) {
+    }
+
+    public record MinuteRollup(Instant minute, long requests, Map<String, Long> statuses) {
+    }
+}
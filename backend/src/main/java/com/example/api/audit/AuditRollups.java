@@ -0,0 +1,227 @@
+package com.example.api.audit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-minute request counts by route, status class and principal, kept in a fixed ring of
+ * minute buckets covering the retention period.
+ *
+ * <p>Recording touches only the bucket of the entry's minute: route counts are
+ * {@link LongAdder}s found with a lock-free map lookup, and principals go to a bounded
+ * {@link HeavyHitters} summary. A bucket is replaced, with one compare-and-set, by the first
+ * entry of a minute a full lap later, so memory stays bounded by the number of minutes, the
+ * {@code max-routes} distinct routes per minute and the {@code tracked-principals} per minute.
+ * Routes beyond the limit are counted under {@link #OTHER_ROUTE}.
+ */
+final class AuditRollups {
+
+    static final int STATUS_CLASSES = 5;
+    static final String OTHER_ROUTE = "OTHER";
+
+    private static final long MINUTE_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final String[] STATUS_CLASS_NAMES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final RouteKey OTHER = new RouteKey("*", OTHER_ROUTE);
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final int maxRoutes;
+    private final int trackedPrincipals;
+
+    AuditRollups(AuditLogProperties.Rollups settings) {
+        long minutes = Math.max(1, settings.getRetention().toMinutes());
+        if (minutes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Audit rollup retention is too long: " + settings.getRetention());
+        }
+        this.buckets = new AtomicReferenceArray<>((int) minutes);
+        this.maxRoutes = settings.getMaxRoutes();
+        this.trackedPrincipals = settings.getTrackedPrincipals();
+    }
+
+    void record(Instant timestamp, String method, String route, String user, int status) {
+        Bucket bucket = bucket(Math.floorDiv(timestamp.toEpochMilli(), MINUTE_MILLIS));
+        if (bucket == null) {
+            // Older than the ring; only a writer stalled for the whole retention gets here.
+            return;
+        }
+        int statusClass = statusClass(status);
+        bucket.route(new RouteKey(method, route))[statusClass].increment();
+        bucket.principals.add(user, statusClass);
+    }
+
+    /**
+     * Aggregates the minutes overlapping {@code [from, to)}, listing at most {@code limit}
+     * principals.
+     *
+     * @throws ResponseStatusException with 400 when the window is empty or reaches back further
+     *                                 than the retention
+     */
+    AuditRollupReport query(Instant from, Instant to, int limit, Instant now) {
+        long firstMinute = Math.floorDiv(from.toEpochMilli(), MINUTE_MILLIS);
+        long endMinute = -Math.floorDiv(-to.toEpochMilli(), MINUTE_MILLIS);
+        long oldestMinute = Math.floorDiv(now.toEpochMilli(), MINUTE_MILLIS) - buckets.length() + 1;
+        if (endMinute <= firstMinute) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rollup window must end after it starts");
+        }
+        if (firstMinute < oldestMinute) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Audit rollups cover the last " + Duration.ofMinutes(buckets.length()) + " only");
+        }
+
+        long[] total = new long[STATUS_CLASSES];
+        Map<RouteKey, long[]> routes = new HashMap<>();
+        Map<String, PrincipalTotals> principals = new HashMap<>();
+        List<AuditRollupReport.MinuteRollup> minutes = new ArrayList<>();
+        long floors = 0;
+        for (long minute = firstMinute; minute < endMinute; minute++) {
+            Bucket bucket = buckets.get(index(minute));
+            if (bucket == null || bucket.minute != minute) {
+                continue;
+            }
+            long[] minuteTotal = new long[STATUS_CLASSES];
+            bucket.routes.forEach((key, counts) -> {
+                long[] routeTotal = routes.computeIfAbsent(key, k -> new long[STATUS_CLASSES]);
+                for (int i = 0; i < STATUS_CLASSES; i++) {
+                    long count = counts[i].sum();
+                    routeTotal[i] += count;
+                    minuteTotal[i] += count;
+                }
+            });
+            add(total, minuteTotal);
+            minutes.add(new AuditRollupReport.MinuteRollup(
+                    Instant.ofEpochMilli(minute * MINUTE_MILLIS), sum(minuteTotal), statuses(minuteTotal)));
+
+            long floor = bucket.principals.floor();
+            floors += floor;
+            bucket.principals.counters().forEach((user, counter) ->
+                    principals.computeIfAbsent(user, u -> new PrincipalTotals()).add(counter, floor));
+        }
+
+        List<AuditRollupReport.RouteRollup> routeRollups = routes.entrySet().stream()
+                .map(entry -> new AuditRollupReport.RouteRollup(entry.getKey().method(), entry.getKey().route(),
+                        sum(entry.getValue()), statuses(entry.getValue())))
+                .sorted(Comparator.comparingLong(AuditRollupReport.RouteRollup::requests).reversed())
+                .toList();
+        // A principal missing from a minute's summary made at most that minute's floor requests in it.
+        long windowFloors = floors;
+        List<AuditRollupReport.PrincipalRollup> principalRollups = principals.entrySet().stream()
+                .map(entry -> entry.getValue().toRollup(entry.getKey(), windowFloors))
+                .sorted(Comparator.comparingLong(AuditRollupReport.PrincipalRollup::requests).reversed())
+                .limit(limit)
+                .toList();
+        return new AuditRollupReport(Instant.ofEpochMilli(firstMinute * MINUTE_MILLIS),
+                Instant.ofEpochMilli(endMinute * MINUTE_MILLIS), sum(total), statuses(total),
+                routeRollups, principalRollups, minutes);
+    }
+
+    private Bucket bucket(long minute) {
+        int index = index(minute);
+        Bucket current = buckets.get(index);
+        while (current == null || current.minute < minute) {
+            Bucket fresh = new Bucket(minute);
+            Bucket witness = buckets.compareAndExchange(index, current, fresh);
+            if (witness == current) {
+                return fresh;
+            }
+            current = witness;
+        }
+        return current.minute == minute ? current : null;
+    }
+
+    private int index(long minute) {
+        return (int) Math.floorMod(minute, buckets.length());
+    }
+
+    static int statusClass(int status) {
+        return Math.min(Math.max(status / 100, 1), STATUS_CLASSES) - 1;
+    }
+
+    private static void add(long[] total, long[] counts) {
+        for (int i = 0; i < STATUS_CLASSES; i++) {
+            total[i] += counts[i];
+        }
+    }
+
+    private static long sum(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static Map<String, Long> statuses(long[] counts) {
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        for (int i = 0; i < STATUS_CLASSES; i++) {
+            if (counts[i] > 0) {
+                statuses.put(STATUS_CLASS_NAMES[i], counts[i]);
+            }
+        }
+        return statuses;
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[STATUS_CLASSES];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private record RouteKey(String method, String route) {
+    }
+
+    private final class Bucket {
+
+        private final long minute;
+        private final Map<RouteKey, LongAdder[]> routes = new ConcurrentHashMap<>();
+        private final HeavyHitters principals;
+
+        private Bucket(long minute) {
+            this.minute = minute;
+            this.principals = new HeavyHitters(trackedPrincipals);
+        }
+
+        LongAdder[] route(RouteKey key) {
+            LongAdder[] counts = routes.get(key);
+            if (counts != null) {
+                return counts;
+            }
+            // The size check races with other inserts, so a bucket may exceed max-routes slightly.
+            return routes.computeIfAbsent(routes.size() < maxRoutes ? key : OTHER, k -> adders());
+        }
+    }
+
+    private static final class PrincipalTotals {
+
+        private final long[] statuses = new long[STATUS_CLASSES];
+        private long requests;
+        private long error;
+        private long floors;
+
+        void add(HeavyHitters.Counter counter, long floor) {
+            requests += counter.count();
+            error += counter.error();
+            floors += floor;
+            for (int i = 0; i < STATUS_CLASSES; i++) {
+                statuses[i] += counter.observed(i);
+            }
+        }
+
+        AuditRollupReport.PrincipalRollup toRollup(String user, long windowFloors) {
+            long absent = windowFloors - floors;
+            return new AuditRollupReport.PrincipalRollup(user, requests + absent, error + absent, statuses(statuses));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.api.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * One preallocated, memory-mapped segment file of the audit store.
+ *
+ * <p>A single writer appends records with absolute puts and then publishes the new end of the
+ * written region through a volatile field, so any number of readers can scan the segment
+ * concurrently without locks. Every {@code indexInterval} records the writer notes the position
+ * together with the newest timestamp seen before it; because that running maximum never
+ * decreases, a binary search finds a start position before which every record is older than the
+ * query range even when request threads recorded timestamps slightly out of sequence order.
+ */
+final class AuditSegment {
+
+    static final String FILE_SUFFIX = ".seg";
+
+    private static final int MAGIC = 0x41554454;
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final Path file;
+    private final long baseSequence;
+    private final MappedByteBuffer buffer;
+    private final int indexInterval;
+
+    private volatile int writePosition = HEADER_BYTES;
+    private volatile long lastSequence = -1;
+    private volatile long minEpochMilli = Long.MAX_VALUE;
+    private volatile long maxEpochMilli = Long.MIN_VALUE;
+
+    private volatile long[] indexMaxEpochMillis = new long[64];
+    private volatile int[] indexPositions = new int[64];
+    private volatile int indexSize;
+    private int recordsSinceIndex;
+
+    private AuditSegment(Path file, long baseSequence, MappedByteBuffer buffer, int indexInterval) {
+        this.file = file;
+        this.baseSequence = baseSequence;
+        this.buffer = buffer;
+        this.indexInterval = indexInterval;
+    }
+
+    static AuditSegment create(Path directory, long baseSequence, int size, int indexInterval) throws IOException {
+        Path file = directory.resolve(fileName(baseSequence));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, CREATE_NEW, READ, WRITE)) {
+            buffer = channel.map(READ_WRITE, 0, size);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(Integer.BYTES, FORMAT_VERSION);
+        buffer.putLong(Long.BYTES, baseSequence);
+        return new AuditSegment(file, baseSequence, buffer, indexInterval);
+    }
+
+    /**
+     * Maps an existing segment and rebuilds its in-memory state by scanning up to the first
+     * missing or corrupt record.
+     */
+    static AuditSegment open(Path file, int indexInterval) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+            buffer = channel.map(READ_WRITE, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an audit segment: " + file);
+        }
+        short version = buffer.getShort(Integer.BYTES);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported audit segment format %d in %s".formatted(version, file));
+        }
+        AuditSegment segment = new AuditSegment(file, buffer.getLong(Long.BYTES), buffer, indexInterval);
+        int position = HEADER_BYTES;
+        int length;
+        while ((length = AuditRecordCodec.validRecordLength(buffer, position)) > 0) {
+            segment.track(position, length);
+            position += length;
+        }
+        return segment;
+    }
+
+    static String fileName(long baseSequence) {
+        return "%020d%s".formatted(baseSequence, FILE_SUFFIX);
+    }
+
+    long baseSequence() {
+        return baseSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    long maxEpochMilli() {
+        return maxEpochMilli;
+    }
+
+    int sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Appends a record. Must only be called from the store's writer thread.
+     *
+     * @return {@code false} if the segment has no room left for the record
+     */
+    boolean append(AuditLogEntry entry) {
+        int position = writePosition;
+        int written = AuditRecordCodec.encode(entry, buffer, position);
+        if (written < 0) {
+            return false;
+        }
+        track(position, written);
+        return true;
+    }
+
+    boolean overlaps(AuditQuery query) {
+        if (lastSequence < 0) {
+            return false;
+        }
+        return (query.from() == null || maxEpochMilli >= query.from().toEpochMilli())
+                && (query.to() == null || minEpochMilli <= query.to().toEpochMilli());
+    }
+
+    /**
+     * Passes every record matching {@code query} to {@code sink} in append order.
+     */
+    void scan(AuditQuery query, Consumer<AuditLogEntry> sink) {
+        int end = writePosition;
+        long fromMilli = query.from() != null ? query.from().toEpochMilli() : Long.MIN_VALUE;
+        long toMilli = query.to() != null ? query.to().toEpochMilli() : Long.MAX_VALUE;
+        int position = seek(fromMilli);
+        while (position < end) {
+            long epochMilli = AuditRecordCodec.epochMilli(buffer, position);
+            if (epochMilli >= fromMilli && epochMilli <= toMilli) {
+                AuditLogEntry entry = AuditRecordCodec.decode(buffer, position);
+                if (query.matches(entry)) {
+                    sink.accept(entry);
+                }
+            }
+            position += AuditRecordCodec.recordLength(buffer, position);
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private int seek(long fromMilli) {
+        int size = indexSize;
+        long[] maxEpochMillis = indexMaxEpochMillis;
+        int[] positions = indexPositions;
+        int low = 0;
+        int high = size - 1;
+        int start = HEADER_BYTES;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (maxEpochMillis[middle] < fromMilli) {
+                start = positions[middle];
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return start;
+    }
+
+    private void track(int position, int length) {
+        if (recordsSinceIndex == 0) {
+            addIndexPoint(maxEpochMilli, position);
+        }
+        recordsSinceIndex = (recordsSinceIndex + 1) % indexInterval;
+        long epochMilli = AuditRecordCodec.epochMilli(buffer, position);
+        minEpochMilli = Math.min(minEpochMilli, epochMilli);
+        maxEpochMilli = Math.max(maxEpochMilli, epochMilli);
+        lastSequence = AuditRecordCodec.sequence(buffer, position);
+        writePosition = position + length;
+    }
+
+    private void addIndexPoint(long maxEpochMilliBefore, int position) {
+        int size = indexSize;
+        if (size == indexPositions.length) {
+            indexMaxEpochMillis = Arrays.copyOf(indexMaxEpochMillis, size * 2);
+            indexPositions = Arrays.copyOf(indexPositions, size * 2);
+        }
+        indexMaxEpochMillis[size] = maxEpochMilliBefore;
+        indexPositions[size] = position;
+        indexSize = size + 1;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.api.audit;
+
+import com.example.api.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background thread that tails the in-memory audit ring and appends every entry to the
+ * {@link AuditLogStore}, keeping disk I/O off the request threads. If the writer falls more than
+ * a full ring behind, the overwritten entries are counted as dropped.
+ */
+public class AuditStoreWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditStoreWriter.class);
+    private static final int BATCH_SIZE = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AuditLogService auditLogService;
+    private final AuditLogStore store;
+    private final long flushIntervalNanos;
+    private final Counter appended;
+    private final Counter dropped;
+    private final Counter failed;
+    private final ThreadFactory threadFactory;
+
+    private volatile boolean running;
+    private Thread thread;
+    private long cursor;
+
+    public AuditStoreWriter(AuditLogService auditLogService,
+                            AuditLogStore store,
+                            AuditLogProperties properties,
+                            MeterRegistry meterRegistry,
+                            WorkerThreads workerThreads) {
+        this.auditLogService = auditLogService;
+        this.store = store;
+        this.threadFactory = workerThreads.factory("audit-store-writer-");
+        this.flushIntervalNanos = properties.getStore().getFlushInterval().toNanos();
+        this.appended = Counter.builder("audit.store.appended")
+                .description("Audit entries appended to the persistent store")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("audit.store.dropped")
+                .description("Audit entries overwritten in the ring before the store writer reached them")
+                .register(meterRegistry);
+        this.failed = Counter.builder("audit.store.failed")
+                .description("Audit entries, flushes and retention passes that failed in the persistent store")
+                .register(meterRegistry);
+        Gauge.builder("audit.store.segments", store, AuditLogStore::segmentCount)
+                .description("Segment files in the persistent audit store")
+                .register(meterRegistry);
+        Gauge.builder("audit.store.size", store, AuditLogStore::sizeInBytes)
+                .baseUnit("bytes")
+                .description("Disk space allocated by the persistent audit store")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        cursor = store.nextSequence();
+        running = true;
+        thread = threadFactory.newThread(this::run);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long nextFlush = System.nanoTime() + flushIntervalNanos;
+        while (running) {
+            long previous = cursor;
+            long next = drain(BATCH_SIZE);
+            if (next == previous) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            if (System.nanoTime() - nextFlush >= 0) {
+                flush();
+                try {
+                    store.enforceRetention(Instant.now());
+                } catch (RuntimeException ex) {
+                    failed.increment();
+                    log.warn("Could not enforce audit store retention", ex);
+                }
+                nextFlush = System.nanoTime() + flushIntervalNanos;
+            }
+        }
+        drain(Integer.MAX_VALUE);
+        flush();
+    }
+
+    /**
+     * Flushes the store. A failure is counted and logged rather than thrown, so the writer thread
+     * keeps draining the ring and tries again at the next interval.
+     */
+    private void flush() {
+        try {
+            store.flush();
+        } catch (RuntimeException ex) {
+            failed.increment();
+            log.warn("Could not flush the audit store", ex);
+        }
+    }
+
+    private long drain(int maxEntries) {
+        long next = auditLogService.readFrom(cursor, maxEntries, this::append);
+        if (next > cursor) {
+            dropped.increment(next - cursor);
+            cursor = next;
+        }
+        return next;
+    }
+
+    private void append(AuditLogEntry entry) {
+        if (entry.sequence() > cursor) {
+            dropped.increment(entry.sequence() - cursor);
+        }
+        cursor = entry.sequence() + 1;
+        try {
+            store.append(entry);
+            appended.increment();
+        } catch (Exception ex) {
+            failed.increment();
+            log.warn("Could not persist audit entry {}", entry.sequence(), ex);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.api.audit;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Wire formats for live tailing of the audit trail.
+ */
+public enum AuditTailFormat {
+
+    /**
+     * Server-Sent Events. Each entry is an {@code audit} event whose id is its sequence, so
+     * browsers resume with {@code Last-Event-ID} after a reconnect.
+     */
+    SSE(MediaType.TEXT_EVENT_STREAM),
+
+    /**
+     * One JSON document per line. Gaps are reported as {@code {"gap":{...}}} lines and
+     * keep-alives as empty lines.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    AuditTailFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
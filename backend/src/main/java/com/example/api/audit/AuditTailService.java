@@ -0,0 +1,222 @@
+package com.example.api.audit;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Pushes audit entries to live subscribers as they are recorded.
+ *
+ * <p>Every subscriber has its own thread and cursor into the audit ring, so a slow connection
+ * only ever delays itself and recording an entry never waits for a subscriber. A subscriber may
+ * fall at most {@code app.audit.tail.max-lag} entries behind; beyond that the slow consumer
+ * policy either skips it ahead, reporting the skipped sequences as a gap, or closes its stream.
+ */
+@Service
+public class AuditTailService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTailService.class);
+    private static final int BATCH_SIZE = 256;
+    private static final byte[] SSE_HEARTBEAT = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NDJSON_HEARTBEAT = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private final AuditLogService auditLogService;
+    private final ObjectMapper objectMapper;
+    private final AuditLogProperties.Tail settings;
+    private final int maxLag;
+    private final ThreadPoolExecutor executor;
+    private final Counter dropped;
+    private final Counter disconnected;
+
+    public AuditTailService(AuditLogService auditLogService,
+                            ObjectMapper objectMapper,
+                            AuditLogProperties properties,
+                            MeterRegistry meterRegistry,
+                            WorkerThreads workerThreads) {
+        this.auditLogService = auditLogService;
+        this.objectMapper = objectMapper;
+        this.settings = properties.getTail();
+        this.maxLag = Math.max(1, Math.min(settings.getMaxLag(), properties.getCapacity()));
+        this.executor = new ThreadPoolExecutor(0, settings.getMaxSubscribers(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), workerThreads.factory("audit-tail-"));
+        this.dropped = Counter.builder("audit.tail.dropped")
+                .description("Audit entries skipped for live-tail subscribers that fell too far behind")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("audit.tail.disconnected")
+                .description("Live-tail subscribers disconnected for falling too far behind")
+                .register(meterRegistry);
+        Gauge.builder("audit.tail.subscribers", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Connected live-tail subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a live tail starting after sequence {@code after}, or at the newest entry when it is
+     * {@code null}.
+     *
+     * @throws ResponseStatusException with 503 when the subscriber limit is reached
+     */
+    public ResponseBodyEmitter subscribe(AuditTailFormat format, Long after) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(settings.getMaxDuration().toMillis());
+        Subscription subscription = start(format, after,
+                chunk -> emitter.send(chunk, MediaType.APPLICATION_OCTET_STREAM), emitter::complete);
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onError(ex -> subscription.cancel());
+        return emitter;
+    }
+
+    Subscription start(AuditTailFormat format, Long after, ChunkWriter writer, Runnable onEnd) {
+        long cursor = after != null ? after + 1 : auditLogService.nextSequence();
+        Subscription subscription = new Subscription(format, cursor, writer, onEnd);
+        try {
+            executor.execute(subscription);
+        } catch (RejectedExecutionException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many audit tail subscribers");
+        }
+        return subscription;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sequences {@code from} (inclusive) to {@code to} (exclusive) that a subscriber did not receive.
+     */
+    record Gap(long from, long to) {
+    }
+
+    @FunctionalInterface
+    interface ChunkWriter {
+
+        void write(byte[] chunk) throws IOException;
+    }
+
+    final class Subscription implements Runnable, Consumer<AuditLogEntry> {
+
+        private final AuditTailFormat format;
+        private final ChunkWriter writer;
+        private final Runnable onEnd;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private volatile boolean cancelled;
+        private long cursor;
+
+        private Subscription(AuditTailFormat format, long cursor, ChunkWriter writer, Runnable onEnd) {
+            this.format = format;
+            this.cursor = cursor;
+            this.writer = writer;
+            this.onEnd = onEnd;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public void run() {
+            long pollNanos = settings.getPollInterval().toNanos();
+            long heartbeatNanos = settings.getHeartbeatInterval().toNanos();
+            long nextHeartbeat = System.nanoTime() + heartbeatNanos;
+            boolean caughtUp = false;
+            try {
+                while (!cancelled && !Thread.currentThread().isInterrupted()) {
+                    long end = auditLogService.nextSequence();
+                    if (end - cursor > maxLag) {
+                        // A resume from further back than max-lag is clamped regardless of the policy.
+                        if (caughtUp && settings.getSlowConsumerPolicy() == AuditLogProperties.SlowConsumerPolicy.DISCONNECT) {
+                            disconnected.increment();
+                            log.info("Disconnecting audit tail subscriber {} entries behind", end - cursor);
+                            break;
+                        }
+                        skipTo(end - maxLag);
+                    }
+                    caughtUp = true;
+                    skipTo(auditLogService.readFrom(cursor, BATCH_SIZE, this));
+                    if (pending.size() > 0) {
+                        writer.write(pending.toByteArray());
+                        pending.reset();
+                        nextHeartbeat = System.nanoTime() + heartbeatNanos;
+                    } else {
+                        if (System.nanoTime() - nextHeartbeat >= 0) {
+                            writer.write(format == AuditTailFormat.SSE ? SSE_HEARTBEAT : NDJSON_HEARTBEAT);
+                            nextHeartbeat = System.nanoTime() + heartbeatNanos;
+                        }
+                        LockSupport.parkNanos(pollNanos);
+                    }
+                }
+            } catch (IOException | UncheckedIOException | IllegalStateException ex) {
+                log.debug("Audit tail subscriber went away", ex);
+            } finally {
+                if (!cancelled) {
+                    try {
+                        onEnd.run();
+                    } catch (IllegalStateException ex) {
+                        log.debug("Audit tail stream already completed", ex);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void accept(AuditLogEntry entry) {
+            skipTo(entry.sequence());
+            if (format == AuditTailFormat.SSE) {
+                append("id: " + entry.sequence() + "\nevent: audit\ndata: " + json(entry) + "\n\n");
+            } else {
+                append(json(entry) + "\n");
+            }
+            cursor = entry.sequence() + 1;
+        }
+
+        private void skipTo(long sequence) {
+            if (sequence <= cursor) {
+                return;
+            }
+            dropped.increment(sequence - cursor);
+            Gap gap = new Gap(cursor, sequence);
+            if (format == AuditTailFormat.SSE) {
+                append("event: gap\ndata: " + json(gap) + "\n\n");
+            } else {
+                append(json(Map.of("gap", gap)) + "\n");
+            }
+            cursor = sequence;
+        }
+
+        private void append(String text) {
+            pending.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private String json(Object value) {
+            try {
+                return objectMapper.writeValueAsString(value);
+            } catch (JsonProcessingException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
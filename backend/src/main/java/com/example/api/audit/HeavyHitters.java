@@ -0,0 +1,168 @@
+package com.example.api.audit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded "filtered space-saving" summary of the most frequent keys in a stream, with counts split
+ * by status class.
+ *
+ * <p>At most {@code capacity} keys are monitored. Once the summary is full, occurrences of other
+ * keys are counted in a small array of hashed counters instead. When a key's hashed counter
+ * reaches the smallest monitored count, the key replaces the monitored key with that count and
+ * inherits its hashed count as its possible overestimate; the evicted key's count moves to its own
+ * hashed counter. Every key seen more than {@code total / capacity} times is thereby monitored,
+ * while a long tail of light keys costs one atomic increment each instead of an eviction.
+ *
+ * <p>Counting a monitored key is a lock-free {@link LongAdder} increment; only admitting a key
+ * synchronizes. Increments racing with the eviction of their key may be lost, which is within the
+ * error the summary already allows.
+ */
+final class HeavyHitters {
+
+    private static final int FILTER_COUNTERS_PER_KEY = 4;
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final AtomicLongArray filter;
+
+    /**
+     * Smallest monitored count when it was last computed, or zero while the summary has room.
+     * Counts only grow, so a stale value is a lower bound and at worst admits a key early.
+     */
+    private volatile long floor;
+
+    HeavyHitters(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Heavy hitter capacity must be positive but was " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new ConcurrentHashMap<>(capacity * 2);
+        this.filter = new AtomicLongArray(capacity * FILTER_COUNTERS_PER_KEY);
+    }
+
+    void add(String key, int statusClass) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = admit(key, 0);
+            } else {
+                long filtered = filter.incrementAndGet(slot(key));
+                counter = filtered > floor ? admit(key, filtered - 1) : null;
+            }
+            if (counter == null) {
+                return;
+            }
+        }
+        counter.byStatusClass[statusClass].increment();
+    }
+
+    /**
+     * Monitored keys and their counters. A key absent from the map occurred at most
+     * {@link #floor()} times.
+     */
+    Map<String, Counter> counters() {
+        return counters;
+    }
+
+    /**
+     * Upper bound on the count of any key that is not monitored: zero until the summary fills
+     * up, then the largest hashed counter.
+     */
+    long floor() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        long max = 0;
+        for (int i = 0; i < filter.length(); i++) {
+            max = Math.max(max, filter.get(i));
+        }
+        return max;
+    }
+
+    /**
+     * Starts monitoring {@code key} with {@code error} earlier occurrences it may have had,
+     * evicting the key with the smallest count when the summary is full.
+     *
+     * @return the key's counter, or {@code null} when its count no longer beats the smallest one
+     */
+    private synchronized Counter admit(String key, long error) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= capacity) {
+            Map.Entry<String, Counter> smallest = smallest();
+            long evicted = smallest.getValue().count();
+            if (error + 1 <= evicted) {
+                // Another admission raised the floor meanwhile; stay in the filter.
+                floor = evicted;
+                return null;
+            }
+            counters.remove(smallest.getKey());
+            filter.accumulateAndGet(slot(smallest.getKey()), evicted, Math::max);
+        }
+        counter = new Counter(error);
+        counters.put(key, counter);
+        if (counters.size() >= capacity) {
+            floor = smallest().getValue().count();
+        }
+        return counter;
+    }
+
+    private Map.Entry<String, Counter> smallest() {
+        Map.Entry<String, Counter> smallest = null;
+        long smallestCount = Long.MAX_VALUE;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            long count = entry.getValue().count();
+            if (count < smallestCount) {
+                smallest = entry;
+                smallestCount = count;
+            }
+        }
+        return smallest;
+    }
+
+    private int slot(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (int) ((hash & 0xFFFFFFFFL) % filter.length());
+    }
+
+    static final class Counter {
+
+        private final long error;
+        private final LongAdder[] byStatusClass = new LongAdder[AuditRollups.STATUS_CLASSES];
+
+        private Counter(long error) {
+            this.error = error;
+            for (int i = 0; i < byStatusClass.length; i++) {
+                byStatusClass[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Estimated occurrences, never less than the true count and at most {@link #error()}
+         * above it.
+         */
+        long count() {
+            long count = error;
+            for (LongAdder adder : byStatusClass) {
+                count += adder.sum();
+            }
+            return count;
+        }
+
+        long error() {
+            return error;
+        }
+
+        /**
+         * Occurrences with the given status class counted since the key was last admitted.
+         */
+        long observed(int statusClass) {
+            return byStatusClass[statusClass].sum();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.api.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hands a sample of the SQL statements Hibernate prepares to the {@link AccessLogWriter}. The
+ * calling thread draws a random number and, for a sampled statement, adds it to a bounded
+ * lock-free queue; samples arriving while the queue is full are counted as dropped.
+ */
+public class SqlStatementSampler implements StatementInspector {
+
+    private final double sampleRate;
+    private final int capacity;
+    private final Queue<SqlStatement> statements = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter dropped;
+
+    public SqlStatementSampler(double sampleRate, int capacity, MeterRegistry meterRegistry) {
+        this.sampleRate = sampleRate;
+        this.capacity = capacity;
+        this.dropped = Counter.builder("access.log.dropped")
+                .description("Access log lines lost because the writer fell behind")
+                .tag("source", "sql")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            offer(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Passes every queued statement to {@code consumer}, oldest first, and returns how many.
+     */
+    int drain(Consumer<SqlStatement> consumer) {
+        int drained = 0;
+        SqlStatement statement;
+        while ((statement = statements.poll()) != null) {
+            size.decrementAndGet();
+            consumer.accept(statement);
+            drained++;
+        }
+        return drained;
+    }
+
+    private void offer(String sql) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        statements.add(new SqlStatement(Instant.now(), sql));
+    }
+
+    record SqlStatement(Instant timestamp, String sql) {
+    }
+}
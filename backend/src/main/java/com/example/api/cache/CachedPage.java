@@ -0,0 +1,8 @@
+package com.example.api.cache;
+
+/**
+ * Encoded {@code UserPage} for the keyset page after {@code after}. {@code next} is the page's
+ * cursor, or {@code null} for the last page.
+ */
+public record CachedPage(long after, Long next, EncodedJson json) {
+}
@@ -0,0 +1,10 @@
+package com.example.api.cache;
+
+import com.example.api.model.User;
+
+/**
+ * Detached snapshot of a user together with the strong ETag and the JSON encoding computed when
+ * it was loaded. The wrapped {@link User} is shared between requests and must not be mutated.
+ */
+public record CachedUser(User user, String etag, EncodedJson json) {
+}
@@ -0,0 +1,49 @@
+package com.example.api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A representation serialized once as UTF-8 JSON, plus a gzip-compressed copy when the JSON is at
+ * least {@code gzipMinSize} bytes and compression actually shrinks it. Callers must not modify
+ * the arrays.
+ */
+public record EncodedJson(byte[] identity, byte[] gzip) {
+
+    // Rough per-entry cost of the cache node, key and wrapper objects on top of the byte arrays.
+    private static final int ENTRY_OVERHEAD = 128;
+
+    static EncodedJson encode(ObjectMapper objectMapper, Object value, long gzipMinSize) {
+        byte[] identity;
+        try {
+            identity = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        byte[] gzip = identity.length >= gzipMinSize ? gzip(identity) : null;
+        return new EncodedJson(identity, gzip != null && gzip.length < identity.length ? gzip : null);
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    int weight() {
+        return ENTRY_OVERHEAD + identity.length + (gzip != null ? gzip.length : 0);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
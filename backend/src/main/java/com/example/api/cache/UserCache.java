@@ -0,0 +1,113 @@
+package com.example.api.cache;
+
+import com.example.api.model.User;
+import com.example.api.model.UserPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache in front of {@code UserRepository} holding each user, and each
+ * keyset page of users, already encoded as JSON so hot reads skip serialization. Both caches are
+ * bounded by the bytes they hold. Hit, miss and eviction counts are published as {@code cache.*}
+ * meters tagged {@code cache=users} and {@code cache=user-pages}.
+ *
+ * <p>Pages are not evicted one by one. Every write advances a generation, and a page is only
+ * served to readers that started no later than the generation it was loaded in. A write is O(1)
+ * however many pages are cached, and a page whose load was still running when the write happened
+ * is refused by the next reader instead of being served until the TTL.
+ */
+public class UserCache {
+
+    private final Cache<Long, CachedUser> users;
+    private final Cache<PageKey, StampedPage> pages;
+    private final AtomicLong pageGeneration = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final long gzipMinSize;
+
+    public UserCache(UserCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.gzipMinSize = properties.getGzipMinSize().toBytes();
+        this.users = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumBytes().toBytes())
+                .weigher((Long id, CachedUser entry) -> entry.json().weight())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(properties.getPageMaximumBytes().toBytes())
+                .weigher((PageKey key, StampedPage entry) -> entry.page().json().weight())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "user-pages");
+    }
+
+    /**
+     * Returns the cached entry for {@code id}, loading it through {@code loader} on a miss.
+     * Returns {@code null} when the loader finds no user; absent users are not cached.
+     */
+    public CachedUser get(Long id, Function<Long, Optional<User>> loader) {
+        return users.get(id, key -> loader.apply(key).map(this::toEntry).orElse(null));
+    }
+
+    /**
+     * The cached entry for {@code id}, or {@code null} when it is not cached.
+     */
+    public CachedUser getIfPresent(Long id) {
+        return users.getIfPresent(id);
+    }
+
+    /**
+     * Returns the cached page, loading it through {@code loader} when it is missing or was loaded
+     * before the latest write. The generation is read before loading, so a write that commits
+     * while the load runs leaves the page stamped with the generation before it.
+     */
+    public CachedPage getPage(long after, int limit, Supplier<UserPage> loader) {
+        PageKey key = new PageKey(after, limit);
+        long generation = pageGeneration.get();
+        while (true) {
+            StampedPage cached = pages.get(key, k -> {
+                UserPage page = loader.get();
+                return new StampedPage(generation,
+                        new CachedPage(after, page.next(), EncodedJson.encode(objectMapper, page, gzipMinSize)));
+            });
+            if (cached.generation() >= generation) {
+                return cached.page();
+            }
+            pages.asMap().remove(key, cached);
+        }
+    }
+
+    public void invalidate(Long id) {
+        users.invalidate(id);
+        pageGeneration.incrementAndGet();
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        users.invalidateAll(ids);
+        pageGeneration.incrementAndGet();
+    }
+
+    private CachedUser toEntry(User user) {
+        User snapshot = new User(user.getUsername(), user.getEmail(), user.getRole());
+        snapshot.setId(user.getId());
+        snapshot.setVersion(user.getVersion());
+        return new CachedUser(snapshot, UserEtags.of(snapshot.getVersion()), EncodedJson.encode(objectMapper, snapshot, gzipMinSize));
+    }
+
+    private record PageKey(long after, int limit) {
+    }
+
+    private record StampedPage(long generation, CachedPage page) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.api.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UserCacheProperties.class)
+public class UserCacheConfig {
+
+    @Bean
+    public UserCache userCache(UserCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new UserCache(properties, objectMapper, meterRegistry);
+    }
+}
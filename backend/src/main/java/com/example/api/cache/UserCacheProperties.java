@@ -0,0 +1,67 @@
+package com.example.api.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.cache.users")
+public class UserCacheProperties {
+
+    /**
+     * Upper bound on the encoded JSON held for single users, counting the gzip variant and a
+     * fixed per-entry overhead. Least recently used entries are evicted once it is reached.
+     */
+    private DataSize maximumBytes = DataSize.ofMegabytes(32);
+
+    /**
+     * The same bound for encoded pages of {@code GET /users}.
+     */
+    private DataSize pageMaximumBytes = DataSize.ofMegabytes(16);
+
+    /**
+     * Smallest encoded representation that also gets a gzip variant. Single users are well below
+     * the default and are served uncompressed.
+     */
+    private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+
+    /**
+     * How long an entry may be served after it was loaded. Writes on this pod invalidate entries
+     * at commit, writes on other pods once {@code UserChangePoller} sees them (settle delay plus
+     * sync interval, about three seconds by default). The TTL only bounds staleness while the
+     * change feed cannot be polled, or from changes made outside the service.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+    public DataSize getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    public void setMaximumBytes(DataSize maximumBytes) {
+        this.maximumBytes = maximumBytes;
+    }
+
+    public DataSize getPageMaximumBytes() {
+        return pageMaximumBytes;
+    }
+
+    public void setPageMaximumBytes(DataSize pageMaximumBytes) {
+        this.pageMaximumBytes = pageMaximumBytes;
+    }
+
+    public DataSize getGzipMinSize() {
+        return gzipMinSize;
+    }
+
+    public void setGzipMinSize(DataSize gzipMinSize) {
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.api.cache;
+
+/**
+ * Strong user ETags carry the user's version, e.g. {@code "3"}. Variants of the same version keep
+ * it as their prefix: {@code "3-gzip"} for the compressed body and {@code "3;username"} for a
+ * sparse fieldset.
+ */
+public final class UserEtags {
+
+    private UserEtags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The version named by an {@code If-Match} header holding one strong user ETag or any of its
+     * variants, or {@code null} when the header names no version.
+     */
+    public static Long version(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() < 3 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+            return null;
+        }
+        int end = 1;
+        while (end < etag.length() - 1 && Character.isDigit(etag.charAt(end))) {
+            end++;
+        }
+        char next = etag.charAt(end);
+        if (end == 1 || end > 19 || (next != '"' && next != '-' && next != ';')
+                || etag.indexOf('"', end) != etag.length() - 1) {
+            return null;
+        }
+        return Long.parseLong(etag, 1, end, 10);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.api.changes;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Position in the user change feed: the last change handed out, as its change sequence number
+ * and user id, and the time up to which the client has seen every change after that position.
+ * Serialized as {@code <seq>.<id>.<asOfMillis>}; clients treat it as opaque.
+ */
+public record ChangeToken(long seq, long id, long asOfMillis) {
+
+    /**
+     * Start of the feed: a full sync of all current users.
+     */
+    public static final ChangeToken INITIAL = new ChangeToken(0, 0, 0);
+
+    /**
+     * @throws ResponseStatusException with 400 when {@code token} is malformed
+     */
+    public static ChangeToken parse(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length == 3) {
+            try {
+                return new ChangeToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            } catch (NumberFormatException ignored) {
+                // Reported below.
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed change token: " + token);
+    }
+
+    public boolean isInitial() {
+        return seq == 0 && id == 0;
+    }
+
+    @Override
+    public String toString() {
+        return seq + "." + id + "." + asOfMillis;
+    }
+}
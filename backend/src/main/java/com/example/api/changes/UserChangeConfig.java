@@ -0,0 +1,33 @@
+package com.example.api.changes;
+
+import com.example.api.cache.UserCache;
+import com.example.api.repository.UserRepository;
+import com.example.api.repository.UserTombstoneRepository;
+import com.example.api.search.UserSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UserChangeProperties.class)
+public class UserChangeConfig {
+
+    @Bean
+    public UserChangeFeed userChangeFeed(UserRepository userRepository,
+                                         UserTombstoneRepository tombstoneRepository,
+                                         EntityManager entityManager,
+                                         UserChangeProperties properties,
+                                         MeterRegistry meterRegistry) {
+        return new UserChangeFeed(userRepository, tombstoneRepository, entityManager, properties, meterRegistry);
+    }
+
+    @Bean
+    public UserChangePoller userChangePoller(UserChangeFeed userChangeFeed,
+                                             UserSearchIndex userSearchIndex,
+                                             UserCache userCache,
+                                             MeterRegistry meterRegistry) {
+        return new UserChangePoller(userChangeFeed, userSearchIndex, userCache, meterRegistry);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.api.changes;
+
+import com.example.api.datasource.ReadWriteRoutingDataSource;
+import com.example.api.model.User;
+import com.example.api.model.UserChange;
+import com.example.api.model.UserTombstone;
+import com.example.api.repository.UserRepository;
+import com.example.api.repository.UserTombstoneRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Serves inserts, updates and deletes of users in change sequence order so clients can keep a
+ * local copy in sync. Live users and tombstones are read with two index range scans and merged
+ * by {@code (changeSeq, id)}; a feed response ends with a checkpoint carrying the next token.
+ */
+public class UserChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeFeed.class);
+
+    private final UserRepository userRepository;
+    private final UserTombstoneRepository tombstoneRepository;
+    private final EntityManager entityManager;
+    private final UserChangeProperties properties;
+    private final Counter purgedCounter;
+
+    public UserChangeFeed(UserRepository userRepository,
+                          UserTombstoneRepository tombstoneRepository,
+                          EntityManager entityManager,
+                          UserChangeProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.purgedCounter = Counter.builder("users.changes.tombstones.purged")
+                .description("Tombstones of deleted users purged after the retention window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates a client token before any output is written. A {@code null} or blank token starts
+     * a full sync.
+     *
+     * @throws ResponseStatusException with 400 for a malformed token and 410 for a token older
+     *                                 than the retention window, whose deletes may be gone
+     */
+    public ChangeToken start(String since) {
+        if (since == null || since.isBlank()) {
+            return ChangeToken.INITIAL;
+        }
+        ChangeToken token = ChangeToken.parse(since.trim());
+        if (!token.isInitial() && token.asOfMillis() < System.currentTimeMillis() - properties.getRetention().toMillis()) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Change token is older than the " + properties.getRetention() + " retention window; resync without a token");
+        }
+        return token;
+    }
+
+    /**
+     * Position after every change that has settled by now, for a reader that goes on to load all
+     * current users itself and only needs the changes after that. A chunk of users written
+     * together shares one change sequence number, so the position covers every id at it.
+     */
+    @Transactional(readOnly = true)
+    public ChangeToken head() {
+        long cutoff = System.currentTimeMillis() - properties.getSettleDelay().toMillis();
+        OffsetDateTime before = OffsetDateTime.ofInstant(Instant.ofEpochMilli(cutoff), ZoneOffset.UTC);
+        long seq = ReadWriteRoutingDataSource.readFromPrimary(() -> Math.max(
+                userRepository.maxChangeSeqBefore(before), tombstoneRepository.maxChangeSeqBefore(before)));
+        return new ChangeToken(seq, Long.MAX_VALUE, cutoff);
+    }
+
+    /**
+     * Passes up to {@code limit} changes after {@code from} to {@code consumer}, followed by a
+     * checkpoint. Changes younger than the settle delay are held back for a later poll. A full
+     * sync skips tombstones since the client has nothing to delete.
+     *
+     * <p>Reads go to the primary: the settle delay covers transactions that have not committed
+     * yet, not replica lag, and a lagging replica would move the cursor past rows it has not
+     * received. The routing data source only picks the connection at the first statement, so the
+     * hint still applies inside the already started transaction.
+     */
+    @Transactional(readOnly = true)
+    public void stream(ChangeToken from, int limit, Consumer<UserChange> consumer) {
+        ReadWriteRoutingDataSource.readFromPrimary(() -> streamFromPrimary(from, limit, consumer));
+    }
+
+    private void streamFromPrimary(ChangeToken from, int limit, Consumer<UserChange> consumer) {
+        long cutoff = System.currentTimeMillis() - properties.getSettleDelay().toMillis();
+        try (Stream<User> users = userRepository.streamChangedAfter(from.seq(), from.id());
+             Stream<UserTombstone> tombstones = from.isInitial()
+                     ? Stream.empty()
+                     : tombstoneRepository.streamChangedAfter(from.seq(), from.id())) {
+            Iterator<User> userIterator = users.iterator();
+            Iterator<UserTombstone> tombstoneIterator = tombstones.iterator();
+            User user = next(userIterator);
+            UserTombstone tombstone = next(tombstoneIterator);
+            ChangeToken position = from;
+            long lastAt = from.asOfMillis();
+            int sent = 0;
+            boolean more = false;
+            while (user != null || tombstone != null) {
+                boolean takeUser = tombstone == null
+                        || (user != null && (user.getChangeSeq() < tombstone.getChangeSeq()
+                        || (user.getChangeSeq().equals(tombstone.getChangeSeq()) && user.getId() < tombstone.getUserId())));
+                long at = millis(takeUser ? user.getUpdatedAt() : tombstone.getDeletedAt());
+                if (at > cutoff) {
+                    break;
+                }
+                if (sent == limit) {
+                    more = true;
+                    break;
+                }
+                if (takeUser) {
+                    consumer.accept(UserChange.upsert(user));
+                    position = new ChangeToken(user.getChangeSeq(), user.getId(), 0);
+                    entityManager.detach(user);
+                    user = next(userIterator);
+                } else {
+                    consumer.accept(UserChange.delete(tombstone));
+                    position = new ChangeToken(tombstone.getChangeSeq(), tombstone.getUserId(), 0);
+                    entityManager.detach(tombstone);
+                    tombstone = next(tombstoneIterator);
+                }
+                lastAt = Math.max(lastAt, at);
+                sent++;
+            }
+            // Only a drained feed proves that nothing up to the cutoff is still unseen.
+            long asOf = more ? lastAt : Math.max(cutoff, from.asOfMillis());
+            consumer.accept(UserChange.checkpoint(new ChangeToken(position.seq(), position.id(), asOf).toString(), more));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.changes.purge-interval:PT1H}")
+    public void purgeTombstones() {
+        OffsetDateTime before = OffsetDateTime.now().minus(properties.getRetention());
+        int purged = tombstoneRepository.deleteByDeletedAtBefore(before);
+        if (purged > 0) {
+            purgedCounter.increment(purged);
+            log.info("Purged {} user tombstones deleted before {}", purged, before);
+        }
+    }
+
+    private static <T> T next(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static long millis(OffsetDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.api.changes;
+
+import com.example.api.cache.UserCache;
+import com.example.api.model.UserChange;
+import com.example.api.search.UserSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Tails the user change feed so that this pod's search index and user cache follow writes made
+ * on every pod, not only the ones {@code UserService} makes here. A write on another pod reaches
+ * this one after the feed's settle delay plus at most one sync interval. The feed position is
+ * taken before the index is loaded, so the first polls replay at most the last few seconds of
+ * writes, which the index ignores as already seen.
+ */
+public class UserChangePoller {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangePoller.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final UserChangeFeed feed;
+    private final UserSearchIndex searchIndex;
+    private final UserCache userCache;
+    private final Counter appliedCounter;
+    private final Counter failedCounter;
+
+    private volatile ChangeToken position;
+
+    public UserChangePoller(UserChangeFeed feed, UserSearchIndex searchIndex, UserCache userCache, MeterRegistry meterRegistry) {
+        this.feed = feed;
+        this.searchIndex = searchIndex;
+        this.userCache = userCache;
+        this.appliedCounter = Counter.builder("users.changes.sync.applied")
+                .description("User changes from the feed applied to this pod's search index and cache")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("users.changes.sync.failed")
+                .description("Change feed polls that failed and will be retried")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ChangeToken head = feed.head();
+        searchIndex.load();
+        position = head;
+    }
+
+    /**
+     * Applies every change after the current position, a batch at a time. A failed poll leaves
+     * the position where the last complete batch ended.
+     */
+    @Scheduled(fixedDelayString = "${app.users.changes.sync-interval:PT1S}")
+    public void poll() {
+        if (position == null) {
+            return;
+        }
+        try {
+            boolean more;
+            do {
+                more = pollBatch();
+            } while (more);
+        } catch (RuntimeException ex) {
+            failedCounter.increment();
+            log.warn("Could not poll the user change feed from {}", position, ex);
+        }
+    }
+
+    ChangeToken position() {
+        return position;
+    }
+
+    private boolean pollBatch() {
+        Batch batch = new Batch();
+        feed.stream(position, BATCH_SIZE, batch);
+        // One pass over the cached pages for the whole batch.
+        userCache.invalidateAll(batch.changed);
+        position = ChangeToken.parse(batch.checkpoint.next());
+        return Boolean.TRUE.equals(batch.checkpoint.more());
+    }
+
+    private final class Batch implements Consumer<UserChange> {
+
+        final List<Long> changed = new ArrayList<>();
+        UserChange checkpoint;
+
+        @Override
+        public void accept(UserChange change) {
+            switch (change.op()) {
+                case "upsert" -> {
+                    searchIndex.index(change.user());
+                    changed.add(change.id());
+                    appliedCounter.increment();
+                }
+                case "delete" -> {
+                    searchIndex.remove(change.id());
+                    changed.add(change.id());
+                    appliedCounter.increment();
+                }
+                default -> checkpoint = change;
+            }
+        }
+    }
+}
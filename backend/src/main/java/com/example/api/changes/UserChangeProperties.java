@@ -0,0 +1,65 @@
+package com.example.api.changes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.users.changes")
+public class UserChangeProperties {
+
+    /**
+     * How old a change must be before the feed hands it out. Change sequence numbers are drawn
+     * before the writing transaction commits, so a later number can become visible first; the
+     * delay must exceed the longest user write transaction or a poller can skip a change.
+     */
+    private Duration settleDelay = Duration.ofSeconds(2);
+
+    /**
+     * How long tombstones of deleted users are kept. Tokens older than this are rejected with
+     * 410 and the client has to resync from scratch.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Interval between tombstone purges.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /**
+     * How often each pod polls the feed for writes made on any pod, to keep its search index in
+     * step. Writes reach other pods after this plus the settle delay.
+     */
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    public Duration getSettleDelay() {
+        return settleDelay;
+    }
+
+    public void setSettleDelay(Duration settleDelay) {
+        this.settleDelay = settleDelay;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public Duration getSyncInterval() {
+        return syncInterval;
+    }
+
+    public void setSyncInterval(Duration syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+}
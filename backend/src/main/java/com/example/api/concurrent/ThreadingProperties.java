@@ -0,0 +1,50 @@
+package com.example.api.concurrent;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Diagnostics for the virtual-thread execution mode. The mode itself is switched with Spring
+ * Boot's {@code spring.threads.virtual.enabled}, which only takes effect on Java 21 or later.
+ */
+@ConfigurationProperties(prefix = "app.threads")
+public class ThreadingProperties {
+
+    private final Pinning pinning = new Pinning();
+
+    public Pinning getPinning() {
+        return pinning;
+    }
+
+    public static class Pinning {
+
+        /**
+         * Whether to record virtual threads that stay pinned to their carrier, typically by
+         * blocking inside a {@code synchronized} block or a native frame. Only applies while
+         * virtual threads are active.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Shortest pinned interval that is recorded.
+         */
+        private Duration threshold = Duration.ofMillis(20);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+    }
+}
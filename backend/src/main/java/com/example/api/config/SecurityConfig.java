@@ -1,6 +1,8 @@
 package com.example.api.config;
 
 import com.example.api.audit.AuditLogInterceptor;
+import com.example.api.security.CachingJwtAuthenticationManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,12 +39,16 @@ public class SecurityConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("*")
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                .allowedHeaders("*");
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
+                // Includes If-Match and If-None-Match; the ETag they carry must be readable too.
+                .allowedHeaders("*")
+                .exposedHeaders("ETag");
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   ObjectProvider<CachingJwtAuthenticationManager> jwtAuthenticationManager)
+            throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -52,7 +58,7 @@ public class SecurityConfig implements WebMvcConfigurer {
                             .requestMatchers("/actuator/**", "/v3/api-docs/**", "/swagger-ui/**", "/api/config/**").permitAll()
                             .anyRequest().authenticated())
                     .oauth2ResourceServer(oauth2 -> oauth2
-                            .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
+                            .jwt(jwt -> jwt.authenticationManager(jwtAuthenticationManager.getObject())));
         } else {
             http.authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
                     .anonymous(anonymous -> anonymous
@@ -0,0 +1,40 @@
+package com.example.api.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.sql.init.AbstractScriptDatabaseInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Support for {@code spring.main.lazy-initialization}, which the {@code fast-start} profile turns
+ * on so that beans are created on first use instead of before the first request.
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keeps beans eager whose creation does work nothing else asks for: schedules are only
+     * registered for beans that exist, beans with an init method start threads or warm caches
+     * that requests rely on, and no bean depends on the schema and data scripts having run.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter backgroundWorkExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> hasInitMethod(beanDefinition)
+                || hasScheduledMethods(beanType)
+                || (beanType != null && AbstractScriptDatabaseInitializer.class.isAssignableFrom(beanType));
+    }
+
+    private static boolean hasInitMethod(BeanDefinition beanDefinition) {
+        return beanDefinition.getInitMethodName() != null;
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return beanType != null && !MethodIntrospector.selectMethods(beanType,
+                (ReflectionUtils.MethodFilter) method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
@@ -2,26 +2,77 @@ package com.example.api.controller;
 
 import com.example.api.audit.AuditLogEntry;
 import com.example.api.audit.AuditLogService;
+import com.example.api.audit.AuditRollupReport;
+import com.example.api.audit.AuditQuery;
+import com.example.api.audit.AuditTailFormat;
+import com.example.api.audit.AuditTailService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/audit")
 public class AuditController {
 
+    private static final Duration DEFAULT_ROLLUP_WINDOW = Duration.ofHours(1);
+
     private final AuditLogService auditLogService;
+    private final AuditTailService auditTailService;
 
-    public AuditController(AuditLogService auditLogService) {
+    public AuditController(AuditLogService auditLogService, AuditTailService auditTailService) {
         this.auditLogService = auditLogService;
+        this.auditTailService = auditTailService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<AuditLogEntry> list(@RequestParam(required = false) Instant from,
+                                    @RequestParam(required = false) Instant to,
+                                    @RequestParam(required = false) String user,
+                                    @RequestParam(required = false) String pathPrefix,
+                                    @RequestParam(required = false) Integer status,
+                                    @RequestParam(defaultValue = "1000") @Min(1) @Max(10000) int limit) {
+        return auditLogService.query(new AuditQuery(from, to, user, pathPrefix, status, limit));
+    }
+
+    @GetMapping(path = "/rollups", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public AuditRollupReport rollups(@RequestParam(required = false) Instant from,
+                                     @RequestParam(required = false) Instant to,
+                                     @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        Instant end = to != null ? to : Instant.now();
+        return auditLogService.rollups(from != null ? from : end.minus(DEFAULT_ROLLUP_WINDOW), end, limit);
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseBodyEmitter> stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                                      @RequestParam(required = false) @Min(-1) Long after) {
+        // EventSource reconnects with the original URL, so the resume header wins over the query parameter.
+        return tail(AuditTailFormat.SSE, lastEventId != null ? lastEventId : after);
     }
 
-    @GetMapping
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
     @PreAuthorize("hasRole('ADMIN')")
-    public List<AuditLogEntry> stream() {
-        return auditLogService.recentEvents();
+    public ResponseEntity<ResponseBodyEmitter> streamNdjson(@RequestParam(required = false) @Min(-1) Long after) {
+        return tail(AuditTailFormat.NDJSON, after);
+    }
+
+    private ResponseEntity<ResponseBodyEmitter> tail(AuditTailFormat format, Long after) {
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(auditTailService.subscribe(format, after));
     }
 }
@@ -1,14 +1,37 @@
 package com.example.api.controller;
 
+import com.example.api.cache.CachedPage;
+import com.example.api.cache.CachedUser;
+import com.example.api.cache.EncodedJson;
+import com.example.api.cache.UserEtags;
+import com.example.api.changes.ChangeToken;
+import com.example.api.changes.UserChangeFeed;
+import com.example.api.model.BulkImportResult;
 import com.example.api.model.User;
+import com.example.api.model.UserFields;
+import com.example.api.model.UserPage;
+import com.example.api.model.UserPatch;
+import com.example.api.model.UserSearchResult;
+import com.example.api.service.UserBulkImporter;
 import com.example.api.service.UserService;
-import io.micrometer.core.annotation.Counted;
-import io.micrometer.core.annotation.Timed;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -16,23 +39,119 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserBulkImporter bulkImporter;
+    private final UserChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserBulkImporter bulkImporter, UserChangeFeed changeFeed,
+                          ObjectMapper objectMapper) {
         this.userService = userService;
+        this.bulkImporter = bulkImporter;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
     }
 
-    @GetMapping
-    @Timed(value = "users.list.time", description = "Time spent listing users")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    public List<User> findAll() {
-        return userService.findAll();
+    public ResponseEntity<byte[]> findAll(@RequestParam(defaultValue = "0") @Min(0) Long after,
+                                          @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit,
+                                          @RequestParam(required = false) String fields,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        UserFields selected = UserFields.parse(fields);
+        if (selected == null) {
+            CachedPage page = userService.findCachedPage(after, limit);
+            return json(page.json(), null, acceptEncoding);
+        }
+        UserPage page = userService.findProjectedPage(after, limit, selected);
+        byte[] body = encode(generator -> {
+            generator.writeStartObject();
+            writeItems(generator, page.items(), selected);
+            generator.writeFieldName("next");
+            if (page.next() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(page.next());
+            }
+            generator.writeEndObject();
+        });
+        return json(new EncodedJson(body, null), null, acceptEncoding);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestParam(defaultValue = "0") @Min(0) Long after) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjson(after));
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    public ResponseEntity<byte[]> search(@RequestParam(required = false) String username,
+                                         @RequestParam(required = false) String email,
+                                         @RequestParam(required = false) String role,
+                                         @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int limit,
+                                         @RequestParam(required = false) String fields) {
+        UserFields selected = UserFields.parse(fields);
+        UserSearchResult result = userService.search(username, email, role, limit);
+        byte[] body = encode(generator -> {
+            if (selected == null) {
+                generator.writeObject(result);
+                return;
+            }
+            generator.writeStartObject();
+            writeItems(generator, result.items(), selected);
+            generator.writeNumberField("total", result.total());
+            generator.writeEndObject();
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    public ResponseEntity<StreamingResponseBody> changes(@RequestParam(required = false) String since,
+                                                         @RequestParam(defaultValue = "10000") @Min(1) @Max(100000) int limit) {
+        // Validated up front so a bad or expired token is still answered with a status code.
+        ChangeToken from = changeFeed.start(since);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                        generator.setRootValueSeparator(null);
+                        changeFeed.stream(from, limit, change -> writeLine(generator, change));
+                    }
+                });
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(ndjson(0L));
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkImportResult importUsers(InputStream body) throws IOException {
+        return bulkImporter.importUsers(body);
     }
 
     @GetMapping("/{id}")
-    @Counted(value = "users.get.count", description = "Number of times a user is retrieved")
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    public User findById(@PathVariable Long id) {
-        return userService.findById(id);
+    public ResponseEntity<byte[]> findById(@PathVariable Long id,
+                                           @RequestParam(required = false) String fields,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        UserFields selected = UserFields.parse(fields);
+        // Returning the ETag lets Spring answer a matching If-None-Match with 304 before the body is written.
+        CachedUser cached = userService.findCachedById(id);
+        if (selected == null) {
+            return json(cached.json(), cached.etag(), acceptEncoding);
+        }
+        // Projected from the cached snapshot, which is cheaper than a projection query.
+        String etag = cached.etag().substring(0, cached.etag().length() - 1) + ";" + selected.tag() + "\"";
+        return json(new EncodedJson(encode(generator -> selected.write(generator, cached.user())), null), etag, acceptEncoding);
     }
 
     @PostMapping
@@ -48,10 +167,112 @@ public class UserController {
         return userService.update(id, user);
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<User> patch(@PathVariable Long id,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                      @Valid @RequestBody UserPatch patch) {
+        if (ifMatch == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED, "PATCH requires If-Match with the user's ETag");
+        }
+        User patched = userService.patch(id, requiredVersion(ifMatch), patch);
+        return ResponseEntity.ok().eTag(UserEtags.of(patched.getVersion())).body(patched);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PreAuthorize("hasRole('ADMIN')")
-    public void delete(@PathVariable Long id) {
-        userService.delete(id);
+    public void delete(@PathVariable Long id,
+                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        userService.delete(id, ifMatch == null ? null : requiredVersion(ifMatch));
+    }
+
+    /**
+     * The version an If-Match header names, or {@code null} for {@code *}, which any current
+     * version matches (RFC 9110, section 13.1.1). Anything else, including weak and multiple
+     * ETags, cannot match a user, which is a failed precondition.
+     */
+    private static Long requiredVersion(String ifMatch) {
+        if (ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long version = UserEtags.version(ifMatch);
+        if (version == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not name a version of this user");
+        }
+        return version;
+    }
+
+    /**
+     * Answers with pre-encoded JSON as is, picking the gzip variant when there is one and the
+     * client accepts it. The variants get distinct ETags since their bytes differ.
+     */
+    private static ResponseEntity<byte[]> json(EncodedJson json, String etag, String acceptEncoding) {
+        boolean gzip = json.hasGzip() && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (json.hasGzip()) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (etag != null) {
+            response.eTag(gzip ? etag.substring(0, etag.length() - 1) + "-gzip\"" : etag);
+        }
+        return response.body(gzip ? json.gzip() : json.identity());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private byte[] encode(JsonWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            writer.write(generator);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeItems(JsonGenerator generator, List<User> users, UserFields fields) throws IOException {
+        generator.writeArrayFieldStart("items");
+        for (User user : users) {
+            fields.write(generator, user);
+        }
+        generator.writeEndArray();
+    }
+
+    private StreamingResponseBody ndjson(Long after) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                userService.streamAll(after, user -> writeLine(generator, user));
+            }
+        };
+    }
+
+    private static void writeLine(JsonGenerator generator, Object value) {
+        try {
+            generator.writeObject(value);
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private interface JsonWriter {
+
+        void write(JsonGenerator generator) throws IOException;
     }
 }
@@ -0,0 +1,234 @@
+package com.example.api.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections of the primary for writes and of a replica for read-only transactions.
+ * Replicas are used round-robin while healthy; a read falls back to the primary when none is, or
+ * when the current principal wrote within the read-your-writes window, or when the caller asked for
+ * the primary through {@link #readFromPrimary}.
+ *
+ * <p>The transaction's read-only flag is only known once the transaction has started, so this
+ * data source must sit behind a {@link LazyConnectionDataSourceProxy}, which defers fetching the
+ * connection to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Cache<String, Boolean> recentWriters;
+    private final int healthCheckTimeoutSeconds;
+    private final Counter primaryCounter;
+    private final Counter readYourWritesCounter;
+    private final Counter primaryReadsCounter;
+    private final Counter noReplicaCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primary,
+                                      Map<String, DataSource> replicas,
+                                      DataSourceRoutingProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource, meterRegistry)));
+        Duration window = properties.getReadYourWritesWindow();
+        this.recentWriters = window.isZero() ? null : Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, properties.getHealthCheckTimeout().toSeconds());
+        this.primaryCounter = connections(meterRegistry, "primary", "write");
+        this.readYourWritesCounter = connections(meterRegistry, "primary", "read-your-writes");
+        this.primaryReadsCounter = connections(meterRegistry, "primary", "primary-read");
+        this.noReplicaCounter = connections(meterRegistry, "primary", "no-replica");
+        Gauge.builder("db.routing.replicas.healthy", this.replicas, list -> list.stream().filter(replica -> replica.healthy).count())
+                .description("Read replicas currently receiving read-only transactions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Runs {@code action} with its read-only transactions on the primary. Meant for reads whose
+     * result outlives any replication lag, such as cache fills and change feed cursors; a lagging
+     * replica would otherwise pin stale rows for the cache's lifetime or move a cursor past rows
+     * it has not received yet.
+     */
+    public static <T> T readFromPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READS.remove();
+            } else {
+                PRIMARY_READS.set(previous);
+            }
+        }
+    }
+
+    public static void readFromPrimary(Runnable action) {
+        readFromPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Marks each replica healthy or not by validating one of its connections.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException ex) {
+                log.debug("Health check of replica {} failed", replica.name, ex);
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {}", replica.name, healthy ? "healthy" : "unhealthy");
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite();
+            primaryCounter.increment();
+            return connector.connect(primary);
+        }
+        if (PRIMARY_READS.get() != null) {
+            primaryReadsCounter.increment();
+            return connector.connect(primary);
+        }
+        if (recentWriters != null) {
+            String principal = principal();
+            if (principal != null && recentWriters.getIfPresent(principal) != null) {
+                readYourWritesCounter.increment();
+                return connector.connect(primary);
+            }
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = connector.connect(replica.dataSource);
+                replica.counter.increment();
+                return connection;
+            } catch (SQLException ex) {
+                log.warn("Replica {} refused a connection; reading from other replicas or the primary until it recovers",
+                        replica.name, ex);
+                replica.healthy = false;
+            }
+        }
+        noReplicaCounter.increment();
+        return connector.connect(primary);
+    }
+
+    /**
+     * Starts the principal's read-your-writes window, and restarts it when the transaction ends so
+     * that the window covers replication of the committed changes.
+     */
+    private void recordWrite() {
+        if (recentWriters == null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        String principal = principal();
+        if (principal == null) {
+            return;
+        }
+        recentWriters.put(principal, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    recentWriters.put(principal, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("db.routing.connections")
+                .description("Connections handed out by the read/write routing data source")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private interface Connector {
+
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        final Counter counter;
+        volatile boolean healthy;
+
+        Replica(String name, DataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.counter = connections(meterRegistry, name, "read");
+        }
+    }
+}
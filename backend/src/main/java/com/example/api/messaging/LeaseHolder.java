@@ -0,0 +1,48 @@
+package com.example.api.messaging;
+
+import com.example.api.model.UserEventLease;
+import com.example.api.repository.UserEventLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * This pod's claim on one named {@link UserEventLease}. Work guarded by the lease runs only after
+ * {@link #hold()} returned {@code true}, which makes it run on one pod at a time.
+ */
+public class LeaseHolder {
+
+    private final UserEventLeaseRepository repository;
+    private final String name;
+    private final Duration duration;
+    private final String holder = UUID.randomUUID().toString();
+
+    public LeaseHolder(UserEventLeaseRepository repository, String name, Duration duration) {
+        this.repository = repository;
+        this.name = name;
+        this.duration = duration;
+    }
+
+    /**
+     * Extends the lease, or takes it over once the previous holder let it expire. The first pod
+     * to ask creates it. Returns {@code false} while another pod holds it.
+     */
+    public boolean hold() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime expiresAt = now.plus(duration);
+        if (repository.extend(name, holder, expiresAt, now) == 1) {
+            return true;
+        }
+        if (repository.existsById(name)) {
+            return false;
+        }
+        try {
+            repository.saveAndFlush(new UserEventLease(name, holder, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+}
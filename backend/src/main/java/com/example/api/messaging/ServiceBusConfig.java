@@ -1,14 +1,28 @@
 package com.example.api.messaging;
 
 import com.azure.messaging.servicebus.ServiceBusClientBuilder;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
 import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
+import com.example.api.concurrent.WorkerThreads;
+import com.example.api.repository.OutboxEventRepository;
+import com.example.api.repository.UserEventLeaseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.util.StringUtils;
 
+/**
+ * Service Bus clients are lazy beans, built on the outbox relay's first send and the consumer's
+ * first receive, so no AMQP connection is set up while the application starts.
+ */
 @Configuration
 @EnableConfigurationProperties(ServiceBusProperties.class)
 public class ServiceBusConfig {
@@ -24,10 +38,68 @@ public class ServiceBusConfig {
     }
 
     @Bean(destroyMethod = "close")
+    @Lazy
     @ConditionalOnBean(ServiceBusClientBuilder.class)
     public ServiceBusSenderClient userEventsSenderClient(ServiceBusClientBuilder builder, ServiceBusProperties properties) {
         return builder.sender()
                 .queueName(properties.getQueueName())
                 .buildClient();
     }
+
+    @Bean
+    @ConditionalOnBean(ServiceBusSenderClient.class)
+    public UserEventSender userEventSender(ObjectProvider<ServiceBusSenderClient> userEventsSenderClient) {
+        return new ServiceBusUserEventSender(userEventsSenderClient::getObject);
+    }
+
+    @Bean
+    @ConditionalOnBean(UserEventSender.class)
+    public UserEventOutboxRelay userEventOutboxRelay(OutboxEventRepository outboxRepository,
+                                                     UserEventLeaseRepository leaseRepository,
+                                                     UserEventPublisher publisher,
+                                                     UserEventSender sender,
+                                                     ServiceBusProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        LeaseHolder lease = new LeaseHolder(leaseRepository, "outbox-relay", properties.getOutbox().getLeaseDuration());
+        return new UserEventOutboxRelay(outboxRepository, lease, publisher, sender, properties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    @Lazy
+    @ConditionalOnBean(ServiceBusClientBuilder.class)
+    @ConditionalOnProperty(prefix = "azure.servicebus.consumer", name = "enabled", havingValue = "true")
+    public ServiceBusReceiverClient userEventsReceiverClient(ServiceBusClientBuilder builder, ServiceBusProperties properties) {
+        return builder.receiver()
+                .queueName(properties.getQueueName())
+                .receiveMode(ServiceBusReceiveMode.PEEK_LOCK)
+                .disableAutoComplete()
+                .prefetchCount(properties.getConsumer().getReceiveBatchSize())
+                .buildClient();
+    }
+
+    @Bean
+    @ConditionalOnBean(ServiceBusReceiverClient.class)
+    public UserEventSource userEventSource(ObjectProvider<ServiceBusReceiverClient> userEventsReceiverClient) {
+        return new ServiceBusUserEventSource(userEventsReceiverClient::getObject);
+    }
+
+    @Bean
+    @ConditionalOnBean(UserEventSource.class)
+    @ConditionalOnMissingBean(UserEventProjection.class)
+    public UserDirectoryProjection userDirectoryProjection() {
+        return new UserDirectoryProjection();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnBean(UserEventSource.class)
+    public UserEventConsumer userEventConsumer(UserEventSource source,
+                                               UserEventLeaseRepository leaseRepository,
+                                               UserEventProjection projection,
+                                               ObjectMapper objectMapper,
+                                               ServiceBusProperties properties,
+                                               MeterRegistry meterRegistry,
+                                               WorkerThreads workerThreads) {
+        LeaseHolder lease = new LeaseHolder(leaseRepository, "consumer", properties.getConsumer().getLeaseDuration());
+        return new UserEventConsumer(source, lease, projection, objectMapper, properties, meterRegistry, workerThreads);
+    }
 }
@@ -2,6 +2,8 @@ package com.example.api.messaging;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "azure.servicebus")
 public class ServiceBusProperties {
 
@@ -21,6 +23,23 @@ public class ServiceBusProperties {
      */
     private String queueName = "user-events";
 
+    /**
+     * Body encoding of published events: {@code json}, or {@code binary} for the smaller
+     * {@link UserEventCodec} format. The consumer reads either, by content type, so producers can
+     * switch before or after consumers are upgraded.
+     */
+    private Encoding encoding = Encoding.JSON;
+
+    /**
+     * Settings for the relay that drains the transactional outbox into the queue.
+     */
+    private final Outbox outbox = new Outbox();
+
+    /**
+     * Settings for the built-in consumer of the queue.
+     */
+    private final Consumer consumer = new Consumer();
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -44,4 +63,263 @@ public class ServiceBusProperties {
     public void setQueueName(String queueName) {
         this.queueName = queueName;
     }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(Encoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Consumer getConsumer() {
+        return consumer;
+    }
+
+    public enum Encoding {
+        JSON,
+        BINARY
+    }
+
+    public static class Outbox {
+
+        /**
+         * Maximum number of outbox rows read per relay round. Rows are sent in as many
+         * {@code ServiceBusMessageBatch} chunks as their encoded size requires.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Delay between relay rounds when the outbox has been drained.
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Wait before the first retry after a failed send. Doubles on each consecutive failure.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Upper bound for the retry backoff.
+         */
+        private Duration maxBackoff = Duration.ofMinutes(1);
+
+        /**
+         * How long events stay in the outbox before they are sent, so that several events for
+         * the same user can be collapsed into one message: updates keep only the latest state and
+         * a create followed by a delete is dropped. Zero sends every event as written.
+         */
+        private Duration coalesceWindow = Duration.ZERO;
+
+        /**
+         * How long a pod may relay after it last extended the outbox lease. Only the lease holder
+         * relays, so events are sent once and in order. Keep it above the send timeout: a pod that
+         * stalls for longer may send alongside the one that took the lease over.
+         */
+        private Duration leaseDuration = Duration.ofSeconds(30);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getCoalesceWindow() {
+            return coalesceWindow;
+        }
+
+        public void setCoalesceWindow(Duration coalesceWindow) {
+            this.coalesceWindow = coalesceWindow;
+        }
+
+        public Duration getLeaseDuration() {
+            return leaseDuration;
+        }
+
+        public void setLeaseDuration(Duration leaseDuration) {
+            this.leaseDuration = leaseDuration;
+        }
+    }
+
+    public static class Consumer {
+
+        /**
+         * Receives the queue with {@link UserEventConsumer} and projects the events into the
+         * {@link UserEventProjection} bean. Requires Service Bus to be enabled.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Worker threads. Events of one user always go to the same worker, so they are applied
+         * in the order they were received.
+         */
+        private int partitions = 8;
+
+        /**
+         * Maximum number of messages requested per receive call.
+         */
+        private int receiveBatchSize = 100;
+
+        /**
+         * How long a receive call waits for the first message.
+         */
+        private Duration maxWait = Duration.ofSeconds(1);
+
+        /**
+         * Upper bound on messages received but not yet settled. Receiving pauses at the bound,
+         * which keeps the held message locks and worker queues bounded.
+         */
+        private int maxInFlight = 1000;
+
+        /**
+         * Maximum number of processed messages completed together.
+         */
+        private int completeBatchSize = 100;
+
+        /**
+         * Attempts to project one event before the message is dead-lettered.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Wait before the second attempt. Doubles on each further attempt.
+         */
+        private Duration retryBackoff = Duration.ofMillis(100);
+
+        /**
+         * Number of recently applied message ids remembered to drop redeliveries.
+         */
+        private long dedupSize = 100_000;
+
+        /**
+         * How long an applied message id is remembered.
+         */
+        private Duration dedupTtl = Duration.ofHours(1);
+
+        /**
+         * How long a pod may consume after it last extended the consumer lease. Only the lease
+         * holder receives, because Service Bus keeps a queue's order for one receiver only. Keep it
+         * above the queue's message lock duration plus {@code maxWait}, so messages a stalled
+         * holder received are unlocked again before the next holder starts.
+         */
+        private Duration leaseDuration = Duration.ofSeconds(90);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+
+        public int getReceiveBatchSize() {
+            return receiveBatchSize;
+        }
+
+        public void setReceiveBatchSize(int receiveBatchSize) {
+            this.receiveBatchSize = receiveBatchSize;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public int getCompleteBatchSize() {
+            return completeBatchSize;
+        }
+
+        public void setCompleteBatchSize(int completeBatchSize) {
+            this.completeBatchSize = completeBatchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+
+        public long getDedupSize() {
+            return dedupSize;
+        }
+
+        public void setDedupSize(long dedupSize) {
+            this.dedupSize = dedupSize;
+        }
+
+        public Duration getDedupTtl() {
+            return dedupTtl;
+        }
+
+        public void setDedupTtl(Duration dedupTtl) {
+            this.dedupTtl = dedupTtl;
+        }
+
+        public Duration getLeaseDuration() {
+            return leaseDuration;
+        }
+
+        public void setLeaseDuration(Duration leaseDuration) {
+            this.leaseDuration = leaseDuration;
+        }
+    }
 }
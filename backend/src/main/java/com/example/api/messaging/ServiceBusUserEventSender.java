@@ -0,0 +1,44 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Sends messages in as few {@link ServiceBusMessageBatch} round trips as the batch size
+ * limit of the queue allows. The client is looked up on the first send, so it is built by the
+ * outbox relay rather than during startup.
+ */
+public class ServiceBusUserEventSender implements UserEventSender {
+
+    private final Supplier<ServiceBusSenderClient> clientSupplier;
+
+    public ServiceBusUserEventSender(Supplier<ServiceBusSenderClient> clientSupplier) {
+        this.clientSupplier = clientSupplier;
+    }
+
+    @Override
+    public void send(List<ServiceBusMessage> messages) {
+        ServiceBusSenderClient client = clientSupplier.get();
+        ServiceBusMessageBatch batch = client.createMessageBatch();
+        for (ServiceBusMessage message : messages) {
+            if (batch.tryAddMessage(message)) {
+                continue;
+            }
+            if (batch.getCount() > 0) {
+                client.sendMessages(batch);
+                batch = client.createMessageBatch();
+            }
+            if (!batch.tryAddMessage(message)) {
+                throw new IllegalStateException("Message %s exceeds the maximum batch size of %d bytes"
+                        .formatted(message.getMessageId(), batch.getMaxSizeInBytes()));
+            }
+        }
+        if (batch.getCount() > 0) {
+            client.sendMessages(batch);
+        }
+    }
+}
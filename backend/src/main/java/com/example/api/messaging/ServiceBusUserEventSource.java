@@ -0,0 +1,58 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.models.DeadLetterOptions;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link UserEventSource} over a peek-lock Service Bus receiver. The SDK has no batch settlement
+ * call, so a batch completes message by message on the caller's thread. The receiver is looked up
+ * on first use, so it is built on the consumer's receiving thread rather than during startup.
+ */
+public class ServiceBusUserEventSource implements UserEventSource {
+
+    private final Supplier<ServiceBusReceiverClient> receiver;
+
+    public ServiceBusUserEventSource(Supplier<ServiceBusReceiverClient> receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public List<Delivery> receive(int maxMessages, Duration maxWait) {
+        return receiver.get().receiveMessages(maxMessages, maxWait).stream()
+                .<Delivery>map(ServiceBusDelivery::new)
+                .toList();
+    }
+
+    @Override
+    public void complete(List<Delivery> deliveries) {
+        deliveries.forEach(delivery -> receiver.get().complete(((ServiceBusDelivery) delivery).message()));
+    }
+
+    @Override
+    public void deadLetter(Delivery delivery, String reason) {
+        receiver.get().deadLetter(((ServiceBusDelivery) delivery).message(), new DeadLetterOptions().setDeadLetterReason(reason));
+    }
+
+    private record ServiceBusDelivery(ServiceBusReceivedMessage message) implements Delivery {
+
+        @Override
+        public String messageId() {
+            return message.getMessageId();
+        }
+
+        @Override
+        public String contentType() {
+            return message.getContentType();
+        }
+
+        @Override
+        public byte[] body() {
+            return message.getBody().toBytes();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.api.messaging;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default {@link UserEventProjection}: the latest known state of every user, held in memory.
+ * Deleted users are kept as their {@code USER_DELETED} event so a late redelivery of an older
+ * event cannot resurrect them.
+ */
+public class UserDirectoryProjection implements UserEventProjection {
+
+    private final Map<Long, UserEventPayload> users = new ConcurrentHashMap<>();
+
+    @Override
+    public void apply(UserEventPayload event) {
+        users.merge(event.userId(), event, (current, next) -> next.occurredAt().isBefore(current.occurredAt()) ? current : next);
+    }
+
+    public Optional<UserEventPayload> find(Long userId) {
+        return Optional.ofNullable(users.get(userId)).filter(event -> !"USER_DELETED".equals(event.eventType()));
+    }
+
+    public int size() {
+        return (int) users.values().stream().filter(event -> !"USER_DELETED".equals(event.eventType())).count();
+    }
+}
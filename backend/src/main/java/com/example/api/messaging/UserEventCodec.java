@@ -0,0 +1,257 @@
+package com.example.api.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of {@link UserEventPayload}, selected with
+ * {@code azure.servicebus.encoding=binary}. Layout, version 1:
+ *
+ * <pre>
+ * u8      version (1)
+ * u8      event type: 1 created, 2 updated, 3 deleted, 0 other (followed by the type as a string)
+ * u8      flags: 1 = user id present, 2 = timestamp present
+ * varint  user id, zig-zag
+ * varint  occurred-at epoch millis, zig-zag, then its UTC offset in seconds, zig-zag
+ * string  username, email, role: varint (UTF-8 length + 1, 0 for null) followed by the bytes
+ * </pre>
+ *
+ * Timestamps keep millisecond precision. Encoding goes through a per-thread buffer, so the only
+ * allocation per message is the returned array.
+ */
+public final class UserEventCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.user-event.v1+binary";
+
+    private static final int VERSION = 1;
+    private static final String[] EVENT_TYPES = {null, "USER_CREATED", "USER_UPDATED", "USER_DELETED"};
+    private static final int HAS_USER_ID = 1;
+    private static final int HAS_OCCURRED_AT = 2;
+    private static final int MAX_OFFSET_SECONDS = 18 * 60 * 60;
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<Writer> WRITERS = ThreadLocal.withInitial(Writer::new);
+
+    private UserEventCodec() {
+    }
+
+    public static boolean isBinary(String contentType) {
+        return contentType != null && contentType.startsWith("application/vnd.user-event.");
+    }
+
+    public static byte[] encode(UserEventPayload event) {
+        Writer writer = WRITERS.get();
+        writer.reset();
+        writer.write(VERSION);
+        int type = typeCode(event.eventType());
+        writer.write(type);
+        writer.write((event.userId() != null ? HAS_USER_ID : 0) | (event.occurredAt() != null ? HAS_OCCURRED_AT : 0));
+        if (type == 0) {
+            writer.writeString(event.eventType());
+        }
+        if (event.userId() != null) {
+            writer.writeSigned(event.userId());
+        }
+        if (event.occurredAt() != null) {
+            writer.writeSigned(event.occurredAt().toInstant().toEpochMilli());
+            writer.writeSigned(event.occurredAt().getOffset().getTotalSeconds());
+        }
+        writer.writeString(event.username());
+        writer.writeString(event.email());
+        writer.writeString(event.role());
+        return writer.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException when {@code bytes} is not exactly one version 1 encoding
+     */
+    public static UserEventPayload decode(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        int version = reader.read();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported user event encoding version " + version);
+        }
+        int type = reader.read();
+        int flags = reader.read();
+        String eventType = type == 0 ? reader.readString() : eventType(type);
+        Long userId = (flags & HAS_USER_ID) != 0 ? reader.readSigned() : null;
+        OffsetDateTime occurredAt = null;
+        if ((flags & HAS_OCCURRED_AT) != 0) {
+            Instant instant = Instant.ofEpochMilli(reader.readSigned());
+            long offsetSeconds = reader.readSigned();
+            if (Math.abs(offsetSeconds) > MAX_OFFSET_SECONDS) {
+                throw new IllegalArgumentException("UTC offset out of range in user event: " + offsetSeconds + "s");
+            }
+            occurredAt = instant.atOffset(ZoneOffset.ofTotalSeconds((int) offsetSeconds));
+        }
+        UserEventPayload event = new UserEventPayload(eventType, userId, reader.readString(), reader.readString(), reader.readString(), occurredAt);
+        if (reader.remaining() > 0) {
+            throw new IllegalArgumentException(reader.remaining() + " trailing bytes after user event");
+        }
+        return event;
+    }
+
+    private static int typeCode(String eventType) {
+        for (int code = 1; code < EVENT_TYPES.length; code++) {
+            if (EVENT_TYPES[code].equals(eventType)) {
+                return code;
+            }
+        }
+        return 0;
+    }
+
+    private static String eventType(int code) {
+        if (code >= EVENT_TYPES.length) {
+            throw new IllegalArgumentException("Unknown user event type code " + code);
+        }
+        return EVENT_TYPES[code];
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer = new byte[256];
+        private int position;
+
+        void reset() {
+            if (buffer.length > MAX_RETAINED_BUFFER) {
+                buffer = new byte[256];
+            }
+            position = 0;
+        }
+
+        void write(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeSigned(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        /**
+         * Encodes UTF-8 straight into the buffer; unpaired surrogates become '?' as with
+         * {@link String#getBytes}.
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            writeVarint(utf8Length(value) + 1L);
+            ensure(value.length() * 3);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer[position++] = '?';
+                } else {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+
+        private static int utf8Length(String value) {
+            int length = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    length++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int remaining() {
+            return bytes.length - position;
+        }
+
+        int read() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Truncated user event");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readSigned() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in user event");
+        }
+
+        String readString() {
+            long length = readVarint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("Truncated user event");
+            }
+            String value = new String(bytes, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
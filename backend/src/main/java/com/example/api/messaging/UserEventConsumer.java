@@ -0,0 +1,283 @@
+package com.example.api.messaging;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives user events from a {@link UserEventSource} and applies them to a
+ * {@link UserEventProjection} on {@code partitions} worker threads. Events are partitioned by user
+ * id, so each user's events are applied in the order they were received while different users
+ * proceed in parallel.
+ *
+ * <p>A message is completed only after its event was applied, in batches from a separate thread,
+ * giving at-least-once processing; ids of applied messages are remembered for a while so
+ * redeliveries are completed without being applied again. A failing event is retried in place
+ * with exponential backoff, holding back the rest of its partition, and dead-lettered after
+ * {@code maxAttempts}. At most {@code maxInFlight} messages are received but unsettled at once.
+ *
+ * <p>Service Bus keeps a queue in order for a single receiver only, so every pod runs a consumer
+ * but only the one holding the consumer lease receives; the others stand by until it lapses.
+ */
+public class UserEventConsumer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventConsumer.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final UserEventSource source;
+    private final LeaseHolder lease;
+    private final UserEventProjection projection;
+    private final ObjectMapper objectMapper;
+    private final ServiceBusProperties.Consumer settings;
+    private final ExecutorService[] partitions;
+    private final Semaphore inFlight;
+    private final BlockingQueue<UserEventSource.Delivery> processed = new LinkedBlockingQueue<>();
+    private final Cache<String, Boolean> applied;
+    private final Counter appliedCounter;
+    private final Counter duplicateCounter;
+    private final Counter retryCounter;
+    private final Counter deadLetterCounter;
+    private final Thread receiver;
+    private final Thread completer;
+
+    private volatile boolean running;
+
+    public UserEventConsumer(UserEventSource source,
+                             LeaseHolder lease,
+                             UserEventProjection projection,
+                             ObjectMapper objectMapper,
+                             ServiceBusProperties properties,
+                             MeterRegistry meterRegistry,
+                             WorkerThreads workerThreads) {
+        this.source = source;
+        this.lease = lease;
+        this.projection = projection;
+        this.objectMapper = objectMapper;
+        this.settings = properties.getConsumer();
+        this.partitions = new ExecutorService[Math.max(1, settings.getPartitions())];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = Executors.newSingleThreadExecutor(workerThreads.factory("user-events-" + i + "-"));
+        }
+        this.inFlight = new Semaphore(Math.max(1, settings.getMaxInFlight()));
+        this.applied = Caffeine.newBuilder()
+                .maximumSize(settings.getDedupSize())
+                .expireAfterWrite(settings.getDedupTtl())
+                .build();
+        this.appliedCounter = outcome(meterRegistry, "applied", "User events applied to the read model");
+        this.duplicateCounter = outcome(meterRegistry, "duplicate", "Redelivered user events completed without applying them again");
+        this.retryCounter = Counter.builder("user.events.consumer.retries")
+                .description("Failed attempts to apply a user event that were retried")
+                .register(meterRegistry);
+        this.deadLetterCounter = outcome(meterRegistry, "dead-lettered", "User events dead-lettered as unreadable or failing");
+        Gauge.builder("user.events.consumer.in-flight", inFlight, permits -> settings.getMaxInFlight() - permits.availablePermits())
+                .description("User events received but not yet completed or dead-lettered")
+                .register(meterRegistry);
+        this.receiver = workerThreads.factory("user-events-receiver-").newThread(this::receive);
+        this.completer = workerThreads.factory("user-events-completer-").newThread(this::complete);
+    }
+
+    public void start() {
+        running = true;
+        completer.start();
+        receiver.start();
+    }
+
+    /**
+     * Stops receiving, lets the workers finish what they hold and completes it.
+     */
+    @Override
+    public void close() {
+        running = false;
+        receiver.interrupt();
+        try {
+            receiver.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+            for (ExecutorService partition : partitions) {
+                partition.shutdown();
+            }
+            for (ExecutorService partition : partitions) {
+                partition.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            completer.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void receive() {
+        while (running) {
+            try {
+                if (!lease.hold()) {
+                    if (!sleep(settings.getMaxWait().toMillis())) {
+                        return;
+                    }
+                    continue;
+                }
+                int permits = acquire(settings.getReceiveBatchSize());
+                if (permits == 0) {
+                    // Everything is in flight; extend the lease before waiting again.
+                    continue;
+                }
+                List<UserEventSource.Delivery> deliveries;
+                try {
+                    deliveries = source.receive(permits, settings.getMaxWait());
+                } catch (RuntimeException ex) {
+                    inFlight.release(permits);
+                    throw ex;
+                }
+                if (!running) {
+                    // Unsettled messages are redelivered once their lock expires.
+                    inFlight.release(permits);
+                    return;
+                }
+                inFlight.release(permits - deliveries.size());
+                deliveries.forEach(this::dispatch);
+            } catch (InterruptedException ex) {
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Receiving user events failed; retrying in {}", settings.getMaxWait(), ex);
+                if (!sleep(settings.getMaxWait().toMillis())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes between one and {@code max} in-flight permits, waiting at most {@code maxWait} for
+     * the first. Returns 0 when none became free in that time.
+     */
+    private int acquire(int max) throws InterruptedException {
+        if (!inFlight.tryAcquire(settings.getMaxWait().toMillis(), TimeUnit.MILLISECONDS)) {
+            return 0;
+        }
+        int granted = 1 + inFlight.drainPermits();
+        if (granted > max) {
+            inFlight.release(granted - max);
+            granted = max;
+        }
+        return granted;
+    }
+
+    private void dispatch(UserEventSource.Delivery delivery) {
+        UserEventPayload event;
+        try {
+            event = UserEventCodec.isBinary(delivery.contentType())
+                    ? UserEventCodec.decode(delivery.body())
+                    : objectMapper.readValue(delivery.body(), UserEventPayload.class);
+        } catch (IOException | RuntimeException ex) {
+            // Caught per delivery: one unreadable message must not cost the rest of the batch their permits.
+            deadLetter(delivery, "Unreadable user event: " + ex.getMessage());
+            return;
+        }
+        int partition = event.userId() == null ? 0 : Math.floorMod(Long.hashCode(event.userId()), partitions.length);
+        partitions[partition].execute(() -> process(delivery, event));
+    }
+
+    private void process(UserEventSource.Delivery delivery, UserEventPayload event) {
+        if (applied.getIfPresent(delivery.messageId()) != null) {
+            duplicateCounter.increment();
+            processed.add(delivery);
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                projection.apply(event);
+                applied.put(delivery.messageId(), Boolean.TRUE);
+                appliedCounter.increment();
+                processed.add(delivery);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= settings.getMaxAttempts()) {
+                    log.warn("Applying {} for user {} failed {} times; dead-lettering message {}",
+                            event.eventType(), event.userId(), attempt, delivery.messageId(), ex);
+                    deadLetter(delivery, "Projection failed: " + ex.getMessage());
+                    return;
+                }
+                retryCounter.increment();
+                if (!sleep(settings.getRetryBackoff().toMillis() << Math.min(attempt - 1, 20))) {
+                    // Shutting down; the message is redelivered once its lock expires.
+                    inFlight.release();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deadLetter(UserEventSource.Delivery delivery, String reason) {
+        try {
+            source.deadLetter(delivery, reason);
+            deadLetterCounter.increment();
+        } catch (RuntimeException ex) {
+            log.warn("Could not dead-letter user event {}; it will be redelivered", delivery.messageId(), ex);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void complete() {
+        List<UserEventSource.Delivery> batch = new ArrayList<>(settings.getCompleteBatchSize());
+        while (running || receiver.isAlive() || !processed.isEmpty() || !partitionsTerminated()) {
+            try {
+                UserEventSource.Delivery first = processed.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                processed.drainTo(batch, settings.getCompleteBatchSize() - 1);
+                source.complete(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // Applied events are remembered, so the redeliveries are completed as duplicates.
+                log.warn("Completing {} user events failed; they will be redelivered", batch.size(), ex);
+            } finally {
+                inFlight.release(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean partitionsTerminated() {
+        for (ExecutorService partition : partitions) {
+            if (!partition.isTerminated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome, String description) {
+        return Counter.builder("user.events.consumer.processed")
+                .tag("outcome", outcome)
+                .description(description)
+                .register(meterRegistry);
+    }
+}
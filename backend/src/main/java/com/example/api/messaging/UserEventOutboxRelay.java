@@ -0,0 +1,201 @@
+package com.example.api.messaging;
+
+import com.example.api.model.OutboxEvent;
+import com.example.api.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the transactional outbox in change sequence order and hands each chunk to the
+ * {@link UserEventSender}. Rows are deleted only after the send succeeded, giving at-least-once
+ * delivery; on failure the relay backs off exponentially and retries from the oldest pending row.
+ *
+ * <p>Every pod runs a relay, but only the one holding the outbox lease sends; the others find the
+ * lease taken and skip the round. Together with the ordering this keeps each user's events in
+ * the order they were committed.
+ *
+ * <p>With a coalesce window, a user's rows are held until the oldest is older than the window and
+ * then sent together, collapsed to as few messages as preserve the user's final state.
+ */
+public class UserEventOutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserEventOutboxRelay.class);
+    private static final String USER_CREATED = "USER_CREATED";
+    private static final String USER_UPDATED = "USER_UPDATED";
+    private static final String USER_DELETED = "USER_DELETED";
+
+    private final OutboxEventRepository outboxRepository;
+    private final LeaseHolder lease;
+    private final UserEventPublisher publisher;
+    private final UserEventSender sender;
+    private final ServiceBusProperties.Outbox settings;
+    private final Counter receivedCounter;
+    private final Counter sentCounter;
+    private final Counter failureCounter;
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private int consecutiveFailures;
+    private long retryAtNanos;
+
+    public UserEventOutboxRelay(OutboxEventRepository outboxRepository,
+                                LeaseHolder lease,
+                                UserEventPublisher publisher,
+                                UserEventSender sender,
+                                ServiceBusProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.lease = lease;
+        this.publisher = publisher;
+        this.sender = sender;
+        this.settings = properties.getOutbox();
+        this.receivedCounter = Counter.builder("user.events.outbox.received")
+                .description("User events taken from the outbox, before coalescing")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("user.events.outbox.sent")
+                .description("User event messages relayed from the outbox to Service Bus")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("user.events.outbox.failures")
+                .description("Relay rounds that failed and were scheduled for retry")
+                .register(meterRegistry);
+        Gauge.builder("user.events.outbox.depth", depth, AtomicLong::get)
+                .description("User events waiting in the outbox")
+                .register(meterRegistry);
+        TimeGauge.builder("user.events.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest user event waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${azure.servicebus.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        if (consecutiveFailures > 0 && System.nanoTime() - retryAtNanos < 0) {
+            return;
+        }
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == settings.getBatchSize());
+            consecutiveFailures = 0;
+        } catch (RuntimeException ex) {
+            consecutiveFailures++;
+            Duration backoff = backoff();
+            retryAtNanos = System.nanoTime() + backoff.toNanos();
+            failureCounter.increment();
+            LOGGER.warn("Relaying user events failed ({} consecutive); retrying in {}", consecutiveFailures, backoff, ex);
+        } finally {
+            refreshGauges();
+        }
+    }
+
+    private int relayBatch() {
+        if (!lease.hold()) {
+            return 0;
+        }
+        List<OutboxEvent> events = outboxRepository.findByOrderByChangeSeqAscIdAsc(Limit.of(settings.getBatchSize()));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> outgoing = events;
+        if (!settings.getCoalesceWindow().isZero()) {
+            events = settled(events, OffsetDateTime.now().minus(settings.getCoalesceWindow()));
+            outgoing = coalesce(events);
+        }
+        if (!outgoing.isEmpty()) {
+            sender.send(outgoing.stream().map(publisher::toMessage).toList());
+        }
+        if (!events.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        }
+        receivedCounter.increment(events.size());
+        sentCounter.increment(outgoing.size());
+        LOGGER.debug("Relayed {} user events to Service Bus as {} messages", events.size(), outgoing.size());
+        return events.size();
+    }
+
+    /**
+     * Takes the rows older than {@code cutoff} together with every later row of the same users;
+     * users whose oldest row is still inside the window are held back entirely.
+     */
+    private static List<OutboxEvent> settled(List<OutboxEvent> events, OffsetDateTime cutoff) {
+        Map<Long, Boolean> taken = new HashMap<>();
+        List<OutboxEvent> settled = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            if (taken.computeIfAbsent(event.getUserId(), userId -> !event.getOccurredAt().isAfter(cutoff))) {
+                settled.add(event);
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Collapses each user's events in order. An update folds into the user's pending create or
+     * update, carrying the latest state and message id; a delete replaces a pending update and
+     * cancels a pending create. What is left keeps each user's order.
+     */
+    private static List<OutboxEvent> coalesce(List<OutboxEvent> events) {
+        List<OutboxEvent> coalesced = new ArrayList<>(events.size());
+        Map<Long, Integer> pending = new HashMap<>();
+        for (OutboxEvent event : events) {
+            Integer index = pending.get(event.getUserId());
+            String previous = index == null ? null : coalesced.get(index).getEventType();
+            if (USER_UPDATED.equals(event.getEventType()) && (USER_CREATED.equals(previous) || USER_UPDATED.equals(previous))) {
+                coalesced.set(index, previous.equals(USER_CREATED) ? withType(event, USER_CREATED) : event);
+            } else if (USER_DELETED.equals(event.getEventType()) && USER_CREATED.equals(previous)) {
+                coalesced.set(index, null);
+                pending.remove(event.getUserId());
+            } else if (USER_DELETED.equals(event.getEventType()) && USER_UPDATED.equals(previous)) {
+                coalesced.set(index, event);
+            } else {
+                pending.put(event.getUserId(), coalesced.size());
+                coalesced.add(event);
+            }
+        }
+        coalesced.removeIf(Objects::isNull);
+        return coalesced;
+    }
+
+    private static OutboxEvent withType(OutboxEvent event, String eventType) {
+        OutboxEvent copy = new OutboxEvent();
+        copy.setMessageId(event.getMessageId());
+        copy.setEventType(eventType);
+        copy.setUserId(event.getUserId());
+        copy.setChangeSeq(event.getChangeSeq());
+        copy.setUsername(event.getUsername());
+        copy.setEmail(event.getEmail());
+        copy.setRole(event.getRole());
+        copy.setOccurredAt(event.getOccurredAt());
+        return copy;
+    }
+
+    private Duration backoff() {
+        Duration backoff = settings.getInitialBackoff().multipliedBy(1L << Math.min(consecutiveFailures - 1, 20));
+        return backoff.compareTo(settings.getMaxBackoff()) > 0 ? settings.getMaxBackoff() : backoff;
+    }
+
+    private void refreshGauges() {
+        try {
+            List<OutboxEvent> oldest = outboxRepository.findByOrderByChangeSeqAscIdAsc(Limit.of(1));
+            depth.set(oldest.isEmpty() ? 0 : outboxRepository.count());
+            lagMillis.set(oldest.isEmpty() ? 0 : Duration.between(oldest.get(0).getOccurredAt(), OffsetDateTime.now()).toMillis());
+        } catch (RuntimeException ex) {
+            LOGGER.debug("Could not refresh outbox gauges", ex);
+        }
+    }
+}
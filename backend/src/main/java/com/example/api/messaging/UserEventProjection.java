@@ -0,0 +1,15 @@
+package com.example.api.messaging;
+
+/**
+ * Read model fed by {@link UserEventConsumer}. Events of one user arrive in order on one thread,
+ * but a message whose lock expired can be redelivered after later events of the same user, so
+ * implementations should ignore events older than what they already hold.
+ */
+@FunctionalInterface
+public interface UserEventProjection {
+
+    /**
+     * Applies one event. Throwing makes the consumer retry the event and eventually dead-letter it.
+     */
+    void apply(UserEventPayload event);
+}
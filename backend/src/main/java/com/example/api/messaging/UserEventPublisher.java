@@ -1,77 +1,126 @@
 package com.example.api.messaging;
 
 import com.azure.messaging.servicebus.ServiceBusMessage;
-import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.example.api.model.OutboxEvent;
 import com.example.api.model.User;
+import com.example.api.repository.OutboxEventRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Records user domain events in the transactional outbox. The caller's transaction must be
+ * active so the event commits or rolls back together with the user change;
+ * {@link UserEventOutboxRelay} delivers committed events to Service Bus.
+ */
 @Component
 public class UserEventPublisher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserEventPublisher.class);
 
     private final ServiceBusProperties properties;
+    private final OutboxEventRepository outboxRepository;
     private final ObjectMapper objectMapper;
-    private final Optional<ServiceBusSenderClient> senderClient;
 
     public UserEventPublisher(ServiceBusProperties properties,
-                              ObjectMapper objectMapper,
-                              Optional<ServiceBusSenderClient> senderClient) {
+                              OutboxEventRepository outboxRepository,
+                              ObjectMapper objectMapper) {
         this.properties = properties;
+        this.outboxRepository = outboxRepository;
         this.objectMapper = objectMapper;
-        this.senderClient = senderClient;
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishUserCreated(User user) {
-        send("USER_CREATED", user);
+        enqueue("USER_CREATED", user, user.getChangeSeq());
     }
 
-    public void publishUserUpdated(User user) {
-        send("USER_UPDATED", user);
-    }
-
-    public void publishUserDeleted(User user) {
-        send("USER_DELETED", user);
-    }
-
-    private void send(String eventType, User user) {
+    /**
+     * Records one created event per user; the outbox rows are inserted in JDBC batches with the
+     * users themselves.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUsersCreated(List<User> users) {
         if (!properties.isEnabled()) {
-            LOGGER.debug("Service Bus publishing disabled. Skipping {} event for user {}", eventType, user.getId());
+            LOGGER.debug("Service Bus publishing disabled. Skipping {} USER_CREATED events", users.size());
             return;
         }
 
-        senderClient.ifPresentOrElse(client -> doSend(client, eventType, user),
-                () -> LOGGER.warn("Service Bus sender client not available. Event {} for user {} not published.", eventType, user.getId()));
+        OffsetDateTime occurredAt = OffsetDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(users.size());
+        for (User user : users) {
+            events.add(new OutboxEvent(UUID.randomUUID().toString(), "USER_CREATED", user, occurredAt));
+        }
+        outboxRepository.saveAll(events);
+        LOGGER.debug("Queued {} USER_CREATED events in the outbox", events.size());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserUpdated(User user) {
+        enqueue("USER_UPDATED", user, user.getChangeSeq());
+    }
+
+    /**
+     * Records the deleted event with the user's last state. {@code changeSeq} is the deletion's
+     * own change sequence number, which orders it after the user's last update.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserDeleted(User user, long changeSeq) {
+        enqueue("USER_DELETED", user, changeSeq);
     }
 
-    private void doSend(ServiceBusSenderClient client, String eventType, User user) {
+    /**
+     * Builds the Service Bus message for an outbox row. The message id is the one assigned when
+     * the row was written, so redelivery after a failed or interrupted relay round is idempotent
+     * for consumers and for queues with duplicate detection enabled.
+     */
+    public ServiceBusMessage toMessage(OutboxEvent event) {
         UserEventPayload payload = new UserEventPayload(
-                eventType,
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole(),
-                OffsetDateTime.now()
+                event.getEventType(),
+                event.getUserId(),
+                event.getUsername(),
+                event.getEmail(),
+                event.getRole(),
+                event.getOccurredAt()
         );
 
-        try {
-            byte[] body = objectMapper.writeValueAsBytes(payload);
-            ServiceBusMessage message = new ServiceBusMessage(body);
-            message.setSubject(eventType);
+        ServiceBusMessage message;
+        if (properties.getEncoding() == ServiceBusProperties.Encoding.BINARY) {
+            message = new ServiceBusMessage(UserEventCodec.encode(payload));
+            message.setContentType(UserEventCodec.CONTENT_TYPE);
+        } else {
+            message = new ServiceBusMessage(serialize(payload));
             message.setContentType("application/json");
-            message.setMessageId(UUID.randomUUID().toString());
-            client.sendMessage(message);
-            LOGGER.info("Published {} event for user {} to Azure Service Bus queue {}", eventType, user.getId(), properties.getQueueName());
+        }
+        message.setSubject(event.getEventType());
+        message.setMessageId(event.getMessageId());
+        return message;
+    }
+
+    private byte[] serialize(UserEventPayload payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
         } catch (JsonProcessingException ex) {
-            LOGGER.error("Failed to serialize Service Bus message for user {}", user.getId(), ex);
+            throw new IllegalStateException("Failed to serialize Service Bus message for user " + payload.userId(), ex);
+        }
+    }
+
+    private void enqueue(String eventType, User user, Long changeSeq) {
+        if (!properties.isEnabled()) {
+            LOGGER.debug("Service Bus publishing disabled. Skipping {} event for user {}", eventType, user.getId());
+            return;
         }
+
+        outboxRepository.save(new OutboxEvent(UUID.randomUUID().toString(), eventType, user, changeSeq, OffsetDateTime.now()));
+        LOGGER.debug("Queued {} event for user {} in the outbox", eventType, user.getId());
     }
 }
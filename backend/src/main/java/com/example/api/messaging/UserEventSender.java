@@ -0,0 +1,15 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+
+import java.util.List;
+
+/**
+ * Transport used by {@link UserEventOutboxRelay}. Implementations either deliver every message
+ * or throw; partial delivery is acceptable because the relay retries the whole batch and
+ * consumers deduplicate on the stable message id.
+ */
+public interface UserEventSender {
+
+    void send(List<ServiceBusMessage> messages);
+}
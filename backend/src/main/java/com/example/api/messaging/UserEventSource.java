@@ -0,0 +1,29 @@
+package com.example.api.messaging;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Transport used by {@link UserEventConsumer}. Messages are received under a lock and redelivered
+ * unless they are completed or dead-lettered.
+ */
+public interface UserEventSource {
+
+    /**
+     * Returns up to {@code maxMessages} messages, waiting at most {@code maxWait} for the first.
+     */
+    List<Delivery> receive(int maxMessages, Duration maxWait);
+
+    void complete(List<Delivery> deliveries);
+
+    void deadLetter(Delivery delivery, String reason);
+
+    interface Delivery {
+
+        String messageId();
+
+        String contentType();
+
+        byte[] body();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.api.model;
+
+/**
+ * A record of a bulk import that was not created. {@code index} is its zero-based position in the
+ * uploaded stream.
+ */
+public record BulkImportError(long index, String message) {
+}
@@ -0,0 +1,11 @@
+package com.example.api.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Users are committed chunk by chunk, so {@code created} users exist
+ * even when {@code completed} is {@code false} because the input was malformed part way through or
+ * a chunk failed to commit; the last error then gives the index where the import stopped.
+ */
+public record BulkImportResult(long created, long rejected, boolean completed, List<BulkImportError> errors) {
+}
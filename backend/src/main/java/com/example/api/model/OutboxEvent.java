@@ -0,0 +1,139 @@
+package com.example.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A user domain event waiting to be relayed to Service Bus. Rows are written in the same
+ * transaction as the {@link User} change they describe and deleted once the relay has sent them.
+ */
+@Entity
+@Table(name = "user_event_outbox", indexes = @Index(name = "user_event_outbox_change_seq_idx", columnList = "change_seq, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_event_outbox_seq")
+    @SequenceGenerator(name = "user_event_outbox_seq", sequenceName = "user_event_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String messageId;
+
+    @Column(nullable = false, length = 32)
+    private String eventType;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // The change sequence number of the write the event describes. Ids come from a pooled
+    // sequence and follow no order across pods; a user's writes take increasing change_seq values.
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    private String username;
+
+    private String email;
+
+    private String role;
+
+    @Column(nullable = false)
+    private OffsetDateTime occurredAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String messageId, String eventType, User user, OffsetDateTime occurredAt) {
+        this(messageId, eventType, user, user.getChangeSeq(), occurredAt);
+    }
+
+    public OutboxEvent(String messageId, String eventType, User user, Long changeSeq, OffsetDateTime occurredAt) {
+        this.messageId = messageId;
+        this.eventType = eventType;
+        this.userId = user.getId();
+        this.changeSeq = changeSeq;
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public OffsetDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(OffsetDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of the user change feed: an inserted or updated user, the id of a deleted user, or the
+ * closing checkpoint with the token for the next poll and whether more changes are already
+ * waiting.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserChange(String op, Long seq, Long id, User user, String next, Boolean more) {
+
+    public static UserChange upsert(User user) {
+        return new UserChange("upsert", user.getChangeSeq(), user.getId(), user, null, null);
+    }
+
+    public static UserChange delete(UserTombstone tombstone) {
+        return new UserChange("delete", tombstone.getChangeSeq(), tombstone.getUserId(), null, null, null);
+    }
+
+    public static UserChange checkpoint(String next, boolean more) {
+        return new UserChange("checkpoint", null, null, null, next, more);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Named lease that lets one pod at a time run a piece of user event processing, such as relaying
+ * the outbox or consuming the queue. Only the pod named in {@code holder} does the work until
+ * {@code expiresAt}; it extends the lease as it goes, and any other pod may take it over once it
+ * has expired.
+ */
+@Entity
+@Table(name = "user_event_leases")
+public class UserEventLease {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false, length = 36)
+    private String holder;
+
+    @Column(nullable = false)
+    private OffsetDateTime expiresAt;
+
+    public UserEventLease() {
+    }
+
+    public UserEventLease(String name, String holder, OffsetDateTime expiresAt) {
+        this.name = name;
+        this.holder = holder;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(OffsetDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
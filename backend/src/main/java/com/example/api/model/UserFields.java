@@ -0,0 +1,123 @@
+package com.example.api.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.Tuple;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A sparse fieldset from the {@code fields} query parameter: the user attributes a response
+ * carries, written in the order of the full representation. Projected users are detached
+ * {@link User}s holding only the selected attributes and the id, which keyset paging needs.
+ */
+public final class UserFields {
+
+    private enum Field {
+        ID("id", User::getId, (user, value) -> user.setId((Long) value)),
+        USERNAME("username", User::getUsername, (user, value) -> user.setUsername((String) value)),
+        EMAIL("email", User::getEmail, (user, value) -> user.setEmail((String) value)),
+        ROLE("role", User::getRole, (user, value) -> user.setRole((String) value));
+
+        private final String attribute;
+        private final Function<User, Object> getter;
+        private final BiConsumer<User, Object> setter;
+
+        Field(String attribute, Function<User, Object> getter, BiConsumer<User, Object> setter) {
+            this.attribute = attribute;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private final Set<Field> fields;
+    private final Set<Field> selected;
+
+    private UserFields(Set<Field> fields) {
+        this.fields = fields;
+        this.selected = EnumSet.copyOf(fields);
+        this.selected.add(Field.ID);
+    }
+
+    /**
+     * Parses a comma-separated list of attribute names. Returns {@code null} when {@code fields}
+     * is absent or blank, meaning the full representation.
+     */
+    public static UserFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<Field> parsed = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String attribute = name.trim();
+            if (!attribute.isEmpty()) {
+                parsed.add(Arrays.stream(Field.values())
+                        .filter(field -> field.attribute.equals(attribute))
+                        .findFirst()
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "Unknown field '%s'; expected any of %s".formatted(attribute, names(EnumSet.allOf(Field.class))))));
+            }
+        }
+        if (parsed.isEmpty()) {
+            return null;
+        }
+        return new UserFields(parsed);
+    }
+
+    /**
+     * JPQL select list for the attributes to load, aliased by attribute name.
+     */
+    public String selectClause(String alias) {
+        return selected.stream()
+                .map(field -> "%s.%s as %s".formatted(alias, field.attribute, field.attribute))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Builds a detached user from a row selected with {@link #selectClause}.
+     */
+    public User toUser(Tuple row) {
+        User user = new User();
+        for (Field field : selected) {
+            field.setter.accept(user, row.get(field.attribute));
+        }
+        return user;
+    }
+
+    /**
+     * Writes {@code user} as a JSON object with only the requested attributes.
+     */
+    public void write(JsonGenerator generator, User user) throws IOException {
+        generator.writeStartObject();
+        for (Field field : fields) {
+            Object value = field.getter.apply(user);
+            generator.writeFieldName(field.attribute);
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else {
+                generator.writeString((String) value);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Distinguishes validators of different fieldsets of the same user, e.g. {@code username,role}.
+     */
+    public String tag() {
+        return names(fields);
+    }
+
+    private static String names(Set<Field> fields) {
+        return fields.stream().map(field -> field.attribute).collect(Collectors.joining(","));
+    }
+}
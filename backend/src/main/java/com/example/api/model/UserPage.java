@@ -0,0 +1,10 @@
+package com.example.api.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of users ordered by id. {@code next} is the cursor to pass as {@code after}
+ * for the following page, or {@code null} when this is the last page.
+ */
+public record UserPage(List<User> items, Long next) {
+}
@@ -0,0 +1,42 @@
+package com.example.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Body of {@code PATCH /users/{id}}: the attributes to change. Absent or null attributes are left
+ * as they are.
+ */
+public record UserPatch(
+        @Pattern(regexp = ".*\\S.*", message = "must not be blank") String username,
+        @Email @Pattern(regexp = ".*\\S.*", message = "must not be blank") String email,
+        @Pattern(regexp = ".*\\S.*", message = "must not be blank") String role
+) {
+
+    @JsonIgnore
+    @AssertTrue(message = "must change at least one attribute")
+    public boolean isNotEmpty() {
+        return username != null || email != null || role != null;
+    }
+
+    /**
+     * Whether the patch sets every attribute, so the patched user is known without reading it.
+     */
+    public boolean isComplete() {
+        return username != null && email != null && role != null;
+    }
+
+    public void applyTo(User user) {
+        if (username != null) {
+            user.setUsername(username);
+        }
+        if (email != null) {
+            user.setEmail(email);
+        }
+        if (role != null) {
+            user.setRole(role);
+        }
+    }
+}
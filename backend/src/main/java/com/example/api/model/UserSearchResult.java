@@ -0,0 +1,9 @@
+package com.example.api.model;
+
+import java.util.List;
+
+/**
+ * The first matches of a user search in result order, and how many users match in total.
+ */
+public record UserSearchResult(List<User> items, long total) {
+}
@@ -0,0 +1,64 @@
+package com.example.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Marker left behind when a {@link User} is deleted so change feed clients learn about the
+ * deletion. Tombstones are purged once they are older than the feed's retention window.
+ */
+@Entity
+@Table(name = "user_tombstones", indexes = {
+        @Index(name = "user_tombstones_change_seq_idx", columnList = "change_seq, user_id"),
+        @Index(name = "user_tombstones_deleted_at_idx", columnList = "deletedAt")
+})
+public class UserTombstone {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private OffsetDateTime deletedAt;
+
+    public UserTombstone() {
+    }
+
+    public UserTombstone(Long userId, Long changeSeq, OffsetDateTime deletedAt) {
+        this.userId = userId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public OffsetDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(OffsetDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
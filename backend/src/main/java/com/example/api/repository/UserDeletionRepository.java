@@ -0,0 +1,17 @@
+package com.example.api.repository;
+
+import com.example.api.model.User;
+
+import java.util.Optional;
+
+/**
+ * Deletes that hand back the row they removed, so its last state needs no separate read.
+ */
+public interface UserDeletionRepository {
+
+    /**
+     * Deletes user {@code id}, only while it is at {@code version} unless that is {@code null},
+     * and returns it as it was when deleted, detached. Empty when no row was deleted.
+     */
+    Optional<User> deleteReturning(long id, Long version);
+}
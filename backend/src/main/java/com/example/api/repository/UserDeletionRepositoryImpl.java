@@ -0,0 +1,47 @@
+package com.example.api.repository;
+
+import com.example.api.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.SQLServerDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the deleted row in the DELETE statement itself: through its OUTPUT clause on SQL Server
+ * and as a data change delta table on H2.
+ */
+class UserDeletionRepositoryImpl implements UserDeletionRepository {
+
+    private final EntityManager entityManager;
+
+    UserDeletionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<User> deleteReturning(long id, Long version) {
+        String condition = version == null ? "id = :id" : "id = :id AND version = :version";
+        String sql = sqlServer()
+                ? "DELETE FROM users OUTPUT deleted.* WHERE " + condition
+                : "SELECT * FROM OLD TABLE (DELETE FROM users WHERE " + condition + ")";
+        Query query = entityManager.createNativeQuery(sql, User.class).setParameter("id", id);
+        if (version != null) {
+            query.setParameter("version", version);
+        }
+        List<User> deleted = query.getResultList();
+        // The row is gone, so the entity must not stay managed.
+        deleted.forEach(entityManager::detach);
+        return deleted.stream().findFirst();
+    }
+
+    private boolean sqlServer() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof SQLServerDialect;
+    }
+}
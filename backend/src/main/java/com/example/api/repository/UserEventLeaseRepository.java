@@ -0,0 +1,27 @@
+package com.example.api.repository;
+
+import com.example.api.model.UserEventLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface UserEventLeaseRepository extends JpaRepository<UserEventLease, String> {
+
+    /**
+     * Gives lease {@code name} to {@code holder} until {@code expiresAt}, provided it already
+     * holds it or the lease expired before {@code now}. Returns the number of rows updated.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update UserEventLease l set l.holder = :holder, l.expiresAt = :expiresAt
+            where l.name = :name and (l.holder = :holder or l.expiresAt < :now)""")
+    int extend(@Param("name") String name, @Param("holder") String holder,
+               @Param("expiresAt") OffsetDateTime expiresAt, @Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,18 @@
+package com.example.api.repository;
+
+import com.example.api.model.User;
+import com.example.api.model.UserFields;
+
+import java.util.List;
+
+/**
+ * Keyset reads that select only the columns of a {@link UserFields} projection.
+ */
+public interface UserProjectionRepository {
+
+    /**
+     * Up to {@code limit} users with an id greater than {@code after} in id order, as detached
+     * users holding only the projected attributes.
+     */
+    List<User> findProjectedByIdGreaterThan(long after, int limit, UserFields fields);
+}
@@ -0,0 +1,36 @@
+package com.example.api.repository;
+
+import com.example.api.model.User;
+import com.example.api.model.UserFields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Selects scalar tuples rather than entities, so the rows are never managed by the persistence
+ * context and need no snapshot for dirty checking.
+ */
+class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    UserProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findProjectedByIdGreaterThan(long after, int limit, UserFields fields) {
+        // The select list is built from known attribute names only.
+        String query = "select " + fields.selectClause("u") + " from User u where u.id > :after order by u.id";
+        return entityManager.createQuery(query, Tuple.class)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(fields::toUser)
+                .toList();
+    }
+}
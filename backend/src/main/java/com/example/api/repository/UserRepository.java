@@ -1,9 +1,78 @@
 package com.example.api.repository;
 
 import com.example.api.model.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserProjectionRepository, UserDeletionRepository {
+
+    @Transactional(readOnly = true)
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select u from User u where u.id > :after order by u.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamByIdGreaterThan(@Param("after") Long after);
+
+    @Query("""
+            select u from User u
+            where u.changeSeq > :seq or (u.changeSeq = :seq and u.id > :id)
+            order by u.changeSeq, u.id""")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamChangedAfter(@Param("seq") long seq, @Param("id") long id);
+
+    @Query("select coalesce(max(u.changeSeq), 0) from User u where u.updatedAt <= :before")
+    long maxChangeSeqBefore(@Param("before") OffsetDateTime before);
+
+    @Query(value = "SELECT NEXT VALUE FOR user_change_seq", nativeQuery = true)
+    long nextChangeSeq();
+
+    /**
+     * Sets the non-null attributes of user {@code id} and stamps the change with
+     * {@code changeSeq} in one statement, provided the user is still at {@code version} unless
+     * that is {@code null}. Returns the number of rows updated.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE users
+            SET username = COALESCE(CAST(:username AS VARCHAR(255)), username),
+                email = COALESCE(CAST(:email AS VARCHAR(255)), email),
+                role = COALESCE(CAST(:role AS VARCHAR(255)), role),
+                version = version + 1,
+                change_seq = :changeSeq,
+                updated_at = :updatedAt
+            WHERE id = :id AND (CAST(:version AS BIGINT) IS NULL OR version = :version)""", nativeQuery = true)
+    int updateIfVersion(@Param("id") long id, @Param("version") Long version,
+                        @Param("username") String username, @Param("email") String email, @Param("role") String role,
+                        @Param("changeSeq") long changeSeq, @Param("updatedAt") OffsetDateTime updatedAt);
+
+    /**
+     * Deletes user {@code id} without loading it, only while it is at {@code version} unless that
+     * is {@code null}. Returns the number of rows deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id = :id and (:version is null or u.version = :version)")
+    int deleteIfVersion(@Param("id") long id, @Param("version") Long version);
 }
@@ -0,0 +1,39 @@
+package com.example.api.repository;
+
+import com.example.api.model.UserTombstone;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+
+    @Query("""
+            select t from UserTombstone t
+            where t.changeSeq > :seq or (t.changeSeq = :seq and t.userId > :id)
+            order by t.changeSeq, t.userId""")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserTombstone> streamChangedAfter(@Param("seq") long seq, @Param("id") long id);
+
+    @Query("select coalesce(max(t.changeSeq), 0) from UserTombstone t where t.deletedAt <= :before")
+    long maxChangeSeqBefore(@Param("before") OffsetDateTime before);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserTombstone t where t.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") OffsetDateTime before);
+}
@@ -0,0 +1,22 @@
+package com.example.api.search;
+
+import com.example.api.model.User;
+
+/**
+ * Immutable copy of the searchable fields of a user, detached from JPA. The version orders
+ * writes to the same user that reach the index out of commit order.
+ */
+record IndexedUser(long id, long version, String username, String email, String role) {
+
+    static IndexedUser of(User user) {
+        return new IndexedUser(user.getId(), user.getVersion() != null ? user.getVersion() : 0,
+                user.getUsername(), user.getEmail(), user.getRole());
+    }
+
+    User toUser() {
+        User user = new User(username, email, role);
+        user.setId(id);
+        user.setVersion(version);
+        return user;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.api.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable, fully sorted view of a set of users. Users are numbered by ascending id; for each
+ * searchable text field the user numbers are kept sorted by the lower-cased value, so a prefix
+ * is a contiguous range found with two binary searches. Roles map to bitsets over user numbers.
+ */
+final class UserIndexSegment {
+
+    static final UserIndexSegment EMPTY = build(List.of());
+
+    private final IndexedUser[] users;
+    private final long[] ids;
+    private final String[] usernameKeys;
+    private final int[] byUsername;
+    private final int[] usernamePositions;
+    private final String[] emailKeys;
+    private final int[] byEmail;
+    private final int[] emailPositions;
+    private final Map<String, BitSet> roles;
+    private final Map<String, Integer> roleCounts;
+
+    private UserIndexSegment(IndexedUser[] users) {
+        this.users = users;
+        this.ids = new long[users.length];
+        Map<String, BitSet> roleBits = new HashMap<>();
+        for (int doc = 0; doc < users.length; doc++) {
+            ids[doc] = users[doc].id();
+            roleBits.computeIfAbsent(roleKey(users[doc].role()), role -> new BitSet(users.length)).set(doc);
+        }
+        this.roles = Map.copyOf(roleBits);
+        Map<String, Integer> counts = new HashMap<>();
+        roleBits.forEach((role, docs) -> counts.put(role, docs.cardinality()));
+        this.roleCounts = Map.copyOf(counts);
+        SortedField username = SortedField.of(users, IndexedUser::username);
+        this.usernameKeys = username.keys;
+        this.byUsername = username.docs;
+        this.usernamePositions = username.positions;
+        SortedField email = SortedField.of(users, IndexedUser::email);
+        this.emailKeys = email.keys;
+        this.byEmail = email.docs;
+        this.emailPositions = email.positions;
+    }
+
+    /**
+     * @param users users in ascending id order
+     */
+    static UserIndexSegment build(List<IndexedUser> users) {
+        return new UserIndexSegment(users.toArray(IndexedUser[]::new));
+    }
+
+    int size() {
+        return users.length;
+    }
+
+    IndexedUser user(int doc) {
+        return users[doc];
+    }
+
+    /**
+     * Returns the user number of {@code id}, or -1 when the segment does not contain it.
+     */
+    int docOf(long id) {
+        int doc = Arrays.binarySearch(ids, id);
+        return doc >= 0 ? doc : -1;
+    }
+
+    /**
+     * Users whose username starts with the lower-cased {@code prefix}, in username order:
+     * positions {@code [from, to)} of {@link #usernameDoc}.
+     */
+    int[] usernameRange(String prefix) {
+        return range(usernameKeys, prefix);
+    }
+
+    int usernameDoc(int position) {
+        return byUsername[position];
+    }
+
+    /**
+     * Inverse of {@link #usernameDoc}.
+     */
+    int usernamePosition(int doc) {
+        return usernamePositions[doc];
+    }
+
+    int[] emailRange(String prefix) {
+        return range(emailKeys, prefix);
+    }
+
+    int emailDoc(int position) {
+        return byEmail[position];
+    }
+
+    int emailPosition(int doc) {
+        return emailPositions[doc];
+    }
+
+    /**
+     * Returns the users holding {@code role}, or {@code null} when nobody does.
+     */
+    BitSet role(String role) {
+        return roles.get(role);
+    }
+
+    int roleCount(String role) {
+        return roleCounts.getOrDefault(role, 0);
+    }
+
+    static String roleKey(String role) {
+        return role == null ? "" : role.toUpperCase(Locale.ROOT);
+    }
+
+    static String textKey(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] range(String[] keys, String prefix) {
+        // Every key starting with the prefix sorts before prefix + U+FFFF.
+        return new int[]{lowerBound(keys, prefix), lowerBound(keys, prefix + Character.MAX_VALUE)};
+    }
+
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record SortedField(String[] keys, int[] docs, int[] positions) {
+
+        private record Key(String key, int doc) {
+        }
+
+        static SortedField of(IndexedUser[] users, Function<IndexedUser, String> field) {
+            Key[] sorted = new Key[users.length];
+            for (int doc = 0; doc < users.length; doc++) {
+                sorted[doc] = new Key(textKey(field.apply(users[doc])), doc);
+            }
+            // Docs are numbered by id, so ties stay in id order.
+            Arrays.sort(sorted, Comparator.comparing(Key::key).thenComparingInt(Key::doc));
+            String[] keys = new String[sorted.length];
+            int[] docs = new int[sorted.length];
+            int[] positions = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i].key();
+                docs[i] = sorted[i].doc();
+                positions[docs[i]] = i;
+            }
+            return new SortedField(keys, docs, positions);
+        }
+    }
+}
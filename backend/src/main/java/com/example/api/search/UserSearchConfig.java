@@ -0,0 +1,38 @@
+package com.example.api.search;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.example.api.model.User;
+import com.example.api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+@Configuration
+public class UserSearchConfig {
+
+    @Bean
+    public UserSearchIndex userSearchIndex(UserRepository userRepository,
+                                           EntityManager entityManager,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${app.users.search.compaction-threshold:1024}") int compactionThreshold,
+                                           MeterRegistry meterRegistry,
+                                           WorkerThreads workerThreads) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        UserSearchIndex.Source source = consumer -> readOnly.executeWithoutResult(status -> {
+            try (Stream<User> users = userRepository.streamByIdGreaterThan(0L)) {
+                users.forEach(user -> {
+                    consumer.accept(user);
+                    entityManager.detach(user);
+                });
+            }
+        });
+        return new UserSearchIndex(source, compactionThreshold, meterRegistry, workerThreads);
+    }
+}
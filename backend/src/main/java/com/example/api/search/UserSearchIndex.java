@@ -0,0 +1,490 @@
+package com.example.api.search;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.example.api.model.User;
+import com.example.api.model.UserSearchResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index answering username/email prefix and role searches without touching the
+ * database.
+ *
+ * <p>Readers work on an immutable snapshot: a fully sorted {@link UserIndexSegment} plus a small
+ * overlay of users written since the segment was built, which supersede their segment entries.
+ * Writes copy the overlay and publish a new snapshot; once the overlay reaches
+ * {@code compactionThreshold} entries a background thread folds it into a new segment. The index
+ * is loaded from the database when the application is ready, then kept in sync by
+ * {@code UserService} after each local commit and by {@code UserChangePoller} for writes made on
+ * any pod. Both can deliver the same write, or two writes out of order, so an upsert older than
+ * the indexed version of that user is ignored, and deleted users stay deleted.
+ */
+public class UserSearchIndex implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    /**
+     * How long a deletion blocks upserts of the same user. Ids are never reused, so only a write
+     * that raced the delete can still arrive, and it arrives within one commit or feed poll.
+     */
+    private static final Duration DELETION_MEMORY = Duration.ofMinutes(10);
+
+    /**
+     * Streams every user from the system of record.
+     */
+    @FunctionalInterface
+    public interface Source {
+
+        void forEach(Consumer<User> consumer);
+    }
+
+    private final Source source;
+    private final int compactionThreshold;
+    private final ExecutorService compactor;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Cache<Long, Boolean> deleted = Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .expireAfterWrite(DELETION_MEMORY)
+            .build();
+
+    private volatile Snapshot snapshot = new Snapshot(UserIndexSegment.EMPTY, new BitSet(), new int[0], Map.of(), 0, 0);
+    private volatile boolean ready;
+    private boolean compactionScheduled;
+
+    public UserSearchIndex(Source source, int compactionThreshold, MeterRegistry meterRegistry, WorkerThreads workerThreads) {
+        this.source = source;
+        this.compactionThreshold = Math.max(1, compactionThreshold);
+        this.compactor = Executors.newSingleThreadExecutor(workerThreads.factory("user-index-"));
+        Gauge.builder("users.search.index.size", this, index -> index.snapshot.size())
+                .description("Users in the search index")
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.pending", this, index -> index.snapshot.overlay().size())
+                .description("User writes not yet compacted into the sorted search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every user from the source, replacing the current contents. Writes applied while the
+     * load runs are kept.
+     */
+    public void load() {
+        long started = System.nanoTime();
+        runOnCompactor(() -> {
+            long fromVersion = snapshot.version();
+            List<IndexedUser> users = new ArrayList<>();
+            source.forEach(user -> users.add(IndexedUser.of(user)));
+            install(fromVersion, users);
+        });
+        ready = true;
+        log.info("Indexed {} users for search in {} ms", snapshot.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Returns up to {@code limit} users matching every given criterion and the total number of
+     * matches. Prefixes are case-insensitive; {@code null} or blank criteria are ignored. Results
+     * are ordered by username when a username prefix is given, else by email when an email prefix
+     * is given, else by id.
+     *
+     * @throws ResponseStatusException with 503 while the index is still loading
+     */
+    public UserSearchResult search(String usernamePrefix, String emailPrefix, String role, int limit) {
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "User search index is still loading");
+        }
+        return snapshot.search(new Query(normalize(usernamePrefix, false), normalize(emailPrefix, false),
+                normalize(role, true), limit));
+    }
+
+    public void index(User user) {
+        apply(List.of(IndexedUser.of(user)), List.of());
+    }
+
+    public void indexAll(Collection<User> users) {
+        apply(users.stream().map(IndexedUser::of).toList(), List.of());
+    }
+
+    public void remove(Long id) {
+        apply(List.of(), List.of(id));
+    }
+
+    /**
+     * Folds all pending writes into a new sorted segment and waits for it.
+     */
+    void compact() {
+        runOnCompactor(this::compactPending);
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdownNow();
+    }
+
+    private void apply(List<IndexedUser> upserts, List<Long> removals) {
+        writeLock.lock();
+        try {
+            Snapshot.Builder next = snapshot.toBuilder();
+            for (IndexedUser user : upserts) {
+                if (deleted.getIfPresent(user.id()) == null && user.version() >= next.versionOf(user.id())) {
+                    next.put(user.id(), user);
+                }
+            }
+            for (Long id : removals) {
+                deleted.put(id, Boolean.TRUE);
+                next.put(id, null);
+            }
+            snapshot = next.build();
+            if (snapshot.overlay().size() >= compactionThreshold && !compactionScheduled) {
+                compactionScheduled = true;
+                compactor.execute(this::compactPending);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void compactPending() {
+        writeLock.lock();
+        try {
+            compactionScheduled = false;
+        } finally {
+            writeLock.unlock();
+        }
+        Snapshot from = snapshot;
+        if (!from.overlay().isEmpty()) {
+            install(from.version(), from.merged());
+        }
+    }
+
+    /**
+     * Publishes a new segment built from {@code users}, which reflects every write up to
+     * {@code fromVersion}; later writes stay in the overlay.
+     */
+    private void install(long fromVersion, List<IndexedUser> users) {
+        UserIndexSegment base = UserIndexSegment.build(users);
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            Snapshot.Builder next = new Snapshot(base, new BitSet(), new int[0], Map.of(), current.version(), base.size()).toBuilder();
+            current.overlay().forEach((id, change) -> {
+                if (change.version() > fromVersion) {
+                    next.replay(id, change);
+                }
+            });
+            snapshot = next.build();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void runOnCompactor(Runnable task) {
+        try {
+            compactor.submit(task).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the user search index", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Rebuilding the user search index failed", ex.getCause());
+        }
+    }
+
+    private static String normalize(String value, boolean role) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return role ? UserIndexSegment.roleKey(value.trim()) : UserIndexSegment.textKey(value.trim());
+    }
+
+    /**
+     * A user written after the segment was built; {@code user} is {@code null} for a deletion.
+     */
+    private record Change(long version, IndexedUser user) {
+    }
+
+    private record Query(String username, String email, String role, int limit) {
+
+        int criteria() {
+            return (username != null ? 1 : 0) + (email != null ? 1 : 0) + (role != null ? 1 : 0);
+        }
+
+        boolean matches(IndexedUser user) {
+            return (username == null || startsWith(user.username(), username))
+                    && (email == null || startsWith(user.email(), email))
+                    && (role == null || role.equals(UserIndexSegment.roleKey(user.role())));
+        }
+
+        Comparator<IndexedUser> order() {
+            Comparator<IndexedUser> byId = Comparator.comparingLong(IndexedUser::id);
+            if (username != null) {
+                return Comparator.comparing((IndexedUser user) -> UserIndexSegment.textKey(user.username())).thenComparing(byId);
+            }
+            if (email != null) {
+                return Comparator.comparing((IndexedUser user) -> UserIndexSegment.textKey(user.email())).thenComparing(byId);
+            }
+            return byId;
+        }
+
+        private static boolean startsWith(String value, String prefix) {
+            return value != null && value.regionMatches(true, 0, prefix, 0, prefix.length());
+        }
+    }
+
+    /**
+     * @param superseded     segment positions replaced or deleted by the overlay
+     * @param supersededDocs the same positions as an array
+     * @param size           live users
+     */
+    private record Snapshot(UserIndexSegment base, BitSet superseded, int[] supersededDocs,
+                            Map<Long, Change> overlay, long version, int size) {
+
+        UserSearchResult search(Query query) {
+            List<IndexedUser> hits = new ArrayList<>(Math.min(query.limit(), 64));
+            long total = query.criteria() <= 1 ? collectSingle(query, hits) : collectAll(query, hits);
+            List<IndexedUser> pending = new ArrayList<>();
+            for (Change change : overlay.values()) {
+                if (change.user() != null && query.matches(change.user())) {
+                    pending.add(change.user());
+                }
+            }
+            total += pending.size();
+            return new UserSearchResult(merge(hits, pending, query), total);
+        }
+
+        /**
+         * With at most one criterion the matching segment users are exactly one sorted range (or
+         * role bitset) minus the superseded ones, so the total is computed without visiting every
+         * match and the scan stops after {@code limit} hits.
+         */
+        private long collectSingle(Query query, List<IndexedUser> hits) {
+            if (query.username() != null) {
+                int[] range = base.usernameRange(query.username());
+                for (int position = range[0]; position < range[1] && hits.size() < query.limit(); position++) {
+                    collect(base.usernameDoc(position), query, hits);
+                }
+                long matches = range[1] - range[0];
+                for (int doc : supersededDocs) {
+                    int position = base.usernamePosition(doc);
+                    if (position >= range[0] && position < range[1]) {
+                        matches--;
+                    }
+                }
+                return matches;
+            }
+            if (query.email() != null) {
+                int[] range = base.emailRange(query.email());
+                for (int position = range[0]; position < range[1] && hits.size() < query.limit(); position++) {
+                    collect(base.emailDoc(position), query, hits);
+                }
+                long matches = range[1] - range[0];
+                for (int doc : supersededDocs) {
+                    int position = base.emailPosition(doc);
+                    if (position >= range[0] && position < range[1]) {
+                        matches--;
+                    }
+                }
+                return matches;
+            }
+            if (query.role() != null) {
+                BitSet roleDocs = base.role(query.role());
+                if (roleDocs == null) {
+                    return 0;
+                }
+                for (int doc = roleDocs.nextSetBit(0); doc >= 0 && hits.size() < query.limit(); doc = roleDocs.nextSetBit(doc + 1)) {
+                    collect(doc, query, hits);
+                }
+                long matches = base.roleCount(query.role());
+                for (int doc : supersededDocs) {
+                    if (roleDocs.get(doc)) {
+                        matches--;
+                    }
+                }
+                return matches;
+            }
+            for (int doc = 0; doc < base.size() && hits.size() < query.limit(); doc++) {
+                collect(doc, query, hits);
+            }
+            return base.size() - supersededDocs.length;
+        }
+
+        private long collectAll(Query query, List<IndexedUser> hits) {
+            BitSet roleDocs = query.role() == null ? null : base.role(query.role());
+            if (query.role() != null && roleDocs == null) {
+                return 0;
+            }
+            long total = 0;
+            if (query.username() != null) {
+                int[] range = base.usernameRange(query.username());
+                for (int position = range[0]; position < range[1]; position++) {
+                    total += collect(base.usernameDoc(position), query, hits);
+                }
+            } else {
+                // Two criteria without a username: an email prefix and a role.
+                int[] range = base.emailRange(query.email());
+                for (int position = range[0]; position < range[1]; position++) {
+                    total += collect(base.emailDoc(position), query, hits);
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Merges the base and overlay users, each sorted by id.
+         */
+        List<IndexedUser> merged() {
+            List<IndexedUser> pending = new ArrayList<>();
+            for (Change change : overlay.values()) {
+                if (change.user() != null) {
+                    pending.add(change.user());
+                }
+            }
+            pending.sort(Comparator.comparingLong(IndexedUser::id));
+            List<IndexedUser> users = new ArrayList<>(size);
+            int next = 0;
+            for (int doc = 0; doc < base.size(); doc++) {
+                if (superseded.get(doc)) {
+                    continue;
+                }
+                IndexedUser user = base.user(doc);
+                while (next < pending.size() && pending.get(next).id() < user.id()) {
+                    users.add(pending.get(next++));
+                }
+                users.add(user);
+            }
+            users.addAll(pending.subList(next, pending.size()));
+            return users;
+        }
+
+        Builder toBuilder() {
+            return new Builder(this);
+        }
+
+        private int collect(int doc, Query query, List<IndexedUser> hits) {
+            if (superseded.get(doc)) {
+                return 0;
+            }
+            IndexedUser user = base.user(doc);
+            if (!query.matches(user)) {
+                return 0;
+            }
+            if (hits.size() < query.limit()) {
+                hits.add(user);
+            }
+            return 1;
+        }
+
+        private static List<User> merge(List<IndexedUser> hits, List<IndexedUser> pending, Query query) {
+            if (pending.isEmpty()) {
+                return hits.stream().map(IndexedUser::toUser).toList();
+            }
+            Comparator<IndexedUser> order = query.order();
+            pending.sort(order);
+            List<User> items = new ArrayList<>(Math.min(query.limit(), hits.size() + pending.size()));
+            int h = 0;
+            int p = 0;
+            while (items.size() < query.limit() && (h < hits.size() || p < pending.size())) {
+                boolean takeHit = p >= pending.size() || (h < hits.size() && order.compare(hits.get(h), pending.get(p)) <= 0);
+                items.add((takeHit ? hits.get(h++) : pending.get(p++)).toUser());
+            }
+            return items;
+        }
+
+        /**
+         * Copy-on-write successor of a snapshot; the superseded bitset is only copied when a write
+         * supersedes another segment user.
+         */
+        private static final class Builder {
+
+            private final Snapshot from;
+            private final Map<Long, Change> overlay;
+            private BitSet superseded;
+            private int[] supersededDocs;
+            private int supersededCount;
+            private long version;
+            private int size;
+
+            private Builder(Snapshot from) {
+                this.from = from;
+                this.overlay = new HashMap<>(from.overlay());
+                this.superseded = from.superseded();
+                this.supersededDocs = from.supersededDocs();
+                this.supersededCount = supersededDocs.length;
+                this.version = from.version();
+                this.size = from.size();
+            }
+
+            /**
+             * The version of live user {@code id}, or -1 when it is not indexed.
+             */
+            long versionOf(long id) {
+                Change change = overlay.get(id);
+                if (change != null) {
+                    return change.user() != null ? change.user().version() : -1;
+                }
+                int doc = from.base().docOf(id);
+                return doc >= 0 && !superseded.get(doc) ? from.base().user(doc).version() : -1;
+            }
+
+            /**
+             * Records a new write; {@code user} is {@code null} for a deletion.
+             */
+            void put(long id, IndexedUser user) {
+                replay(id, new Change(++version, user));
+            }
+
+            /**
+             * Records a write that already has a version, when carrying it over to a new segment.
+             */
+            void replay(long id, Change change) {
+                Change previous = overlay.put(id, change);
+                boolean wasLive;
+                if (previous != null) {
+                    wasLive = previous.user() != null;
+                } else {
+                    int doc = from.base().docOf(id);
+                    wasLive = doc >= 0 && !superseded.get(doc);
+                    if (wasLive) {
+                        supersede(doc);
+                    }
+                }
+                size += (change.user() != null ? 1 : 0) - (wasLive ? 1 : 0);
+            }
+
+            Snapshot build() {
+                int[] docs = supersededCount == supersededDocs.length ? supersededDocs : Arrays.copyOf(supersededDocs, supersededCount);
+                return new Snapshot(from.base(), superseded, docs, overlay, version, size);
+            }
+
+            private void supersede(int doc) {
+                if (superseded == from.superseded()) {
+                    superseded = (BitSet) superseded.clone();
+                }
+                superseded.set(doc);
+                if (supersededCount == supersededDocs.length) {
+                    supersededDocs = Arrays.copyOf(supersededDocs, Math.max(8, supersededCount * 2));
+                }
+                supersededDocs[supersededCount++] = doc;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.api.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.security.jwt")
+public class JwtProperties {
+
+    /**
+     * Upper bound on the number of validated tokens kept in memory. Each entry expires at its
+     * token's {@code exp} claim at the latest.
+     */
+    private long cacheMaximumSize = 10_000;
+
+    /**
+     * How often the signing keys are refetched in the background.
+     */
+    private Duration jwksRefreshInterval = Duration.ofMinutes(5);
+
+    /**
+     * Minimum time between two refreshes triggered by a token signed with an unknown key, so
+     * tokens with bogus key ids cannot make us hammer the identity provider.
+     */
+    private Duration jwksMinRefreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * How long a request waits for an in-flight key refresh when its key is not known yet.
+     */
+    private Duration jwksRefreshTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Connect and read timeout for fetching the JWK set.
+     */
+    private Duration jwksHttpTimeout = Duration.ofSeconds(5);
+
+    public long getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    public void setCacheMaximumSize(long cacheMaximumSize) {
+        this.cacheMaximumSize = cacheMaximumSize;
+    }
+
+    public Duration getJwksRefreshInterval() {
+        return jwksRefreshInterval;
+    }
+
+    public void setJwksRefreshInterval(Duration jwksRefreshInterval) {
+        this.jwksRefreshInterval = jwksRefreshInterval;
+    }
+
+    public Duration getJwksMinRefreshInterval() {
+        return jwksMinRefreshInterval;
+    }
+
+    public void setJwksMinRefreshInterval(Duration jwksMinRefreshInterval) {
+        this.jwksMinRefreshInterval = jwksMinRefreshInterval;
+    }
+
+    public Duration getJwksRefreshTimeout() {
+        return jwksRefreshTimeout;
+    }
+
+    public void setJwksRefreshTimeout(Duration jwksRefreshTimeout) {
+        this.jwksRefreshTimeout = jwksRefreshTimeout;
+    }
+
+    public Duration getJwksHttpTimeout() {
+        return jwksHttpTimeout;
+    }
+
+    public void setJwksHttpTimeout(Duration jwksHttpTimeout) {
+        this.jwksHttpTimeout = jwksHttpTimeout;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.api.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.util.StringUtils;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+@ConditionalOnProperty(prefix = "azure.activedirectory", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JwtSecurityConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public RefreshingJwkSource jwkSource(OAuth2ResourceServerProperties resourceServer, JwtProperties properties)
+            throws MalformedURLException {
+        String jwkSetUri = resourceServer.getJwt().getJwkSetUri();
+        if (!StringUtils.hasText(jwkSetUri)) {
+            throw new IllegalStateException("spring.security.oauth2.resourceserver.jwt.jwk-set-uri must be set");
+        }
+        return new RefreshingJwkSource(new URL(jwkSetUri), properties);
+    }
+
+    /**
+     * Accepts tokens issued for this API, identified by its application id URI or its client id.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(RefreshingJwkSource jwkSource, OAuth2ResourceServerProperties resourceServer,
+                                 @Value("${azure.activedirectory.app-id-uri:}") String appIdUri,
+                                 @Value("${azure.activedirectory.credential.client-id:}") String clientId) {
+        List<String> audiences = Stream.of(appIdUri, clientId).filter(StringUtils::hasText).toList();
+        if (audiences.isEmpty()) {
+            throw new IllegalStateException("azure.activedirectory.app-id-uri or azure.activedirectory.credential.client-id must be set");
+        }
+        return jwtDecoder(jwkSource, resourceServer.getJwt().getIssuerUri(), audiences);
+    }
+
+    @Bean
+    public CachingJwtAuthenticationManager jwtAuthenticationManager(JwtDecoder jwtDecoder,
+                                                                    JwtAuthenticationConverter jwtAuthenticationConverter,
+                                                                    JwtProperties properties,
+                                                                    MeterRegistry meterRegistry) {
+        return new CachingJwtAuthenticationManager(jwtDecoder, jwtAuthenticationConverter,
+                properties.getCacheMaximumSize(), meterRegistry);
+    }
+
+    /**
+     * RS256 decoder over {@code jwkSource} that validates the timestamps, the issuer when given,
+     * and that the {@code aud} claim names at least one of {@code audiences}.
+     */
+    static NimbusJwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, String issuerUri, Collection<String> audiences) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are validated by Spring's validators below.
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        OAuth2TokenValidator<Jwt> defaults = StringUtils.hasText(issuerUri)
+                ? JwtValidators.createDefaultWithIssuer(issuerUri)
+                : JwtValidators.createDefault();
+        OAuth2TokenValidator<Jwt> audience = new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                aud -> aud != null && aud.stream().anyMatch(audiences::contains));
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(defaults, audience));
+        return decoder;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.api.security;
+
+import com.nimbusds.jose.RemoteKeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * JWK set source that keeps the identity provider's signing keys in memory and refetches them on
+ * a background thread, starting with a prefetch at startup.
+ *
+ * <p>Request threads never fetch keys themselves. A token signed with a key that is not in the
+ * current set (a rotation the periodic refresh has not picked up yet) triggers one shared
+ * background refresh, rate limited by {@code minRefreshInterval}, and waits at most
+ * {@code refreshTimeout} for it. If a refresh fails, the previous keys stay in use.
+ */
+public class RefreshingJwkSource implements JWKSource<SecurityContext>, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingJwkSource.class);
+    private static final int MAX_JWK_SET_BYTES = 64 * 1024;
+
+    private final URL jwkSetUrl;
+    private final ResourceRetriever retriever;
+    private final long refreshIntervalNanos;
+    private final long minRefreshIntervalNanos;
+    private final long refreshTimeoutNanos;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile JWKSet keys;
+    private CompletableFuture<JWKSet> refresh;
+    private long lastRefreshStart;
+
+    public RefreshingJwkSource(URL jwkSetUrl, JwtProperties properties) {
+        this(jwkSetUrl, properties, new DefaultResourceRetriever(
+                (int) properties.getJwksHttpTimeout().toMillis(),
+                (int) properties.getJwksHttpTimeout().toMillis(),
+                MAX_JWK_SET_BYTES));
+    }
+
+    RefreshingJwkSource(URL jwkSetUrl, JwtProperties properties, ResourceRetriever retriever) {
+        this.jwkSetUrl = jwkSetUrl;
+        this.retriever = retriever;
+        this.refreshIntervalNanos = properties.getJwksRefreshInterval().toNanos();
+        this.minRefreshIntervalNanos = properties.getJwksMinRefreshInterval().toNanos();
+        this.refreshTimeoutNanos = properties.getJwksRefreshTimeout().toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fetches the keys now and then every refresh interval.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws RemoteKeySourceException {
+        JWKSet current = keys;
+        if (current != null) {
+            List<JWK> matches = selector.select(current);
+            if (!matches.isEmpty()) {
+                return matches;
+            }
+        }
+        CompletableFuture<JWKSet> pending = current == null ? refresh() : refreshIfAllowed();
+        if (pending == null) {
+            return List.of();
+        }
+        try {
+            return selector.select(pending.get(refreshTimeoutNanos, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException ex) {
+            throw new RemoteKeySourceException("Timed out waiting for the JWK set from " + jwkSetUrl, ex);
+        } catch (ExecutionException ex) {
+            throw new RemoteKeySourceException("Could not fetch the JWK set from " + jwkSetUrl, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RemoteKeySourceException("Interrupted while waiting for the JWK set", ex);
+        }
+    }
+
+    private synchronized CompletableFuture<JWKSet> refreshIfAllowed() {
+        if (refresh != null && !refresh.isDone()) {
+            return refresh;
+        }
+        return System.nanoTime() - lastRefreshStart >= minRefreshIntervalNanos ? refresh() : null;
+    }
+
+    /**
+     * Starts a background fetch unless one is already running and returns it.
+     */
+    synchronized CompletableFuture<JWKSet> refresh() {
+        if (refresh == null || refresh.isDone()) {
+            lastRefreshStart = System.nanoTime();
+            refresh = CompletableFuture.supplyAsync(this::fetch, scheduler);
+            refresh.whenComplete((set, ex) -> {
+                if (ex != null) {
+                    log.warn("Could not refresh the JWK set from {}; keeping {} known keys", jwkSetUrl,
+                            keys != null ? keys.getKeys().size() : 0, ex);
+                }
+            });
+        }
+        return refresh;
+    }
+
+    private JWKSet fetch() {
+        try {
+            JWKSet fetched = JWKSet.parse(retriever.retrieveResource(jwkSetUrl).getContent());
+            keys = fetched;
+            log.debug("Fetched {} signing keys from {}", fetched.getKeys().size(), jwkSetUrl);
+            return fetched;
+        } catch (IOException | ParseException ex) {
+            throw new CompletionException(ex);
+        }
+    }
+}
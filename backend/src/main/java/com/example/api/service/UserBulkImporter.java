@@ -0,0 +1,139 @@
+package com.example.api.service;
+
+import com.example.api.model.BulkImportError;
+import com.example.api.model.BulkImportResult;
+import com.example.api.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams users from an NDJSON body or a JSON array, validating each one as it is read and
+ * committing them in chunks through {@link UserService#createAll(List)}. Only one chunk is held in
+ * memory, whatever the size of the upload.
+ */
+@Service
+public class UserBulkImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserBulkImporter.class);
+
+    private final UserService userService;
+    private final ObjectReader userReader;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public UserBulkImporter(UserService userService,
+                            ObjectMapper objectMapper,
+                            Validator validator,
+                            @Value("${app.users.bulk.chunk-size:1000}") int chunkSize,
+                            @Value("${app.users.bulk.max-errors:100}") int maxErrors) {
+        this.userService = userService;
+        this.userReader = objectMapper.readerFor(User.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports every valid user in {@code body}. Invalid users are skipped and reported; malformed
+     * JSON, or a chunk that fails to commit, ends the import after the chunks before it have been
+     * committed.
+     */
+    public BulkImportResult importUsers(InputStream body) throws IOException {
+        List<User> chunk = new ArrayList<>(chunkSize);
+        List<BulkImportError> errors = new ArrayList<>();
+        long index = 0;
+        long chunkStart = 0;
+        long created = 0;
+        long rejected = 0;
+        boolean completed = true;
+        try {
+            // A top-level array is unwrapped, so the same reader handles NDJSON and JSON array bodies.
+            try (MappingIterator<User> users = userReader.readValues(body)) {
+                while (users.hasNextValue()) {
+                    User user = users.nextValue();
+                    Set<ConstraintViolation<User>> violations = validator.validate(user);
+                    if (violations.isEmpty()) {
+                        user.setId(null);
+                        if (chunk.isEmpty()) {
+                            chunkStart = index;
+                        }
+                        chunk.add(user);
+                        if (chunk.size() == chunkSize) {
+                            created += commit(chunk, chunkStart);
+                        }
+                    } else {
+                        rejected++;
+                        report(errors, index, describe(violations));
+                    }
+                    index++;
+                }
+            } catch (JsonProcessingException ex) {
+                completed = false;
+                // Recorded past maxErrors too, as it says where the import stopped.
+                errors.add(new BulkImportError(index, "Malformed JSON: " + ex.getOriginalMessage()));
+            }
+            created += commit(chunk, chunkStart);
+        } catch (ChunkNotCommittedException ex) {
+            completed = false;
+            errors.add(new BulkImportError(ex.firstIndex, "Not imported, nor any user after it: the chunk starting here failed to commit"));
+        }
+        return new BulkImportResult(created, rejected, completed, errors);
+    }
+
+    /**
+     * Commits {@code chunk}, whose first user was at {@code firstIndex} in the upload. A failure
+     * rolls back this chunk only, since the ones before it are already committed.
+     */
+    private int commit(List<User> chunk, long firstIndex) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        try {
+            int size = userService.createAll(chunk).size();
+            chunk.clear();
+            return size;
+        } catch (RuntimeException ex) {
+            log.warn("Bulk import chunk starting at index {} failed to commit", firstIndex, ex);
+            throw new ChunkNotCommittedException(firstIndex);
+        }
+    }
+
+    private void report(List<BulkImportError> errors, long index, String message) {
+        if (errors.size() < maxErrors) {
+            errors.add(new BulkImportError(index, message));
+        }
+    }
+
+    private static String describe(Set<ConstraintViolation<User>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static final class ChunkNotCommittedException extends RuntimeException {
+
+        private final long firstIndex;
+
+        ChunkNotCommittedException(long firstIndex) {
+            super(null, null, false, false);
+            this.firstIndex = firstIndex;
+        }
+    }
+}
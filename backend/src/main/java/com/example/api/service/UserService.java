@@ -1,51 +1,291 @@
 package com.example.api.service;
 
+import com.example.api.cache.CachedPage;
+import com.example.api.cache.CachedUser;
+import com.example.api.cache.UserCache;
+import com.example.api.datasource.ReadWriteRoutingDataSource;
 import com.example.api.exception.UserNotFoundException;
 import com.example.api.messaging.UserEventPublisher;
 import com.example.api.model.User;
+import com.example.api.model.UserFields;
+import com.example.api.model.UserPage;
+import com.example.api.model.UserPatch;
+import com.example.api.model.UserSearchResult;
+import com.example.api.model.UserTombstone;
 import com.example.api.repository.UserRepository;
+import com.example.api.search.UserSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final UserEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final UserCache userCache;
+    private final UserSearchIndex searchIndex;
 
-    public UserService(UserRepository userRepository, UserEventPublisher eventPublisher) {
+    public UserService(UserRepository userRepository,
+                       UserEventPublisher eventPublisher,
+                       EntityManager entityManager,
+                       UserCache userCache,
+                       UserSearchIndex searchIndex) {
         this.userRepository = userRepository;
         this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.userCache = userCache;
+        this.searchIndex = searchIndex;
     }
 
-    public List<User> findAll() {
-        return userRepository.findAll();
+    public UserPage findPage(Long after, int limit) {
+        return page(userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1)), limit);
+    }
+
+    /**
+     * Variant of {@link #findPage} that loads only the columns of {@code fields}. Projected pages
+     * are not cached.
+     */
+    public UserPage findProjectedPage(Long after, int limit, UserFields fields) {
+        return page(userRepository.findProjectedByIdGreaterThan(after, limit + 1, fields), limit);
+    }
+
+    /**
+     * Read-through variant of {@link #findPage} returning the page already encoded as JSON. Misses
+     * are loaded from the primary so a lagging replica cannot outlive its lag in the cache.
+     */
+    public CachedPage findCachedPage(Long after, int limit) {
+        return userCache.getPage(after, limit, () -> ReadWriteRoutingDataSource.readFromPrimary(() -> findPage(after, limit)));
+    }
+
+    /**
+     * Streams every user with an id greater than {@code after} in id order. Each entity is
+     * detached once the consumer returns so the persistence context does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Long after, Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamByIdGreaterThan(after)) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    /**
+     * Prefix and role search served from the in-memory {@link UserSearchIndex}.
+     */
+    public UserSearchResult search(String username, String email, String role, int limit) {
+        return searchIndex.search(username, email, role, limit);
     }
 
     public User findById(Long id) {
-        return userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+        return findCachedById(id).user();
     }
 
+    /**
+     * Read-through lookup that returns the shared cached snapshot and its ETag. Callers must not
+     * mutate the returned user. Misses are loaded from the primary, like pages.
+     */
+    public CachedUser findCachedById(Long id) {
+        CachedUser cached = userCache.get(id, key -> ReadWriteRoutingDataSource.readFromPrimary(() -> userRepository.findById(key)));
+        if (cached == null) {
+            throw new UserNotFoundException(id);
+        }
+        return cached;
+    }
+
+    @Transactional
     public User create(User user) {
+        stamp(List.of(user));
         User created = userRepository.save(user);
         eventPublisher.publishUserCreated(created);
+        afterCommit(() -> {
+            userCache.invalidate(created.getId());
+            searchIndex.index(created);
+        });
+        return created;
+    }
+
+    /**
+     * Inserts a chunk of new users and their created events in one transaction. Ids come from the
+     * pooled sequence, so the inserts go out as JDBC batches; the persistence context is cleared
+     * afterwards so a long import does not accumulate managed entities. The whole chunk shares
+     * one change sequence number.
+     */
+    @Transactional
+    public List<User> createAll(List<User> users) {
+        stamp(users);
+        List<User> created = userRepository.saveAll(users);
+        eventPublisher.publishUsersCreated(created);
+        entityManager.flush();
+        entityManager.clear();
+        afterCommit(() -> {
+            userCache.invalidateAll(created.stream().map(User::getId).toList());
+            searchIndex.indexAll(created);
+        });
         return created;
     }
 
+    @Transactional
     public User update(Long id, User updated) {
-        User existing = findById(id);
+        User existing = loadExisting(id);
         existing.setEmail(updated.getEmail());
         existing.setUsername(updated.getUsername());
         existing.setRole(updated.getRole());
+        stamp(List.of(existing));
         User saved = userRepository.save(existing);
         eventPublisher.publishUserUpdated(saved);
+        afterCommit(() -> {
+            userCache.invalidate(id);
+            searchIndex.index(saved);
+        });
         return saved;
     }
 
+    /**
+     * Applies {@code patch} with a single conditional UPDATE, provided the user is still at
+     * {@code version}; a concurrent write in between fails with 412 instead of being overwritten.
+     * A {@code null} version applies it to whichever version is current. The patched state comes
+     * from the patch itself, or the cached snapshot of that version, and is only read back when
+     * neither covers every attribute or the version is not known.
+     */
+    @Transactional
+    public User patch(Long id, Long version, UserPatch patch) {
+        long changeSeq = userRepository.nextChangeSeq();
+        if (userRepository.updateIfVersion(id, version, patch.username(), patch.email(), patch.role(),
+                changeSeq, OffsetDateTime.now()) == 0) {
+            throw version == null ? new UserNotFoundException(id) : conflictOrNotFound(id, version);
+        }
+        User patched = patchedState(id, version, patch);
+        patched.setChangeSeq(changeSeq);
+        eventPublisher.publishUserUpdated(patched);
+        afterCommit(() -> {
+            userCache.invalidate(id);
+            searchIndex.index(patched);
+        });
+        return patched;
+    }
+
+    @Transactional
     public void delete(Long id) {
-        User existing = findById(id);
-        userRepository.delete(existing);
-        eventPublisher.publishUserDeleted(existing);
+        delete(id, null);
+    }
+
+    /**
+     * Deletes the user, only while it is at {@code version} unless that is {@code null}. The
+     * deleted event carries the user's last state, taken from the cached snapshot of the version
+     * being deleted or else returned by the DELETE itself, so the row is never read separately.
+     */
+    @Transactional
+    public void delete(Long id, Long version) {
+        User deleted = deleteAndCapture(id, version);
+        long changeSeq = userRepository.nextChangeSeq();
+        // Persisted rather than saved: ids are never reused, so there is no tombstone to merge with.
+        entityManager.persist(new UserTombstone(id, changeSeq, OffsetDateTime.now()));
+        eventPublisher.publishUserDeleted(deleted, changeSeq);
+        afterCommit(() -> {
+            userCache.invalidate(id);
+            searchIndex.remove(id);
+        });
+    }
+
+    /**
+     * Deletes the row and returns its state at deletion. The snapshot is only used when the delete
+     * is conditional on its version, so it is exactly the state that was deleted.
+     */
+    private User deleteAndCapture(Long id, Long version) {
+        CachedUser cached = userCache.getIfPresent(id);
+        if (cached != null && (version == null || version.equals(cached.user().getVersion()))) {
+            if (userRepository.deleteIfVersion(id, cached.user().getVersion()) == 1) {
+                return cached.user();
+            }
+            if (version != null) {
+                throw conflictOrNotFound(id, version);
+            }
+        }
+        return userRepository.deleteReturning(id, version)
+                .orElseThrow(() -> version == null ? new UserNotFoundException(id) : conflictOrNotFound(id, version));
+    }
+
+    /**
+     * The state {@code patch} left behind, for the updated event, the search index and the response.
+     * None of them reads the timestamp, so it is left unset.
+     */
+    private User patchedState(Long id, Long version, UserPatch patch) {
+        CachedUser cached = userCache.getIfPresent(id);
+        User patched;
+        if (version == null) {
+            return loadExisting(id);
+        } else if (patch.isComplete()) {
+            patched = new User();
+            patched.setId(id);
+        } else if (cached != null && version.equals(cached.user().getVersion())) {
+            User snapshot = cached.user();
+            patched = new User(snapshot.getUsername(), snapshot.getEmail(), snapshot.getRole());
+            patched.setId(id);
+        } else {
+            return loadExisting(id);
+        }
+        patch.applyTo(patched);
+        patched.setVersion(version + 1);
+        return patched;
+    }
+
+    private RuntimeException conflictOrNotFound(Long id, long version) {
+        if (!userRepository.existsById(id)) {
+            return new UserNotFoundException(id);
+        }
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "User %d is no longer at version %d".formatted(id, version));
+    }
+
+    private void stamp(List<User> users) {
+        long changeSeq = userRepository.nextChangeSeq();
+        OffsetDateTime now = OffsetDateTime.now();
+        users.forEach(user -> {
+            user.setChangeSeq(changeSeq);
+            user.setUpdatedAt(now);
+        });
+    }
+
+    private User loadExisting(Long id) {
+        return userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+    }
+
+    private static UserPage page(List<User> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new UserPage(rows, null);
+        }
+        List<User> items = rows.subList(0, limit);
+        return new UserPage(items, items.get(limit - 1).getId());
+    }
+
+    /**
+     * Defers cache maintenance until the write is visible to other transactions, so a concurrent
+     * read-through cannot re-cache the pre-commit state after the invalidation.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
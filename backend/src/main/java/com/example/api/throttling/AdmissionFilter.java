@@ -0,0 +1,107 @@
+package com.example.api.throttling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the requests processed at once. A request that finds no free slot waits up to
+ * {@code maxQueueWait}, and is answered with 429 and {@code Retry-After} when the wait runs out or
+ * {@code maxQueued} requests are already waiting. Shedding happens before authentication, so an
+ * overloaded service does not spend time validating tokens of requests it will turn away.
+ *
+ * <p>The slot is held until the handler returns; a streaming response that continues
+ * asynchronously no longer counts.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final long maxQueueWaitNanos;
+    private final String retryAfter;
+    private final List<String> excludedPaths;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public AdmissionFilter(ThrottlingProperties.Admission settings, MeterRegistry meterRegistry) {
+        int maxConcurrent = Math.max(1, settings.getMaxConcurrent());
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.maxQueued = settings.getMaxQueued();
+        this.maxQueueWaitNanos = settings.getMaxQueueWait().toNanos();
+        this.retryAfter = Long.toString(Math.max(1, settings.getRetryAfter().toSeconds()));
+        this.excludedPaths = List.copyOf(settings.getExcludedPaths());
+        this.waitTimer = Timer.builder("api.admission.wait")
+                .description("Time requests waited for a processing slot")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("api.admission.rejected")
+                .description("Requests shed with 429 because no processing slot became free in time")
+                .register(meterRegistry);
+        Gauge.builder("api.admission.in-flight", slots, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .description("Requests holding a processing slot")
+                .register(meterRegistry);
+        Gauge.builder("api.admission.queued", slots, Semaphore::getQueueLength)
+                .description("Requests waiting for a processing slot")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String excluded : excludedPaths) {
+            if (matcher.match(excluded, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!admit()) {
+            rejectedCounter.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private boolean admit() {
+        if (slots.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return true;
+        }
+        if (slots.getQueueLength() >= maxQueued) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            return slots.tryAcquire(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.api.throttling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits each principal's request rate per route with {@link TokenBucket}s. The principal is the
+ * authenticated name, as recorded by the audit interceptor, or the client address for anonymous
+ * callers. Buckets live in a bounded cache and expire once they would be full again, so idle
+ * principals cost nothing.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Rule defaultRule;
+    private final ConcurrentMap<RouteKey, Rule> rulesByRoute = new ConcurrentHashMap<>();
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    public RateLimitInterceptor(ThrottlingProperties.RateLimit settings, MeterRegistry meterRegistry) {
+        for (ThrottlingProperties.Route route : settings.getRoutes()) {
+            String method = route.getMethod() == null || route.getMethod().isBlank() ? null : route.getMethod().toUpperCase();
+            String name = (method == null ? "" : method + " ") + route.getPattern();
+            rules.add(new Rule(rules.size(), name, method, route.getPattern(), route, meterRegistry));
+        }
+        this.defaultRule = new Rule(rules.size(), "default", null, null, settings.getDefaultLimit(), meterRegistry);
+        long idleNanos = defaultRule.toleranceNanos;
+        for (Rule rule : rules) {
+            idleNanos = Math.max(idleNanos, rule.toleranceNanos);
+        }
+        // Maintenance runs on the request thread: handing it to the common pool costs more than
+        // the occasional amortized cleanup.
+        this.buckets = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(settings.getMaximumBuckets())
+                .expireAfterAccess(Duration.ofNanos(idleNanos))
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async requests pass through preHandle again on redispatch; only the first one counts.
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Rule rule = rule(request.getMethod(), route(request));
+        long result = tryAcquire(principal(request), rule);
+        response.setHeader("X-RateLimit-Limit", Integer.toString(rule.burst));
+        if (result >= 0) {
+            rule.allowed.increment();
+            response.setHeader("X-RateLimit-Remaining", Long.toString(result));
+            return true;
+        }
+        rule.limited.increment();
+        response.setHeader("X-RateLimit-Remaining", "0");
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(TimeUnit.NANOSECONDS.toSeconds(-result + TimeUnit.SECONDS.toNanos(1) - 1)));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        return false;
+    }
+
+    /**
+     * Takes a token from the principal's bucket for the route.
+     *
+     * @return as {@link TokenBucket#tryAcquire}
+     */
+    long tryAcquire(String principal, String method, String route) {
+        return tryAcquire(principal, rule(method, route));
+    }
+
+    private long tryAcquire(String principal, Rule rule) {
+        long now = System.nanoTime();
+        BucketKey key = new BucketKey(principal, rule.index);
+        TokenBucket bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            bucket = buckets.get(key, ignored -> new TokenBucket(now));
+        }
+        return bucket.tryAcquire(now, rule.intervalNanos, rule.toleranceNanos);
+    }
+
+    private Rule rule(String method, String route) {
+        return rulesByRoute.computeIfAbsent(new RouteKey(method, route), key -> {
+            for (Rule rule : rules) {
+                if ((rule.method == null || rule.method.equals(key.method())) && matcher.match(rule.pattern, key.route())) {
+                    return rule;
+                }
+            }
+            return defaultRule;
+        });
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+    }
+
+    private static String principal(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return "address:" + request.getRemoteAddr();
+        }
+        return authentication.getName();
+    }
+
+    private record RouteKey(String method, String route) {
+    }
+
+    private record BucketKey(String principal, int rule) {
+    }
+
+    private static final class Rule {
+
+        final int index;
+        final String method;
+        final String pattern;
+        final int burst;
+        final long intervalNanos;
+        final long toleranceNanos;
+        final Counter allowed;
+        final Counter limited;
+
+        Rule(int index, String name, String method, String pattern, ThrottlingProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.method = method;
+            this.pattern = pattern;
+            this.burst = Math.max(1, limit.getBurst());
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRate()));
+            this.toleranceNanos = intervalNanos * burst;
+            this.allowed = counter(meterRegistry, name, "allowed");
+            this.limited = counter(meterRegistry, name, "limited");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String rule, String outcome) {
+            return Counter.builder("api.rate-limit.requests")
+                    .description("Requests checked against the per-principal rate limit")
+                    .tag("rule", rule)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
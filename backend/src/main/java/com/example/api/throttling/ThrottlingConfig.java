@@ -0,0 +1,45 @@
+package com.example.api.throttling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(ThrottlingProperties.class)
+public class ThrottlingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<RateLimitInterceptor> rateLimitInterceptor;
+
+    public ThrottlingConfig(ObjectProvider<RateLimitInterceptor> rateLimitInterceptor) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // After the audit interceptor, so limited requests are still logged and timed.
+        rateLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).order(1));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.throttling.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimitInterceptor rateLimitInterceptor(ThrottlingProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimitInterceptor(properties.getRateLimit(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.throttling.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(ThrottlingProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionFilter(properties.getAdmission(), meterRegistry));
+        // Behind tracing, so shed requests still get a span, and ahead of Spring Security.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
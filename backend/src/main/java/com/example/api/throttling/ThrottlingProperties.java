@@ -0,0 +1,215 @@
+package com.example.api.throttling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.throttling")
+public class ThrottlingProperties {
+
+    private final Admission admission = new Admission();
+    private final RateLimit rateLimit = new RateLimit();
+
+    public Admission getAdmission() {
+        return admission;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public static class Admission {
+
+        /**
+         * Sheds requests with 429 once the service is saturated, before authentication runs.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Requests processed at the same time. Further requests wait for a slot.
+         */
+        private int maxConcurrent = 100;
+
+        /**
+         * Requests allowed to wait for a slot. Beyond that a request is rejected at once.
+         */
+        private int maxQueued = 100;
+
+        /**
+         * Longest time a request waits for a slot before it is rejected.
+         */
+        private Duration maxQueueWait = Duration.ofMillis(50);
+
+        /**
+         * Value of the {@code Retry-After} header on shed requests.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        /**
+         * Ant-style paths never shed, so health probes keep answering under load.
+         */
+        private List<String> excludedPaths = new ArrayList<>(List.of("/actuator/**"));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+
+        public Duration getMaxQueueWait() {
+            return maxQueueWait;
+        }
+
+        public void setMaxQueueWait(Duration maxQueueWait) {
+            this.maxQueueWait = maxQueueWait;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+
+        public List<String> getExcludedPaths() {
+            return excludedPaths;
+        }
+
+        public void setExcludedPaths(List<String> excludedPaths) {
+            this.excludedPaths = excludedPaths;
+        }
+    }
+
+    public static class RateLimit {
+
+        /**
+         * Limits each principal's request rate per route, answering 429 with {@code Retry-After}
+         * when a limit is exceeded.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Limit for routes without a matching entry in {@code routes}. Those routes share one
+         * budget per principal.
+         */
+        private final Limit defaultLimit = new Limit();
+
+        /**
+         * Per-route limits, matched in order against the handler's route template, for example
+         * {@code /api/v1/users/{id}}. Each entry has its own budget per principal.
+         */
+        private List<Route> routes = new ArrayList<>();
+
+        /**
+         * Principals tracked at once. A principal evicted early starts over with a full burst.
+         */
+        private long maximumBuckets = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Limit getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public List<Route> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<Route> routes) {
+            this.routes = routes;
+        }
+
+        public long getMaximumBuckets() {
+            return maximumBuckets;
+        }
+
+        public void setMaximumBuckets(long maximumBuckets) {
+            this.maximumBuckets = maximumBuckets;
+        }
+    }
+
+    public static class Limit {
+
+        /**
+         * Sustained requests per second.
+         */
+        private double rate = 100;
+
+        /**
+         * Requests allowed back to back after a quiet period.
+         */
+        private int burst = 200;
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    public static class Route extends Limit {
+
+        /**
+         * HTTP method the limit applies to; any method when empty.
+         */
+        private String method;
+
+        /**
+         * Ant-style pattern matched against the route template.
+         */
+        private String pattern;
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+    }
+}
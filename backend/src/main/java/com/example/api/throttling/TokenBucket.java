@@ -0,0 +1,43 @@
+package com.example.api.throttling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp with the generic cell rate algorithm: the bucket stores
+ * the theoretical arrival time of the next conforming request, and a request conforms while that
+ * time is at most {@code tolerance} ahead of now. Taking a token is one compare-and-set, so
+ * concurrent requests of one principal never block each other.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Creates a full bucket.
+     */
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param intervalNanos  time to earn one token
+     * @param toleranceNanos {@code intervalNanos} times the burst size
+     * @return tokens left after this one, or {@code -n} when denied, {@code n} being the nanoseconds
+     * until the next token
+     */
+    long tryAcquire(long nowNanos, long intervalNanos, long toleranceNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long allowedAt = next - toleranceNanos;
+            if (allowedAt - nowNanos > 0) {
+                return -(allowedAt - nowNanos);
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return (nowNanos - allowedAt) / intervalNanos;
+            }
+        }
+    }
+}
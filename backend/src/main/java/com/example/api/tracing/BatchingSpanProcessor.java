@@ -0,0 +1,169 @@
+package com.example.api.tracing;
+
+import com.example.api.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands sampled spans to the exporter in batches from a single background thread, so ending a
+ * span never waits for the network. The queue is bounded: when the exporter cannot keep up,
+ * newly ended spans are dropped and counted rather than blocking request threads or growing the
+ * heap.
+ */
+public class BatchingSpanProcessor implements SpanProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingSpanProcessor.class);
+
+    private final SpanExporter exporter;
+    private final ArrayBlockingQueue<ReadableSpan> queue;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final long timeoutNanos;
+    private final Counter exported;
+    private final Counter dropped;
+    private final Counter failed;
+    private final AtomicReference<CompletableResultCode> flushRequest = new AtomicReference<>();
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    public BatchingSpanProcessor(SpanExporter exporter,
+                                 TracingProperties.Export settings,
+                                 MeterRegistry meterRegistry,
+                                 WorkerThreads workerThreads) {
+        this.exporter = exporter;
+        this.queue = new ArrayBlockingQueue<>(settings.getMaxQueueSize());
+        this.maxBatchSize = Math.max(1, Math.min(settings.getMaxBatchSize(), settings.getMaxQueueSize()));
+        this.flushIntervalNanos = settings.getFlushInterval().toNanos();
+        this.timeoutNanos = settings.getTimeout().toNanos();
+        this.exported = Counter.builder("tracing.spans.exported")
+                .description("Spans handed to the trace exporter successfully")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("tracing.spans.dropped")
+                .description("Sampled spans dropped because the export queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("tracing.spans.failed")
+                .description("Spans in batches the trace exporter rejected or did not finish in time")
+                .register(meterRegistry);
+        Gauge.builder("tracing.spans.queued", queue, ArrayBlockingQueue::size)
+                .description("Ended spans waiting for export")
+                .register(meterRegistry);
+        this.worker = workerThreads.factory("span-export-").newThread(this::run);
+        this.worker.start();
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!span.getSpanContext().isSampled()) {
+            return;
+        }
+        if (!running || !queue.offer(span)) {
+            dropped.increment();
+        } else if (queue.size() >= maxBatchSize) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /**
+     * Exports everything queued so far; the result completes once the queue has been drained.
+     */
+    @Override
+    public CompletableResultCode forceFlush() {
+        CompletableResultCode result = new CompletableResultCode();
+        CompletableResultCode pending = flushRequest.compareAndExchange(null, result);
+        LockSupport.unpark(worker);
+        return pending != null ? pending : result;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        if (!running) {
+            return CompletableResultCode.ofSuccess();
+        }
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + 1000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return exporter.shutdown();
+    }
+
+    private void run() {
+        long nextExport = System.nanoTime() + flushIntervalNanos;
+        while (true) {
+            boolean stopping = !running;
+            CompletableResultCode flush = flushRequest.get();
+            boolean due = System.nanoTime() - nextExport >= 0;
+            if (queue.size() >= maxBatchSize || ((due || flush != null || stopping) && !queue.isEmpty())) {
+                exportBatch();
+                nextExport = System.nanoTime() + flushIntervalNanos;
+                continue;
+            }
+            if (flush != null) {
+                flushRequest.compareAndSet(flush, null);
+                flush.succeed();
+            }
+            if (stopping) {
+                return;
+            }
+            if (due) {
+                nextExport = System.nanoTime() + flushIntervalNanos;
+            }
+            LockSupport.parkNanos(this, nextExport - System.nanoTime());
+        }
+    }
+
+    private void exportBatch() {
+        // A fresh list per call: an exporter that times out may still be reading the previous one.
+        List<SpanData> batch = new ArrayList<>(Math.min(maxBatchSize, queue.size()));
+        ReadableSpan span;
+        while (batch.size() < maxBatchSize && (span = queue.poll()) != null) {
+            batch.add(span.toSpanData());
+        }
+        try {
+            CompletableResultCode result = exporter.export(batch).join(timeoutNanos, TimeUnit.NANOSECONDS);
+            if (result.isSuccess()) {
+                exported.increment(batch.size());
+            } else {
+                failed.increment(batch.size());
+                log.debug("Trace exporter did not accept a batch of {} spans", batch.size());
+            }
+        } catch (RuntimeException ex) {
+            failed.increment(batch.size());
+            log.warn("Exporting {} spans failed", batch.size(), ex);
+        }
+    }
+}
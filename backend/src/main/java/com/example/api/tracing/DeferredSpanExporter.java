@@ -0,0 +1,56 @@
+package com.example.api.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Builds its delegate on the first export. The {@link BatchingSpanProcessor} only exports from its
+ * background thread, so an expensive exporter such as the Azure Monitor one is created there
+ * instead of while the application starts.
+ */
+class DeferredSpanExporter implements SpanExporter {
+
+    private final Supplier<SpanExporter> factory;
+    private volatile SpanExporter delegate;
+    private volatile boolean shutdown;
+
+    DeferredSpanExporter(Supplier<SpanExporter> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        SpanExporter exporter = delegate();
+        return exporter != null ? exporter.export(spans) : CompletableResultCode.ofFailure();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        SpanExporter exporter = delegate;
+        return exporter != null ? exporter.flush() : CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        shutdown = true;
+        SpanExporter exporter = delegate;
+        return exporter != null ? exporter.shutdown() : CompletableResultCode.ofSuccess();
+    }
+
+    private SpanExporter delegate() {
+        SpanExporter exporter = delegate;
+        if (exporter == null) {
+            synchronized (this) {
+                if (delegate == null && !shutdown) {
+                    delegate = factory.get();
+                }
+                exporter = delegate;
+            }
+        }
+        return exporter;
+    }
+}
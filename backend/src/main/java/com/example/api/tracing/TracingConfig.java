@@ -0,0 +1,71 @@
+package com.example.api.tracing;
+
+import com.azure.monitor.opentelemetry.exporter.AzureMonitorExporterBuilder;
+import com.example.api.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    /**
+     * Exports to Application Insights when a connection string is configured, or to a
+     * {@link SpanExporter} bean when one is defined; otherwise tracing is a no-op. The Application
+     * Insights exporter is built on the first export rather than at startup.
+     */
+    @Bean
+    public OpenTelemetry openTelemetry(@Value("${appinsights.connection-string:}") String connectionString,
+                                       ObjectProvider<SpanExporter> spanExporter,
+                                       TracingProperties properties,
+                                       MeterRegistry meterRegistry,
+                                       WorkerThreads workerThreads) {
+        SpanExporter exporter = spanExporter.getIfAvailable(() -> connectionString == null || connectionString.isBlank()
+                ? null
+                : new DeferredSpanExporter(() -> new AzureMonitorExporterBuilder().connectionString(connectionString).buildTraceExporter()));
+        if (exporter == null) {
+            return OpenTelemetry.noop();
+        }
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider(exporter, properties, meterRegistry, workerThreads))
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(OpenTelemetry openTelemetry) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(openTelemetry));
+        // Ahead of admission control and Spring Security, so shed requests and authentication
+        // time are part of the server span.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+
+    static SdkTracerProvider tracerProvider(SpanExporter exporter,
+                                            TracingProperties properties,
+                                            MeterRegistry meterRegistry,
+                                            WorkerThreads workerThreads) {
+        return SdkTracerProvider.builder()
+                .setSampler(sampler(properties.getSampler()))
+                .addSpanProcessor(new BatchingSpanProcessor(exporter, properties.getExport(), meterRegistry, workerThreads))
+                .build();
+    }
+
+    static Sampler sampler(TracingProperties.Sampler settings) {
+        Sampler ratio = Sampler.traceIdRatioBased(settings.getRatio());
+        return settings.isParentBased() ? Sampler.parentBased(ratio) : ratio;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.api.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    private final Sampler sampler = new Sampler();
+    private final Export export = new Export();
+
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public static class Sampler {
+
+        /**
+         * Fraction of new traces that are recorded and exported, from 0 to 1. The decision is
+         * derived from the trace id, so every service sampling at the same ratio keeps the same
+         * traces.
+         */
+        private double ratio = 1.0;
+
+        /**
+         * Whether requests that arrive with a W3C {@code traceparent} header follow the caller's
+         * sampling decision instead of the ratio.
+         */
+        private boolean parentBased = true;
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double ratio) {
+            this.ratio = ratio;
+        }
+
+        public boolean isParentBased() {
+            return parentBased;
+        }
+
+        public void setParentBased(boolean parentBased) {
+            this.parentBased = parentBased;
+        }
+    }
+
+    public static class Export {
+
+        /**
+         * Ended spans waiting for export. Spans ending while the queue is full are dropped and
+         * counted in {@code tracing.spans.dropped}.
+         */
+        private int maxQueueSize = 2048;
+
+        /**
+         * Spans sent to the exporter in one call. A full batch is exported right away.
+         */
+        private int maxBatchSize = 512;
+
+        /**
+         * Longest time an ended span waits in the queue before it is exported.
+         */
+        private Duration flushInterval = Duration.ofSeconds(5);
+
+        /**
+         * How long the export thread waits for one exporter call before counting the batch as
+         * failed.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public int getMaxQueueSize() {
+            return maxQueueSize;
+        }
+
+        public void setMaxQueueSize(int maxQueueSize) {
+            this.maxQueueSize = maxQueueSize;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
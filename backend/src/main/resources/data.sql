@@ -1,2 +1,6 @@
-INSERT INTO users (id, username, email, role) VALUES (1, 'admin', 'admin@example.com', 'ADMIN');
-INSERT INTO users (id, username, email, role) VALUES (2, 'user', 'user@example.com', 'USER');
+-- Orders GET /users/changes; see User.changeSeq.
+CREATE SEQUENCE IF NOT EXISTS user_change_seq;
+INSERT INTO users (id, username, email, role, change_seq, updated_at) VALUES (1, 'admin', 'admin@example.com', 'ADMIN', NEXT VALUE FOR user_change_seq, CURRENT_TIMESTAMP);
+INSERT INTO users (id, username, email, role, change_seq, updated_at) VALUES (2, 'user', 'user@example.com', 'USER', NEXT VALUE FOR user_change_seq, CURRENT_TIMESTAMP);
+-- Keep generated ids clear of the seeded rows above.
+ALTER SEQUENCE users_seq RESTART WITH 101;
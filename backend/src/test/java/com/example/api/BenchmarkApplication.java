@@ -0,0 +1,48 @@
+package com.example.api;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The in-process service the JMH benchmarks run against: the H2 profile on a random port, with
+ * security, SQL logging and the audit store switched off.
+ */
+public final class BenchmarkApplication {
+
+    private static final String INSERT_USER = "INSERT INTO users (id, username, email, role, change_seq, updated_at)"
+            + " VALUES (?, ?, ?, ?, NEXT VALUE FOR user_change_seq, CURRENT_TIMESTAMP)";
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the service. Passed as arguments so they override application.yml, and
+     * {@code extraArgs} come last so a benchmark can override the defaults too.
+     */
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--azure.activedirectory.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--app.audit.store.enabled=false",
+                "--logging.level.com.example.api=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(ApiFirstApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Inserts users {@code firstId} to {@code firstId + count - 1} in one batch, named
+     * {@code user<id>}, bypassing the service so no events or cache entries are produced.
+     */
+    public static void seedUsers(JdbcTemplate jdbcTemplate, long firstId, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (long id = firstId; id < firstId + count; id++) {
+            rows.add(new Object[]{id, "user" + id, "user" + id + "@example.com", "USER"});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, rows);
+    }
+}
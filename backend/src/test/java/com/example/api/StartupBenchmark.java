@@ -0,0 +1,212 @@
+package com.example.api;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Time from launching the service in a fresh JVM to its first successful
+ * {@code GET /api/v1/users/{id}}, and the resident set size at that moment ({@code rssMegabytes}).
+ *
+ * <p>{@code default} starts as configured, {@code fast-start} adds the lazy-initialization
+ * profile, and {@code fast-start-cds} also maps a class-data-sharing archive trained once per
+ * trial, as the Dockerfile does. When {@code target/classes} holds AOT output
+ * ({@code mvn -Pfast-start ...}), the fast-start modes run with {@code spring.aot.enabled}.
+ * The application classes are packed into a jar because CDS only archives classes from jars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 3)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final String AOT_INITIALIZER = "com/example/api/ApiFirstApplication__ApplicationContextInitializer.class";
+
+    @Param({"default", "fast-start", "fast-start-cds"})
+    public String mode;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Path workDirectory;
+    private String classpath;
+    private boolean aot;
+    private Path archive;
+    private Process process;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+
+        public long rssMegabytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        workDirectory = Files.createTempDirectory("startup-benchmark");
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (Files.isDirectory(path) && path.endsWith("classes")) {
+                aot = Files.exists(path.resolve(AOT_INITIALIZER));
+                entries.add(0, jar(path, workDirectory.resolve("application.jar")).toString());
+            } else if (entry.endsWith(".jar")) {
+                entries.add(entry);
+            }
+        }
+        classpath = String.join(File.pathSeparator, entries);
+        if (mode.endsWith("-cds")) {
+            archive = workDirectory.resolve("application.jsa");
+            Process training = start(List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh"), freePort());
+            if (!training.waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS) || !Files.exists(archive)) {
+                training.destroyForcibly();
+                throw new IllegalStateException("CDS training run failed: " + log());
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(workDirectory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest(Footprint footprint) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> options = archive != null ? List.of("-XX:SharedArchiveFile=" + archive) : List.of();
+        process = start(options, port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/users/1")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Service exited during startup: " + log());
+            }
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    long rss = residentSetKilobytes(process.pid());
+                    footprint.rssMegabytes = rss < 0 ? -1 : rss / 1024;
+                    return response.statusCode();
+                }
+            } catch (IOException ex) {
+                // Not listening yet.
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No successful response within " + STARTUP_TIMEOUT + ": " + log());
+    }
+
+    private Process start(List<String> jvmOptions, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmOptions);
+        if (aot && mode.startsWith("fast-start")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-cp", classpath, ApiFirstApplication.class.getName(),
+                "--server.port=" + port,
+                "--app.audit.store.directory=" + workDirectory.resolve("audit")));
+        if (mode.startsWith("fast-start")) {
+            command.add("--spring.profiles.active=fast-start");
+        }
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDirectory.resolve("service.log").toFile());
+        builder.environment().put("AZURE_ACTIVEDIRECTORY_ENABLED", "false");
+        return builder.start();
+    }
+
+    private String log() {
+        try {
+            List<String> lines = Files.readAllLines(workDirectory.resolve("service.log"));
+            return String.join("\n", lines.subList(Math.max(0, lines.size() - 40), lines.size()));
+        } catch (IOException ex) {
+            return ex.toString();
+        }
+    }
+
+    private static Path jar(Path classes, Path target) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(target));
+             Stream<Path> files = Files.walk(classes)) {
+            files.filter(file -> !file.equals(classes)).forEach(file -> {
+                String name = classes.relativize(file).toString().replace(File.separatorChar, '/');
+                try {
+                    // Classpath scanning finds packages through their directory entries.
+                    if (Files.isDirectory(file)) {
+                        jar.putNextEntry(new ZipEntry(name + "/"));
+                    } else {
+                        jar.putNextEntry(new ZipEntry(name));
+                        Files.copy(file, jar);
+                    }
+                    jar.closeEntry();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        return target;
+    }
+
+    /**
+     * VmRSS from {@code /proc}, or -1 where that is not available.
+     */
+    private static long residentSetKilobytes(long pid) {
+        try (Stream<String> lines = Files.lines(Path.of("/proc", Long.toString(pid), "status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
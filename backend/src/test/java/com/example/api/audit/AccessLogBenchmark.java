@@ -0,0 +1,119 @@
+package com.example.api.audit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.api.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-thread cost of the audit interceptor with 4 concurrent requests. {@code sync-log}
+ * adds the synchronous logback line the interceptor used to write per request, through a
+ * console-style pattern appender; {@code async} runs the {@link AccessLogWriter} beside it.
+ * Both write to {@code /dev/null}, so the difference is formatting and appender locking rather
+ * than disk speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AccessLogBenchmark {
+
+    private static final String NULL_DEVICE = "/dev/null";
+
+    @Param({"sync-log", "async"})
+    public String mode;
+
+    private final Object handler = new Object();
+    private AuditLogInterceptor interceptor;
+    private LoggerContext loggerContext;
+    private Logger log;
+    private AccessLogWriter writer;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditLogService auditLogService = new AuditLogService(new AuditLogProperties(), Optional.empty());
+        interceptor = new AuditLogInterceptor(auditLogService, meterRegistry);
+        if ("sync-log".equals(mode)) {
+            log = syncLogger();
+        } else {
+            AuditLogProperties.AccessLog properties = new AuditLogProperties.AccessLog();
+            properties.setPath(Path.of(NULL_DEVICE));
+            properties.setFlushInterval(Duration.ofMillis(200));
+            writer = new AccessLogWriter(auditLogService, new SqlStatementSampler(0, 1024, meterRegistry),
+                    properties, meterRegistry, new WorkerThreads(false));
+            writer.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+        if (loggerContext != null) {
+            loggerContext.stop();
+        }
+    }
+
+    @Benchmark
+    public int request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{id}");
+        interceptor.afterCompletion(request, response, handler, null);
+        if (log != null) {
+            log.info("{} {} by {} -> {} in {}us", request.getMethod(), request.getRequestURI(), "anonymous",
+                    response.getStatus(), 1200L);
+        }
+        return response.getStatus();
+    }
+
+    private Logger syncLogger() throws FileNotFoundException {
+        loggerContext = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level %pid --- [%15.15thread] %-40.40logger{39} : %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(new FileOutputStream(NULL_DEVICE));
+        appender.start();
+        ch.qos.logback.classic.Logger logger = loggerContext.getLogger(AuditLogInterceptor.class);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+        return logger;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.api.audit;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AccessLogWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuditLogService auditLogService = new AuditLogService(new AuditLogProperties(), Optional.empty());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesRequestsAndSampledStatementsAsJsonLines() throws Exception {
+        AuditLogProperties.AccessLog properties = new AuditLogProperties.AccessLog();
+        properties.setPath(directory.resolve("access.log"));
+        properties.setFlushInterval(Duration.ofMillis(10));
+        SqlStatementSampler sampler = new SqlStatementSampler(1, 16, meterRegistry);
+        AccessLogWriter writer = new AccessLogWriter(auditLogService, sampler, properties, meterRegistry,
+                new WorkerThreads(false));
+
+        writer.start();
+        auditLogService.addEvent("GET", "/api/v1/users/1", "/api/v1/users/{id}", "jdoe", 200, 1500);
+        assertThat(sampler.inspect("select u.id from users u")).isEqualTo("select u.id from users u");
+        auditLogService.addEvent("DELETE", "/api/v1/users/\"2\"", "/api/v1/users/{id}", "jdoe", 412, 800);
+        writer.stop();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(properties.getPath())) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(lines).hasSize(3);
+        assertThat(lines).filteredOn(line -> line.get("type").asText().equals("request"))
+                .extracting(line -> line.get("method").asText(), line -> line.get("path").asText(),
+                        line -> line.get("status").asInt(), line -> line.get("durationUs").asLong())
+                .containsExactly(
+                        tuple("GET", "/api/v1/users/1", 200, 1500L),
+                        tuple("DELETE", "/api/v1/users/\"2\"", 412, 800L));
+        assertThat(lines).filteredOn(line -> line.get("type").asText().equals("sql"))
+                .extracting(line -> line.get("sql").asText())
+                .containsExactly("select u.id from users u");
+        assertThat(meterRegistry.get("access.log.written").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("access.log.dropped").tag("source", "request").counter().count()).isZero();
+    }
+
+    @Test
+    void countsOverwrittenEntriesAsDroppedNotWritten() throws Exception {
+        AuditLogProperties auditProperties = new AuditLogProperties();
+        auditProperties.setCapacity(16);
+        AuditLogService smallRing = new AuditLogService(auditProperties, Optional.empty());
+        AuditLogProperties.AccessLog properties = new AuditLogProperties.AccessLog();
+        properties.setPath(directory.resolve("access.log"));
+        properties.setFlushInterval(Duration.ofHours(1));
+        AccessLogWriter writer = new AccessLogWriter(smallRing, new SqlStatementSampler(0, 16, meterRegistry), properties,
+                meterRegistry, new WorkerThreads(false));
+
+        writer.start();
+        for (int i = 0; i < 40; i++) {
+            smallRing.addEvent("GET", "/api/v1/users/" + i, "/api/v1/users/{id}", "jdoe", 200, 100);
+        }
+        writer.stop();
+
+        double written = meterRegistry.get("access.log.written").counter().count();
+        double dropped = meterRegistry.get("access.log.dropped").tag("source", "request").counter().count();
+        assertThat(written).isEqualTo(Files.readAllLines(properties.getPath()).size());
+        assertThat(dropped).isPositive();
+        assertThat(written + dropped).isEqualTo(40);
+    }
+
+    @Test
+    void standardOutputLinesDoNotInterleaveWithConsoleLogging() throws Exception {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        PrintStream console = new PrintStream(captured, true, StandardCharsets.UTF_8);
+        AccessLogWriter.WholeLineOutputStream out = new AccessLogWriter.WholeLineOutputStream(console);
+        byte[] logLine = "INFO something happened\n".getBytes(StandardCharsets.UTF_8);
+        byte[] jsonLine = "{\"type\":\"request\",\"path\":\"/api/v1/users\"}\n".getBytes(StandardCharsets.UTF_8);
+
+        Thread logging = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                console.write(logLine, 0, logLine.length);
+            }
+        });
+        logging.start();
+        for (int i = 0; i < 20_000; i++) {
+            // Split like a JSON generator whose buffer fills mid-line.
+            out.write(jsonLine, 0, 7);
+            out.write(jsonLine, 7, jsonLine.length - 7);
+            if (i % 100 == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        logging.join();
+
+        List<String> lines = List.of(captured.toString(StandardCharsets.UTF_8).split("\n"));
+        assertThat(lines).hasSize(40_000);
+        for (String line : lines) {
+            assertThat(line).isIn("INFO something happened", "{\"type\":\"request\",\"path\":\"/api/v1/users\"}");
+        }
+    }
+
+    @Test
+    void countsStatementsSampledWhileTheQueueIsFull() {
+        SqlStatementSampler sampler = new SqlStatementSampler(1, 2, meterRegistry);
+        for (int i = 0; i < 5; i++) {
+            sampler.inspect("select " + i);
+        }
+
+        List<String> drained = new ArrayList<>();
+        assertThat(sampler.drain(statement -> drained.add(statement.sql()))).isEqualTo(2);
+        assertThat(drained).containsExactly("select 0", "select 1");
+        assertThat(meterRegistry.get("access.log.dropped").tag("source", "sql").counter().count()).isEqualTo(3);
+
+        assertThat(new SqlStatementSampler(0, 2, meterRegistry).inspect("select 1")).isEqualTo("select 1");
+    }
+}
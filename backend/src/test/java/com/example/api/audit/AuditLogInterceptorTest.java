@@ -0,0 +1,78 @@
+package com.example.api.audit;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuditLogService auditLogService = new AuditLogService(new AuditLogProperties(), Optional.empty());
+    private final AuditLogInterceptor interceptor = new AuditLogInterceptor(auditLogService, meterRegistry);
+
+    @Test
+    void recordsLatencyPerRouteTemplate() throws Exception {
+        handle("/api/v1/users/1", 200, 2);
+        handle("/api/v1/users/2", 200, 2);
+        handle("/api/v1/users/3", 404, 0);
+
+        Timer ok = meterRegistry.get("api.request.latency")
+                .tags("method", "GET", "route", "/api/v1/users/{id}", "status", "200")
+                .timer();
+        assertThat(ok.count()).isEqualTo(2);
+        assertThat(ok.takeSnapshot().percentileValues())
+                .extracting(ValueAtPercentile::percentile)
+                .containsExactly(0.5, 0.9, 0.99, 0.999);
+        assertThat(meterRegistry.get("api.request.latency").tag("status", "404").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("api.request.latency").tag("route", "/api/v1/users/1").timer()).isNull();
+    }
+
+    @Test
+    void recordsDurationOnAuditEntry() throws Exception {
+        handle("/api/v1/users/7", 200, 5);
+
+        AuditLogEntry entry = auditLogService.recentEvents().get(0);
+        assertThat(entry.path()).isEqualTo("/api/v1/users/7");
+        assertThat(entry.durationMicros()).isGreaterThanOrEqualTo(5_000);
+    }
+
+    @Test
+    void recordsHandlerExceptionOnceAsServerError() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{id}");
+        interceptor.afterCompletion(request, response, new Object(), new IllegalStateException("boom"));
+
+        request.setDispatcherType(DispatcherType.ERROR);
+        request.setRequestURI("/error");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/error");
+        response.setStatus(500);
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(auditLogService.recentEvents()).singleElement().satisfies(entry -> {
+            assertThat(entry.path()).isEqualTo("/api/v1/users/7");
+            assertThat(entry.status()).isEqualTo(500);
+        });
+    }
+
+    private void handle(String uri, int status, long sleepMillis) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        Thread.sleep(sleepMillis);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{id}");
+        response.setStatus(status);
+        interceptor.afterCompletion(request, response, new Object(), null);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.api.audit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lock-free ring behind {@link AuditLogService} with the synchronized
+ * {@code LinkedList} implementation it replaced, with 15 request threads recording events while
+ * one reader copies the trail, and with 16 writers only. Both sides record the entry alone; what
+ * {@code addEvent} adds on top for the rollups is measured by {@link AuditRollupsBenchmark}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogServiceBenchmark {
+
+    private static final int CAPACITY = 1000;
+
+    @Param({"ring", "synchronized"})
+    public String implementation;
+
+    private AuditLog auditLog;
+
+    @Setup
+    public void setUp() {
+        auditLog = "ring".equals(implementation) ? new RingAuditLog() : new SynchronizedAuditLog();
+        for (int i = 0; i < CAPACITY; i++) {
+            auditLog.addEvent("GET", "/api/v1/users/" + i, "local-user", 200, 1200);
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(15)
+    public void contendedAddEvent() {
+        auditLog.addEvent("GET", "/api/v1/users/1", "local-user", 200, 1200);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public List<AuditLogEntry> contendedRecentEvents() {
+        return auditLog.recentEvents();
+    }
+
+    @Benchmark
+    @Group("writers")
+    @GroupThreads(16)
+    public void addEventOnly() {
+        auditLog.addEvent("GET", "/api/v1/users/1", "local-user", 200, 1200);
+    }
+
+    private interface AuditLog {
+
+        void addEvent(String method, String path, String user, int status, long durationMicros);
+
+        List<AuditLogEntry> recentEvents();
+    }
+
+    /**
+     * What {@link AuditLogService#addEvent} does to record the entry, without the rollups.
+     */
+    private static final class RingAuditLog implements AuditLog {
+
+        private final AuditRingBuffer events = new AuditRingBuffer(CAPACITY);
+
+        @Override
+        public void addEvent(String method, String path, String user, int status, long durationMicros) {
+            long sequence = events.claim();
+            events.publish(new AuditLogEntry(sequence, Instant.now(), method, path, user, status, durationMicros));
+        }
+
+        @Override
+        public List<AuditLogEntry> recentEvents() {
+            return events.snapshot();
+        }
+    }
+
+    /**
+     * The implementation {@link AuditLogService} used before the ring buffer: one monitor around
+     * a {@code LinkedList}.
+     */
+    private static final class SynchronizedAuditLog implements AuditLog {
+
+        private final Deque<AuditLogEntry> events = new LinkedList<>();
+        private long sequence;
+
+        @Override
+        public synchronized void addEvent(String method, String path, String user, int status, long durationMicros) {
+            if (events.size() >= CAPACITY) {
+                events.removeFirst();
+            }
+            events.addLast(new AuditLogEntry(sequence++, Instant.now(), method, path, user, status, durationMicros));
+        }
+
+        @Override
+        public synchronized List<AuditLogEntry> recentEvents() {
+            return List.copyOf(events);
+        }
+    }
+}
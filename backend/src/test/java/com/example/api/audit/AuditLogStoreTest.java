@@ -0,0 +1,91 @@
+package com.example.api.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AuditLogStoreTest {
+
+    private static final Instant START = Instant.now().minusSeconds(600).truncatedTo(ChronoUnit.SECONDS);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsSegmentsAndFiltersQueries() throws IOException {
+        AuditLogStore store = new AuditLogStore(settings());
+        for (int i = 0; i < 200; i++) {
+            store.append(entry(i, i % 2 == 0 ? "alice" : "bob", i % 10 == 0 ? 500 : 200));
+        }
+
+        assertThat(store.segmentCount()).isGreaterThan(1);
+        assertThat(store.nextSequence()).isEqualTo(200);
+
+        assertThat(store.query(new AuditQuery(START.plusSeconds(50), START.plusSeconds(60), null, null, null, 100)))
+                .extracting(AuditLogEntry::sequence)
+                .containsExactly(50L, 51L, 52L, 53L, 54L, 55L, 56L, 57L, 58L, 59L);
+        assertThat(store.query(new AuditQuery(null, null, "alice", null, 500, 100)))
+                .extracting(AuditLogEntry::sequence)
+                .containsExactly(0L, 10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L, 110L, 120L, 130L, 140L, 150L, 160L, 170L, 180L, 190L);
+        assertThat(store.query(new AuditQuery(null, null, null, "/api/v1/users/19", null, 3)))
+                .extracting(AuditLogEntry::path)
+                .containsExactly("/api/v1/users/197", "/api/v1/users/198", "/api/v1/users/199");
+    }
+
+    @Test
+    void recoversEntriesAndSequenceAfterReopen() throws IOException {
+        AuditLogStore store = new AuditLogStore(settings());
+        for (int i = 0; i < 120; i++) {
+            store.append(entry(i, "alice", 200));
+        }
+        store.close();
+
+        AuditLogStore reopened = new AuditLogStore(settings());
+        assertThat(reopened.nextSequence()).isEqualTo(120);
+        reopened.append(entry(120, "bob", 201));
+
+        assertThat(reopened.query(new AuditQuery(null, null, null, null, null, 2)))
+                .extracting(AuditLogEntry::sequence, AuditLogEntry::user, AuditLogEntry::durationMicros)
+                .containsExactly(tuple(119L, "alice", 1190L), tuple(120L, "bob", 1200L));
+    }
+
+    @Test
+    void dropsSegmentsOlderThanMaxAge() throws IOException {
+        AuditLogStore store = new AuditLogStore(settings());
+        for (int i = 0; i < 200; i++) {
+            store.append(entry(i, "alice", 200));
+        }
+        int before = store.segmentCount();
+
+        store.enforceRetention(START.plusSeconds(150).plus(Duration.ofHours(1)));
+
+        assertThat(store.segmentCount()).isLessThan(before);
+        assertThat(store.query(new AuditQuery(null, null, null, null, null, 1000)))
+                .extracting(AuditLogEntry::sequence)
+                .doesNotContain(0L)
+                .contains(199L);
+    }
+
+    private AuditLogProperties.Store settings() {
+        AuditLogProperties.Store settings = new AuditLogProperties.Store();
+        settings.setEnabled(true);
+        settings.setDirectory(directory);
+        settings.setSegmentSize(DataSize.ofKilobytes(4));
+        settings.setMaxAge(Duration.ofHours(1));
+        settings.setIndexInterval(8);
+        return settings;
+    }
+
+    private static AuditLogEntry entry(long sequence, String user, int status) {
+        return new AuditLogEntry(sequence, START.plusSeconds(sequence), "GET", "/api/v1/users/" + sequence, user, status, sequence * 10);
+    }
+}
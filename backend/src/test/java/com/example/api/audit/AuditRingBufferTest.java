@@ -0,0 +1,110 @@
+package com.example.api.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void keepsMostRecentEntriesInOrder() {
+        AuditRingBuffer ring = new AuditRingBuffer(3);
+        for (int i = 0; i < 5; i++) {
+            add(ring, "/" + i);
+        }
+
+        assertThat(ring.snapshot()).extracting(AuditLogEntry::path).containsExactly("/2", "/3", "/4");
+    }
+
+    @Test
+    void staleWriterDoesNotOverwriteNewerEntry() {
+        AuditRingBuffer ring = new AuditRingBuffer(2);
+        long stalled = ring.claim();
+        add(ring, "/1");
+        add(ring, "/2");
+
+        ring.publish(entry(stalled, "/stale"));
+
+        assertThat(ring.snapshot()).extracting(AuditLogEntry::path).containsExactly("/1", "/2");
+    }
+
+    @Test
+    void snapshotsStayOrderedUnderConcurrentWriters() throws Exception {
+        AuditRingBuffer ring = new AuditRingBuffer(1000);
+        int writers = 8;
+        int perWriter = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writerResults = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                writerResults.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        add(ring, "/users");
+                    }
+                    return null;
+                }));
+            }
+            Future<Integer> reader = executor.submit(() -> {
+                start.await();
+                int snapshots = 0;
+                while (writing.get()) {
+                    assertStrictlyIncreasing(ring.snapshot());
+                    snapshots++;
+                }
+                return snapshots;
+            });
+            start.countDown();
+            for (Future<?> result : writerResults) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            assertThat(reader.get(30, TimeUnit.SECONDS)).isPositive();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<AuditLogEntry> last = ring.snapshot();
+        assertThat(last).hasSize(1000);
+        assertThat(last.get(999).sequence()).isEqualTo(writers * perWriter - 1);
+        assertStrictlyIncreasing(last);
+    }
+
+    @Test
+    void readSkipsSequencesOlderThanTheRing() {
+        AuditRingBuffer ring = new AuditRingBuffer(8, 10);
+        add(ring, "/10");
+        List<AuditLogEntry> read = new ArrayList<>();
+
+        long next = ring.read(3, 100, read::add);
+
+        assertThat(read).extracting(AuditLogEntry::sequence).containsExactly(10L);
+        assertThat(next).isEqualTo(11);
+    }
+
+    private static void assertStrictlyIncreasing(List<AuditLogEntry> entries) {
+        for (int i = 1; i < entries.size(); i++) {
+            assertThat(entries.get(i).sequence()).isGreaterThan(entries.get(i - 1).sequence());
+        }
+    }
+
+    private static void add(AuditRingBuffer ring, String path) {
+        ring.publish(entry(ring.claim(), path));
+    }
+
+    private static AuditLogEntry entry(long sequence, String path) {
+        return new AuditLogEntry(sequence, Instant.now(), "GET", path, "tester", 200, 1000);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.api.audit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording a request into the per-minute rollups from four request threads, spread over
+ * {@code principals} callers, and of querying the last hour and the full 24 hours of rollups
+ * filled with 500 requests per minute.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditRollupsBenchmark {
+
+    private static final String[] ROUTES = {"/api/v1/users", "/api/v1/users/{id}", "/api/v1/users/search", "/api/v1/audit"};
+    private static final int[] STATUSES = {200, 200, 200, 201, 204, 304, 404, 429, 500};
+
+    @Param({"10", "10000"})
+    public int principals;
+
+    private AuditRollups rollups;
+    private String[] users;
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        rollups = new AuditRollups(new AuditLogProperties().getRollups());
+        users = new String[principals];
+        for (int i = 0; i < principals; i++) {
+            users[i] = "user-" + i;
+        }
+        now = Instant.now();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            Instant timestamp = now.minus(Duration.ofMinutes(minute));
+            for (int i = 0; i < 500; i++) {
+                rollups.record(timestamp, "GET", ROUTES[random.nextInt(ROUTES.length)],
+                        users[random.nextInt(principals)], STATUSES[random.nextInt(STATUSES.length)]);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        rollups.record(Instant.now(), "GET", ROUTES[random.nextInt(ROUTES.length)],
+                users[random.nextInt(principals)], STATUSES[random.nextInt(STATUSES.length)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AuditRollupReport queryLastHour() {
+        return rollups.query(now.minus(Duration.ofHours(1)), now, 10, now);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AuditRollupReport queryLastDay() {
+        return rollups.query(now.minus(Duration.ofMinutes(24 * 60 - 1)), now, 10, now);
+    }
+}
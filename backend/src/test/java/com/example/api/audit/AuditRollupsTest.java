@@ -0,0 +1,86 @@
+package com.example.api.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditRollupsTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:30Z");
+
+    private final AuditLogProperties.Rollups settings = new AuditLogProperties().getRollups();
+
+    @Test
+    void countsRequestsPerRouteStatusClassPrincipalAndMinute() {
+        AuditRollups rollups = new AuditRollups(settings);
+        rollups.record(Instant.parse("2026-01-01T11:30:00Z"), "GET", "/api/v1/users/{id}", "alice", 200);
+        rollups.record(Instant.parse("2026-01-01T11:58:10Z"), "GET", "/api/v1/users/{id}", "alice", 200);
+        rollups.record(Instant.parse("2026-01-01T11:59:20Z"), "GET", "/api/v1/users/{id}", "bob", 404);
+        rollups.record(Instant.parse("2026-01-01T11:59:50Z"), "POST", "/api/v1/users", "alice", 500);
+        rollups.record(Instant.parse("2026-01-01T12:00:05Z"), "GET", "/api/v1/users/{id}", "alice", 204);
+
+        AuditRollupReport report = rollups.query(Instant.parse("2026-01-01T11:58:30Z"), NOW, 10, NOW);
+
+        assertThat(report.from()).isEqualTo(Instant.parse("2026-01-01T11:58:00Z"));
+        assertThat(report.to()).isEqualTo(Instant.parse("2026-01-01T12:01:00Z"));
+        assertThat(report.requests()).isEqualTo(4);
+        assertThat(report.statuses()).containsExactly(Map.entry("2xx", 2L), Map.entry("4xx", 1L), Map.entry("5xx", 1L));
+        assertThat(report.routes()).containsExactly(
+                new AuditRollupReport.RouteRollup("GET", "/api/v1/users/{id}", 3, Map.of("2xx", 2L, "4xx", 1L)),
+                new AuditRollupReport.RouteRollup("POST", "/api/v1/users", 1, Map.of("5xx", 1L)));
+        assertThat(report.principals()).containsExactly(
+                new AuditRollupReport.PrincipalRollup("alice", 3, 0, Map.of("2xx", 2L, "5xx", 1L)),
+                new AuditRollupReport.PrincipalRollup("bob", 1, 0, Map.of("4xx", 1L)));
+        assertThat(report.minutes()).extracting(AuditRollupReport.MinuteRollup::requests).containsExactly(1L, 2L, 1L);
+    }
+
+    @Test
+    void keepsHeavyHittersAndRoutesBounded() {
+        settings.setTrackedPrincipals(10);
+        settings.setMaxRoutes(2);
+        AuditRollups rollups = new AuditRollups(settings);
+        Instant minute = NOW.minusSeconds(10);
+        for (int i = 0; i < 1000; i++) {
+            rollups.record(minute, "GET", "/route/" + (i % 4), "caller-" + i, 200);
+            if (i % 5 == 0) {
+                rollups.record(minute, "GET", "/route/0", "heavy", 429);
+            }
+        }
+
+        AuditRollupReport report = rollups.query(minute, NOW, 3, NOW);
+
+        assertThat(report.requests()).isEqualTo(1200);
+        assertThat(report.routes()).extracting(AuditRollupReport.RouteRollup::route)
+                .containsExactlyInAnyOrder("/route/0", "/route/1", AuditRollups.OTHER_ROUTE);
+        assertThat(report.principals()).hasSize(3);
+        AuditRollupReport.PrincipalRollup heavy = report.principals().get(0);
+        assertThat(heavy.user()).isEqualTo("heavy");
+        assertThat(heavy.requests()).isGreaterThanOrEqualTo(200);
+        assertThat(heavy.requests() - heavy.maxOverestimate()).isLessThanOrEqualTo(200);
+    }
+
+    @Test
+    void coversOnlyTheRetention() {
+        settings.setRetention(Duration.ofHours(1));
+        AuditRollups rollups = new AuditRollups(settings);
+        rollups.record(NOW.minus(Duration.ofHours(1)), "GET", "/api/v1/users", "alice", 200);
+        rollups.record(NOW, "GET", "/api/v1/users", "alice", 200);
+        rollups.record(NOW.minus(Duration.ofHours(1)), "GET", "/api/v1/users", "late", 200);
+
+        assertThat(rollups.query(NOW.minus(Duration.ofMinutes(59)), NOW, 10, NOW).principals())
+                .extracting(AuditRollupReport.PrincipalRollup::user)
+                .containsExactly("alice");
+        assertThatThrownBy(() -> rollups.query(NOW.minus(Duration.ofHours(2)), NOW, 10, NOW))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> rollups.query(NOW, NOW.minusSeconds(60), 10, NOW))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.api.audit;
+
+import com.example.api.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class AuditStoreWriterTest {
+
+    @Test
+    void keepsWritingWhenFlushOrRetentionFails() throws IOException {
+        AuditLogProperties properties = new AuditLogProperties();
+        properties.getStore().setFlushInterval(Duration.ofMillis(20));
+        AuditLogStore store = mock(AuditLogStore.class);
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(store).flush();
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(store).enforceRetention(any());
+        AuditLogService auditLogService = new AuditLogService(properties, Optional.empty());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditStoreWriter writer = new AuditStoreWriter(auditLogService, store, properties, meterRegistry, new WorkerThreads(false));
+
+        writer.start();
+        try {
+            verify(store, timeout(2000).atLeast(2)).flush();
+            auditLogService.addEvent("GET", "/api/v1/users/1", "/api/v1/users/{id}", "alice", 200, 120);
+
+            verify(store, timeout(2000)).append(any());
+            assertThat(writer.isRunning()).isTrue();
+        } finally {
+            writer.stop();
+        }
+        assertThat(meterRegistry.get("audit.store.failed").counter().count()).isGreaterThanOrEqualTo(4);
+        assertThat(meterRegistry.get("audit.store.appended").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.api.audit;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditTailServiceTest {
+
+    private final AuditLogProperties properties = new AuditLogProperties();
+    private AuditTailService tailService;
+
+    @AfterEach
+    void tearDown() {
+        if (tailService != null) {
+            tailService.destroy();
+        }
+    }
+
+    @Test
+    void resumesAfterSequenceAndPushesNewEntries() throws Exception {
+        AuditLogService auditLogService = service();
+        for (int i = 0; i < 3; i++) {
+            auditLogService.addEvent("GET", "/api/v1/users/" + i, "/api/v1/users/{id}", "alice", 200, 1500);
+        }
+        StringBuffer received = new StringBuffer();
+
+        tailService.start(AuditTailFormat.SSE, 0L, chunk -> received.append(new String(chunk)), () -> { });
+        await(() -> received.toString().contains("id: 2\n"));
+        auditLogService.addEvent("DELETE", "/api/v1/users/1", "/api/v1/users/{id}", "alice", 204, 900);
+        await(() -> received.toString().contains("id: 3\n"));
+
+        assertThat(received.toString())
+                .doesNotContain("id: 0\n")
+                .contains("id: 1\nevent: audit\ndata: {\"sequence\":1,")
+                .contains("\"method\":\"DELETE\"")
+                .doesNotContain("event: gap");
+    }
+
+    @Test
+    void skipsSlowSubscriberAheadAndReportsGap() throws Exception {
+        properties.getTail().setMaxLag(4);
+        AuditLogService auditLogService = service();
+        auditLogService.addEvent("GET", "/api/v1/users", "/api/v1/users", "alice", 200, 1500);
+        CountDownLatch firstWrite = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StringBuffer received = new StringBuffer();
+
+        tailService.start(AuditTailFormat.NDJSON, -1L, chunk -> {
+            received.append(new String(chunk));
+            firstWrite.countDown();
+            block(release);
+        }, () -> { });
+        assertThat(firstWrite.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 20; i++) {
+            auditLogService.addEvent("GET", "/api/v1/users", "/api/v1/users", "bob", 200, 1500);
+        }
+        release.countDown();
+        await(() -> received.toString().contains("\"sequence\":20,"));
+
+        assertThat(received.toString().lines().filter(line -> !line.isEmpty()))
+                .containsSubsequence("{\"gap\":{\"from\":1,\"to\":17}}")
+                .hasSize(6);
+    }
+
+    @Test
+    void disconnectsSlowSubscriberWhenConfigured() throws Exception {
+        properties.getTail().setMaxLag(4);
+        properties.getTail().setSlowConsumerPolicy(AuditLogProperties.SlowConsumerPolicy.DISCONNECT);
+        AuditLogService auditLogService = service();
+        auditLogService.addEvent("GET", "/api/v1/users", "/api/v1/users", "alice", 200, 1500);
+        CountDownLatch firstWrite = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch ended = new CountDownLatch(1);
+        StringBuffer received = new StringBuffer();
+
+        tailService.start(AuditTailFormat.NDJSON, -1L, chunk -> {
+            received.append(new String(chunk));
+            firstWrite.countDown();
+            block(release);
+        }, ended::countDown);
+        assertThat(firstWrite.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 20; i++) {
+            auditLogService.addEvent("GET", "/api/v1/users", "/api/v1/users", "bob", 200, 1500);
+        }
+        release.countDown();
+
+        assertThat(ended.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received.toString().lines()).hasSize(1);
+    }
+
+    private AuditLogService service() {
+        properties.setCapacity(64);
+        properties.getTail().setPollInterval(Duration.ofMillis(5));
+        AuditLogService auditLogService = new AuditLogService(properties, Optional.empty());
+        tailService = new AuditTailService(auditLogService, new ObjectMapper().findAndRegisterModules(),
+                properties, new SimpleMeterRegistry(), new WorkerThreads(false));
+        return auditLogService;
+    }
+
+    private static void block(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 5s").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
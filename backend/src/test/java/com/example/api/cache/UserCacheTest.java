@@ -0,0 +1,124 @@
+package com.example.api.cache;
+
+import com.example.api.model.User;
+import com.example.api.model.UserPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserCache cache;
+    private User stored;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(new UserCacheProperties(), objectMapper, new SimpleMeterRegistry());
+        stored = new User("jsmith", "jsmith@example.com", "ADMIN");
+        stored.setId(1L);
+        stored.setVersion(0L);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void servesRepeatedReadsFromCache() {
+        CachedUser first = cache.get(1L, this::load);
+        CachedUser second = cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(first.user()).isNotSameAs(stored);
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void invalidationReloadsAndChangesEtag() {
+        CachedUser before = cache.get(1L, this::load);
+        stored.setEmail("john.smith@example.com");
+        stored.setVersion(1L);
+        cache.invalidate(1L);
+
+        CachedUser after = cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(after.user().getEmail()).isEqualTo("john.smith@example.com");
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void missingUsersAreNotCached() {
+        assertThat(cache.get(2L, this::load)).isNull();
+        assertThat(cache.get(2L, this::load)).isNull();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void holdsEncodedJsonAndGzipsOnlyLargeRepresentations() throws IOException {
+        CachedUser user = cache.get(1L, this::load);
+        assertThat(objectMapper.readValue(user.json().identity(), User.class).getUsername()).isEqualTo("jsmith");
+        assertThat(user.json().hasGzip()).isFalse();
+
+        CachedPage page = cache.getPage(0, 100, () -> page(1, 100, null));
+        assertThat(page.json().hasGzip()).isTrue();
+        assertThat(page.json().gzip().length).isLessThan(page.json().identity().length);
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(page.json().gzip()))) {
+            assertThat(gunzip.readAllBytes()).isEqualTo(page.json().identity());
+        }
+    }
+
+    @Test
+    void writesRetireCachedPages() {
+        CachedPage first = cache.getPage(0, 10, () -> page(1, 10, 10L));
+        CachedPage last = cache.getPage(10, 10, () -> page(11, 15, null));
+        assertThat(cache.getPage(0, 10, () -> page(1, 10, 10L))).isSameAs(first);
+
+        cache.invalidate(12L);
+        CachedPage reloaded = cache.getPage(0, 10, () -> page(1, 10, 10L));
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(cache.getPage(0, 10, () -> page(1, 10, 10L))).isSameAs(reloaded);
+
+        cache.invalidateAll(List.of(3L, 100L));
+        assertThat(cache.getPage(0, 10, () -> page(1, 10, 10L))).isNotSameAs(reloaded);
+        assertThat(cache.getPage(10, 10, () -> page(11, 15, null))).isNotSameAs(last);
+    }
+
+    @Test
+    void pageLoadedWhileAWriteCommitsIsNotServedAfterIt() {
+        CachedPage loadedDuringWrite = cache.getPage(0, 10, () -> {
+            UserPage page = page(1, 10, 10L);
+            cache.invalidate(5L);
+            return page;
+        });
+
+        CachedPage next = cache.getPage(0, 10, () -> page(1, 10, 10L));
+
+        assertThat(next).isNotSameAs(loadedDuringWrite);
+        assertThat(cache.getPage(0, 10, () -> page(1, 10, 10L))).isSameAs(next);
+    }
+
+    private static UserPage page(long fromId, long toId, Long next) {
+        return new UserPage(LongStream.rangeClosed(fromId, toId).mapToObj(id -> {
+            User user = new User("user" + id, "user" + id + "@example.com", "USER");
+            user.setId(id);
+            return user;
+        }).toList(), next);
+    }
+
+    private Optional<User> load(Long id) {
+        loads.incrementAndGet();
+        return id.equals(stored.getId()) ? Optional.of(stored) : Optional.empty();
+    }
+}
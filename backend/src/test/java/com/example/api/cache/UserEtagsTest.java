@@ -0,0 +1,24 @@
+package com.example.api.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserEtagsTest {
+
+    @Test
+    void ifMatchNamesTheVersionOfAnyVariant() {
+        assertThat(UserEtags.version(UserEtags.of(42))).isEqualTo(42L);
+        assertThat(UserEtags.version(" \"42-gzip\" ")).isEqualTo(42L);
+        assertThat(UserEtags.version("\"42;username,role\"")).isEqualTo(42L);
+    }
+
+    @Test
+    void weakMultipleAndForeignEtagsNameNoVersion() {
+        assertThat(UserEtags.version("W/\"42\"")).isNull();
+        assertThat(UserEtags.version("\"41\", \"42\"")).isNull();
+        assertThat(UserEtags.version("*")).isNull();
+        assertThat(UserEtags.version("\"7b386ce5878ed10f\"")).isNull();
+        assertThat(UserEtags.version("\"99999999999999999999\"")).isNull();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.api.cache;
+
+import com.example.api.model.User;
+import com.example.api.model.UserPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Cost of producing the response body for {@code GET /users/{id}} and a 100-user page of
+ * {@code GET /users}: serializing with Jackson on every request versus a hit in {@link UserCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonCacheBenchmark {
+
+    private ObjectMapper objectMapper;
+    private UserCache cache;
+    private User user;
+    private UserPage page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cache = new UserCache(new UserCacheProperties(), objectMapper, new SimpleMeterRegistry());
+        user = user(4242L);
+        page = new UserPage(LongStream.rangeClosed(1, 100).mapToObj(UserJsonCacheBenchmark::user).toList(), 100L);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] cachedUser() {
+        return cache.get(user.getId(), id -> Optional.of(user)).json().identity();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cachedPage() {
+        return cache.getPage(0, 100, () -> page).json().identity();
+    }
+
+    @Benchmark
+    public byte[] cachedPageGzip() {
+        return cache.getPage(0, 100, () -> page).json().gzip();
+    }
+
+    private static User user(long id) {
+        User user = new User("user" + id, "user" + id + "@example.com", "USER");
+        user.setId(id);
+        user.setVersion(0L);
+        return user;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.api.changes;
+
+import com.example.api.model.User;
+import com.example.api.model.UserChange;
+import com.example.api.model.UserTombstone;
+import com.example.api.repository.UserRepository;
+import com.example.api.repository.UserTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserChangeFeedTest {
+
+    private static final OffsetDateTime SETTLED = OffsetDateTime.now().minusMinutes(5);
+
+    private final List<User> users = new ArrayList<>();
+    private final List<UserTombstone> tombstones = new ArrayList<>();
+    private final UserTombstoneRepository tombstoneRepository = mock(UserTombstoneRepository.class);
+    private final UserChangeProperties properties = new UserChangeProperties();
+    private UserChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.streamChangedAfter(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long seq = invocation.getArgument(0);
+            long id = invocation.getArgument(1);
+            return users.stream().filter(user -> user.getChangeSeq() > seq || (user.getChangeSeq() == seq && user.getId() > id));
+        });
+        when(tombstoneRepository.streamChangedAfter(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long seq = invocation.getArgument(0);
+            long id = invocation.getArgument(1);
+            return tombstones.stream().filter(t -> t.getChangeSeq() > seq || (t.getChangeSeq() == seq && t.getUserId() > id));
+        });
+        feed = new UserChangeFeed(userRepository, tombstoneRepository, mock(EntityManager.class), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void mergesUpdatesAndDeletesInChangeOrder() {
+        users.add(user(5, 3, SETTLED));
+        users.add(user(1, 5, SETTLED));
+        users.add(user(2, 5, SETTLED));
+        tombstones.add(new UserTombstone(7L, 4L, SETTLED));
+        tombstones.add(new UserTombstone(3L, 5L, SETTLED));
+        String since = new ChangeToken(2, 9, System.currentTimeMillis()).toString();
+
+        List<UserChange> changes = poll(since, 100);
+
+        assertThat(changes).extracting(UserChange::op, UserChange::seq, UserChange::id).containsExactly(
+                tuple("upsert", 3L, 5L),
+                tuple("delete", 4L, 7L),
+                tuple("upsert", 5L, 1L),
+                tuple("upsert", 5L, 2L),
+                tuple("delete", 5L, 3L),
+                tuple("checkpoint", null, null));
+        assertThat(changes.get(5).more()).isFalse();
+        assertThat(ChangeToken.parse(changes.get(5).next())).satisfies(next -> {
+            assertThat(next.seq()).isEqualTo(5);
+            assertThat(next.id()).isEqualTo(3);
+        });
+        assertThat(poll(changes.get(5).next(), 100)).extracting(UserChange::op).containsExactly("checkpoint");
+    }
+
+    @Test
+    void pagesByLimitAndHoldsBackUnsettledChanges() {
+        properties.setSettleDelay(Duration.ofMinutes(1));
+        users.add(user(1, 1, SETTLED));
+        users.add(user(2, 2, SETTLED));
+        users.add(user(3, 3, OffsetDateTime.now()));
+
+        List<UserChange> first = poll(null, 1);
+        assertThat(first).extracting(UserChange::op, UserChange::id).containsExactly(tuple("upsert", 1L), tuple("checkpoint", null));
+        assertThat(first.get(1).more()).isTrue();
+
+        List<UserChange> second = poll(first.get(1).next(), 10);
+        assertThat(second).extracting(UserChange::op, UserChange::id).containsExactly(tuple("upsert", 2L), tuple("checkpoint", null));
+        assertThat(second.get(1).more()).isFalse();
+    }
+
+    @Test
+    void fullSyncSkipsTombstones() {
+        users.add(user(1, 1, SETTLED));
+        tombstones.add(new UserTombstone(2L, 2L, SETTLED));
+
+        assertThat(poll("", 10)).extracting(UserChange::op).containsExactly("upsert", "checkpoint");
+        verify(tombstoneRepository, never()).streamChangedAfter(anyLong(), anyLong());
+    }
+
+    @Test
+    void rejectsMalformedAndExpiredTokens() {
+        properties.setRetention(Duration.ofDays(1));
+        long expired = System.currentTimeMillis() - Duration.ofDays(2).toMillis();
+
+        assertThatThrownBy(() -> feed.start("not-a-token"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> feed.start(new ChangeToken(10, 1, expired).toString()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.GONE));
+    }
+
+    private List<UserChange> poll(String since, int limit) {
+        List<UserChange> changes = new ArrayList<>();
+        feed.stream(feed.start(since), limit, changes::add);
+        return changes;
+    }
+
+    private static User user(long id, long changeSeq, OffsetDateTime updatedAt) {
+        User user = new User("user" + id, "user" + id + "@example.com", "USER");
+        user.setId(id);
+        user.setChangeSeq(changeSeq);
+        user.setUpdatedAt(updatedAt);
+        return user;
+    }
+}
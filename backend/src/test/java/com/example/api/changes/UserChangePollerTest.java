@@ -0,0 +1,100 @@
+package com.example.api.changes;
+
+import com.example.api.cache.UserCache;
+import com.example.api.cache.UserCacheProperties;
+import com.example.api.concurrent.WorkerThreads;
+import com.example.api.model.User;
+import com.example.api.model.UserChange;
+import com.example.api.model.UserTombstone;
+import com.example.api.search.UserSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserChangePollerTest {
+
+    private final UserChangeFeed feed = mock(UserChangeFeed.class);
+    private final List<User> stored = new ArrayList<>();
+    private final UserSearchIndex index = new UserSearchIndex(consumer -> stored.forEach(consumer), 100,
+            new SimpleMeterRegistry(), new WorkerThreads(false));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserCache userCache = new UserCache(new UserCacheProperties(), new ObjectMapper(), meterRegistry);
+    private final UserChangePoller poller = new UserChangePoller(feed, index, userCache, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void appliesWritesMadeOnOtherPodsFromTheLoadedPosition() {
+        userCache.get(1L, id -> Optional.of(user(1, "alice", 7, 0)));
+        userCache.get(5L, id -> Optional.of(user(5, "erin", 3, 0)));
+        ChangeToken head = new ChangeToken(7, Long.MAX_VALUE, 1_000);
+        when(feed.head()).thenReturn(head);
+        stored.add(user(1, "alice", 7, 0));
+        stored.add(user(2, "bob", 5, 0));
+        poller.poll();
+        poller.start();
+        assertThat(index.search(null, null, null, 10).total()).isEqualTo(2);
+
+        ChangeToken middle = new ChangeToken(9, 3, 2_000);
+        feed(head, List.of(UserChange.upsert(user(1, "alicia", 8, 1)), UserChange.upsert(user(3, "carol", 9, 0)),
+                UserChange.checkpoint(middle.toString(), true)));
+        feed(middle, List.of(UserChange.delete(new UserTombstone(2L, 10L, OffsetDateTime.now())),
+                UserChange.checkpoint(new ChangeToken(10, 2, 3_000).toString(), false)));
+
+        poller.poll();
+
+        assertThat(index.search(null, null, null, 10).items()).extracting(User::getUsername).containsExactly("alicia", "carol");
+        assertThat(userCache.getIfPresent(1L)).isNull();
+        assertThat(userCache.getIfPresent(5L)).isNotNull();
+        assertThat(poller.position()).isEqualTo(new ChangeToken(10, 2, 3_000));
+        assertThat(meterRegistry.get("users.changes.sync.applied").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void failedPollKeepsThePositionForTheNextOne() {
+        ChangeToken head = new ChangeToken(7, Long.MAX_VALUE, 1_000);
+        when(feed.head()).thenReturn(head);
+        poller.start();
+        doThrow(new IllegalStateException("primary unavailable")).when(feed).stream(eq(head), anyInt(), any());
+
+        poller.poll();
+
+        assertThat(poller.position()).isEqualTo(head);
+        assertThat(meterRegistry.get("users.changes.sync.failed").counter().count()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void feed(ChangeToken from, List<UserChange> changes) {
+        doAnswer(invocation -> {
+            changes.forEach(invocation.<Consumer<UserChange>>getArgument(2));
+            return null;
+        }).when(feed).stream(eq(from), anyInt(), any());
+    }
+
+    private static User user(long id, String username, long changeSeq, long version) {
+        User user = new User(username, username + "@example.com", "USER");
+        user.setId(id);
+        user.setChangeSeq(changeSeq);
+        user.setVersion(version);
+        return user;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.api.concurrent;
+
+import com.example.api.ApiFirstApplication;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of {@code GET /api/v1/users/{id}} under more concurrent
+ * clients than Tomcat has platform threads, in the platform- and virtual-thread modes. A filter
+ * adds {@code downstreamLatencyMillis} of blocking to every request to stand in for a slow
+ * downstream such as Service Bus; with platform threads requests queue behind the
+ * {@code tomcatThreads} pool, with virtual threads they do not. The virtual mode needs Java 21.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=RequestThreadingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RequestThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"64"})
+    public int tomcatThreads;
+
+    @Param({"50"})
+    public int downstreamLatencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void start() {
+        boolean virtual = threads.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21, running on " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(ApiFirstApplication.class, SlowDownstream.class).run(
+                "--server.port=0",
+                "--azure.activedirectory.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--app.audit.store.enabled=false",
+                "--logging.level.com.example.api=WARN",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--benchmark.downstream-latency=" + downstreamLatencyMillis);
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                + context.getEnvironment().getProperty("local.server.port") + "/api/v1/users/1")).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUser() throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/v1/users/1 returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    // Registered as a source rather than @Configuration so component scanning never picks it up.
+    static class SlowDownstream {
+
+        @Bean
+        FilterRegistrationBean<Filter> downstreamLatency(@Value("${benchmark.downstream-latency}") long millis) {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                chain.doFilter(request, response);
+            });
+            registration.addUrlPatterns("/api/v1/users/*");
+            return registration;
+        }
+    }
+}
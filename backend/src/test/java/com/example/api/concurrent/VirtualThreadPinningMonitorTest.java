@@ -0,0 +1,58 @@
+package com.example.api.concurrent;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private VirtualThreadPinningMonitor monitor;
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void recordsBlockingInsideSynchronizedOnVirtualThread() throws Exception {
+        ThreadingProperties properties = new ThreadingProperties();
+        properties.getPinning().setThreshold(Duration.ofMillis(10));
+        monitor = new VirtualThreadPinningMonitor(properties, registry);
+        monitor.start();
+
+        Thread thread = new WorkerThreads(true).factory("pinned-").newThread(this::sleepWhileHoldingMonitor);
+        thread.start();
+        thread.join();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pinned() == null && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(pinned()).isNotNull();
+        assertThat(pinned().totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10);
+    }
+
+    private synchronized void sleepWhileHoldingMonitor() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Timer pinned() {
+        return registry.find("jvm.threads.virtual.pinned")
+                .tag("site", VirtualThreadPinningMonitorTest.class.getName() + ".sleepWhileHoldingMonitor")
+                .timer();
+    }
+}
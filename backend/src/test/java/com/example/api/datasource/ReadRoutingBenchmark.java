@@ -0,0 +1,81 @@
+package com.example.api.datasource;
+
+import com.example.api.BenchmarkApplication;
+import com.example.api.model.UserPage;
+import com.example.api.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput of {@link UserService#findPage} with the user caches off, reading from the
+ * primary alone and spread over {@code replicas} read pools. The replicas are extra pools on the
+ * same embedded H2 database, so the numbers show routing overhead and pool fan-out rather than the
+ * capacity a real replica adds.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=ReadRoutingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ReadRoutingBenchmark {
+
+    private static final long FIRST_ID = 1_000;
+    private static final int USERS = 10_000;
+
+    @Param({"0", "2"})
+    public int replicas;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> args = new ArrayList<>(List.of(
+                "--app.cache.users.maximum-bytes=0",
+                "--app.cache.users.page-maximum-bytes=0"));
+        for (int i = 0; i < replicas; i++) {
+            args.add("--app.datasource.replicas[" + i + "].url=jdbc:h2:mem:demo");
+            args.add("--app.datasource.replicas[" + i + "].username=sa");
+            args.add("--app.datasource.replicas[" + i + "].password=password");
+        }
+        context = BenchmarkApplication.start(args.toArray(String[]::new));
+        userService = context.getBean(UserService.class);
+        BenchmarkApplication.seedUsers(context.getBean(JdbcTemplate.class), FIRST_ID, USERS);
+        context.getBean(ReadWriteRoutingDataSource.class).checkReplicas();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserPage findPage() {
+        return userService.findPage(FIRST_ID + ThreadLocalRandom.current().nextInt(USERS), 20);
+    }
+}
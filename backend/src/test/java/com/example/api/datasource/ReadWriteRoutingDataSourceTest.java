@@ -0,0 +1,198 @@
+package com.example.api.datasource;
+
+import com.example.api.cache.UserCache;
+import com.example.api.cache.UserCacheProperties;
+import com.example.api.messaging.UserEventPublisher;
+import com.example.api.model.User;
+import com.example.api.repository.UserRepository;
+import com.example.api.search.UserSearchIndex;
+import com.example.api.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSourceRoutingProperties properties = new DataSourceRoutingProperties();
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private DataSource primary;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replicas.put("replica-0", database("replica-0"));
+        replicas.put("replica-1", database("replica-1"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoRoundRobinOverReplicas() {
+        start();
+
+        assertThat(read()).isEqualTo("replica-0");
+        assertThat(read()).isEqualTo("replica-1");
+        assertThat(read()).isEqualTo("replica-0");
+        assertThat(write()).isEqualTo("primary");
+        assertThat(jdbc.queryForObject("select name from node", String.class)).isEqualTo("primary");
+        assertThat(meterRegistry.get("db.routing.connections").tags("target", "replica-1", "reason", "read").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void principalReadsItsOwnWritesFromThePrimaryWithinTheWindow() throws InterruptedException {
+        properties.setReadYourWritesWindow(Duration.ofMillis(200));
+        start();
+
+        as("alice");
+        write();
+        assertThat(read()).isEqualTo("primary");
+        as("bob");
+        assertThat(read()).startsWith("replica-");
+
+        Thread.sleep(300);
+        as("alice");
+        assertThat(read()).startsWith("replica-");
+    }
+
+    @Test
+    void unhealthyReplicasAreSkippedUntilTheyRecover() {
+        FlakyDataSource flaky = new FlakyDataSource(replicas.get("replica-1"));
+        replicas.put("replica-1", flaky);
+        start();
+
+        flaky.down = true;
+        routing.checkReplicas();
+        assertThat(read()).isEqualTo("replica-0");
+        assertThat(read()).isEqualTo("replica-0");
+        assertThat(meterRegistry.get("db.routing.replicas.healthy").gauge().value()).isEqualTo(1);
+
+        flaky.down = false;
+        routing.checkReplicas();
+        assertThat(read()).isEqualTo("replica-1");
+
+        // A refused connection takes the replica out before the next health check.
+        flaky.down = true;
+        assertThat(read()).isEqualTo("replica-0");
+        assertThat(read()).isEqualTo("replica-0");
+    }
+
+    @Test
+    void cacheMissesAreFilledFromThePrimaryWhileReplicasLag() {
+        start();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(1L)).thenAnswer(invocation -> readOnly.execute(status -> {
+            User user = new User(jdbc.queryForObject("select name from node", String.class), "jdoe@example.com", "USER");
+            user.setId(1L);
+            user.setVersion(jdbc.queryForObject("select writes from node", Long.class));
+            return Optional.of(user);
+        }));
+        UserService userService = new UserService(userRepository, mock(UserEventPublisher.class), mock(EntityManager.class),
+                new UserCache(new UserCacheProperties(), new ObjectMapper(), meterRegistry), mock(UserSearchIndex.class));
+
+        // The write reaches the primary only; both replicas keep serving the old row.
+        as("alice");
+        write();
+        as("bob");
+        assertThat(read()).startsWith("replica-");
+
+        User cached = userService.findById(1L);
+
+        assertThat(cached.getUsername()).isEqualTo("primary");
+        assertThat(cached.getVersion()).isEqualTo(1L);
+        assertThat(meterRegistry.get("db.routing.connections").tags("reason", "primary-read").counter().count()).isEqualTo(1);
+        assertThat(read()).startsWith("replica-");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWithoutHealthyReplicas() {
+        replicas.clear();
+        start();
+
+        assertThat(read()).isEqualTo("primary");
+        assertThat(meterRegistry.get("db.routing.connections").tags("reason", "no-replica").counter().count()).isEqualTo(1);
+    }
+
+    private void start() {
+        routing = new ReadWriteRoutingDataSource(primary, replicas, properties, meterRegistry);
+        routing.checkReplicas();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private String read() {
+        return readOnly.execute(status -> jdbc.queryForObject("select name from node", String.class));
+    }
+
+    private String write() {
+        return readWrite.execute(status -> {
+            jdbc.update("update node set writes = writes + 1");
+            return jdbc.queryForObject("select name from node", String.class);
+        });
+    }
+
+    private static void as(String principal) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null, "ROLE_USER"));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table node (name varchar(32), writes int)");
+        jdbc.update("insert into node values (?, 0)", name);
+        return dataSource;
+    }
+
+    private static final class FlakyDataSource extends DelegatingDataSource {
+
+        volatile boolean down;
+
+        FlakyDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.api.messaging;
+
+import com.example.api.model.UserEventLease;
+import com.example.api.repository.UserEventLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lease table kept in memory, behind a mocked {@link UserEventLeaseRepository}, shared by every
+ * {@link LeaseHolder} it hands out.
+ */
+class InMemoryLeases {
+
+    private final Map<String, UserEventLease> leases = new ConcurrentHashMap<>();
+    private final UserEventLeaseRepository repository = mock(UserEventLeaseRepository.class);
+
+    InMemoryLeases() {
+        when(repository.extend(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            synchronized (leases) {
+                UserEventLease lease = leases.get(invocation.<String>getArgument(0));
+                if (lease == null || !(lease.getHolder().equals(invocation.getArgument(1))
+                        || lease.getExpiresAt().isBefore(invocation.getArgument(3)))) {
+                    return 0;
+                }
+                lease.setHolder(invocation.getArgument(1));
+                lease.setExpiresAt(invocation.getArgument(2));
+                return 1;
+            }
+        });
+        when(repository.existsById(anyString())).thenAnswer(invocation -> leases.containsKey(invocation.<String>getArgument(0)));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            UserEventLease lease = invocation.getArgument(0);
+            if (leases.putIfAbsent(lease.getName(), lease) != null) {
+                throw new DataIntegrityViolationException("Lease " + lease.getName() + " exists");
+            }
+            return lease;
+        });
+    }
+
+    LeaseHolder holder(String name) {
+        return new LeaseHolder(repository, name, Duration.ofMinutes(1));
+    }
+
+    void expireAll() {
+        synchronized (leases) {
+            leases.values().forEach(lease -> lease.setExpiresAt(OffsetDateTime.now().minusSeconds(1)));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Service Bus queue: the relay sends into it and the consumer receives
+ * from it. Received messages count as locked until they are completed or dead-lettered.
+ */
+class InMemoryUserEventQueue implements UserEventSender, UserEventSource {
+
+    private final LinkedBlockingQueue<Delivery> available = new LinkedBlockingQueue<>();
+    private final List<String> completed = new ArrayList<>();
+    private final List<String> deadLettered = new ArrayList<>();
+    private final AtomicInteger completeCalls = new AtomicInteger();
+
+    @Override
+    public void send(List<ServiceBusMessage> messages) {
+        messages.forEach(message -> available.add(new InMemoryDelivery(message.getMessageId(), message.getContentType(), message.getBody().toBytes())));
+    }
+
+    @Override
+    public List<Delivery> receive(int maxMessages, Duration maxWait) {
+        List<Delivery> deliveries = new ArrayList<>(maxMessages);
+        try {
+            Delivery first = available.poll(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            if (first != null) {
+                deliveries.add(first);
+                available.drainTo(deliveries, maxMessages - 1);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return deliveries;
+    }
+
+    @Override
+    public synchronized void complete(List<Delivery> deliveries) {
+        completeCalls.incrementAndGet();
+        deliveries.forEach(delivery -> completed.add(delivery.messageId()));
+    }
+
+    @Override
+    public synchronized void deadLetter(Delivery delivery, String reason) {
+        deadLettered.add(delivery.messageId());
+    }
+
+    synchronized List<String> completed() {
+        return List.copyOf(completed);
+    }
+
+    synchronized List<String> deadLettered() {
+        return List.copyOf(deadLettered);
+    }
+
+    synchronized int settled() {
+        return completed.size() + deadLettered.size();
+    }
+
+    int completeCalls() {
+        return completeCalls.get();
+    }
+
+    private record InMemoryDelivery(String messageId, String contentType, byte[] body) implements Delivery {
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for Service Bus that records every delivered message and can be told to fail
+ * the next sends.
+ */
+class InMemoryUserEventSender implements UserEventSender {
+
+    private final List<ServiceBusMessage> delivered = new ArrayList<>();
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+    private int sendCalls;
+
+    @Override
+    public synchronized void send(List<ServiceBusMessage> messages) {
+        sendCalls++;
+        if (failuresRemaining.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+            throw new IllegalStateException("Simulated Service Bus outage");
+        }
+        delivered.addAll(messages);
+    }
+
+    void failNext(int sends) {
+        failuresRemaining.set(sends);
+    }
+
+    synchronized List<ServiceBusMessage> delivered() {
+        return List.copyOf(delivered);
+    }
+
+    synchronized int sendCalls() {
+        return sendCalls;
+    }
+}
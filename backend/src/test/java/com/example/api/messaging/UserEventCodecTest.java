@@ -0,0 +1,60 @@
+package com.example.api.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserEventCodecTest {
+
+    private static final OffsetDateTime OCCURRED_AT = OffsetDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000, ZoneOffset.ofHours(2));
+    // Version 1, created, timestamp only: epoch millis 0 at an offset of 100000s, then three null strings.
+    static final byte[] OUT_OF_RANGE_OFFSET = {1, 1, 2, 0, (byte) 0xC0, (byte) 0x9A, 0x0C, 0, 0, 0};
+
+    @Test
+    void roundTripsEventsIncludingNullsAndNonAsciiText() {
+        UserEventPayload created = new UserEventPayload("USER_CREATED", 4242L, "jane.doe", "jane.doe@example.com", "USER", OCCURRED_AT);
+        UserEventPayload unicode = new UserEventPayload("USER_UPDATED", Long.MAX_VALUE, "Zo\u00eb \ud83d\ude00", "m\u00fcller@ex\u00e4mple.com", "\u7ba1\u7406\u8005", OCCURRED_AT);
+        UserEventPayload sparse = new UserEventPayload("USER_RENAMED", null, null, "", null, null);
+
+        assertThat(UserEventCodec.decode(UserEventCodec.encode(created))).isEqualTo(created);
+        assertThat(UserEventCodec.decode(UserEventCodec.encode(unicode))).isEqualTo(unicode);
+        assertThat(UserEventCodec.decode(UserEventCodec.encode(sparse))).isEqualTo(sparse);
+        assertThat(UserEventCodec.decode(UserEventCodec.encode(unicode)).username().getBytes(StandardCharsets.UTF_8))
+                .isEqualTo("Zo\u00eb \ud83d\ude00".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void isLessThanHalfTheSizeOfJson() throws Exception {
+        UserEventPayload event = new UserEventPayload("USER_CREATED", 4242L, "jane.doe", "jane.doe@example.com", "USER", OCCURRED_AT);
+        byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(event);
+
+        assertThat(UserEventCodec.encode(event).length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void rejectsUnknownVersionsAndTruncatedInput() {
+        byte[] encoded = UserEventCodec.encode(new UserEventPayload("USER_DELETED", 7L, "jsmith", "jsmith@example.com", "ADMIN", OCCURRED_AT));
+        byte[] future = encoded.clone();
+        future[0] = 2;
+
+        assertThatThrownBy(() -> UserEventCodec.decode(future)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UserEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 3))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UserEventCodec.decode(new byte[0])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOutOfRangeOffsetsAndTrailingBytes() {
+        byte[] encoded = UserEventCodec.encode(new UserEventPayload("USER_DELETED", 7L, "jsmith", "jsmith@example.com", "ADMIN", OCCURRED_AT));
+
+        assertThatThrownBy(() -> UserEventCodec.decode(OUT_OF_RANGE_OFFSET)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("offset");
+        assertThatThrownBy(() -> UserEventCodec.decode(Arrays.copyOf(encoded, encoded.length + 1))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.example.api.concurrent.WorkerThreads;
+import com.example.api.model.OutboxEvent;
+import com.example.api.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of {@link UserEventConsumer} draining {@code batch} events for 100 users from the
+ * in-memory queue into a read model that takes {@code projectionMicros} per event, modelling a
+ * write to an external store. Reported as events per second in the {@code events} secondary
+ * result.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=UserEventConsumerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class UserEventConsumerBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int partitions;
+
+    @Param({"0", "200"})
+    public int projectionMicros;
+
+    @Param({"2000"})
+    public int batch;
+
+    private InMemoryUserEventQueue queue;
+    private UserEventConsumer consumer;
+    private List<ServiceBusMessage> messages;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Events {
+
+        public long events;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ServiceBusProperties properties = new ServiceBusProperties();
+        properties.setEnabled(true);
+        properties.getConsumer().setPartitions(partitions);
+        UserEventPublisher publisher = new UserEventPublisher(properties, null, objectMapper);
+        messages = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "USER");
+            user.setId((long) (i % 100));
+            messages.add(publisher.toMessage(new OutboxEvent(UUID.randomUUID().toString(), "USER_UPDATED", user, OffsetDateTime.now())));
+        }
+        long projectionNanos = TimeUnit.MICROSECONDS.toNanos(projectionMicros);
+        queue = new InMemoryUserEventQueue();
+        consumer = new UserEventConsumer(queue, new InMemoryLeases().holder("consumer"), event -> {
+            if (projectionNanos > 0) {
+                LockSupport.parkNanos(projectionNanos);
+            }
+        }, objectMapper, properties, new SimpleMeterRegistry(), new WorkerThreads(false));
+        consumer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        consumer.close();
+    }
+
+    @Benchmark
+    public int drain(Events counter) {
+        int target = queue.settled() + batch;
+        // Each message gets a fresh id so the consumer's deduplication does not skip it.
+        List<ServiceBusMessage> fresh = new ArrayList<>(batch);
+        for (ServiceBusMessage message : messages) {
+            fresh.add(new ServiceBusMessage(message.getBody()).setMessageId(UUID.randomUUID().toString()));
+        }
+        queue.send(fresh);
+        while (queue.settled() < target) {
+            LockSupport.parkNanos(100_000);
+        }
+        counter.events += batch;
+        return target;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.example.api.concurrent.WorkerThreads;
+import com.example.api.model.OutboxEvent;
+import com.example.api.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserEventConsumerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final InMemoryUserEventQueue queue = new InMemoryUserEventQueue();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryLeases leases = new InMemoryLeases();
+    private ServiceBusProperties properties;
+    private UserEventPublisher publisher;
+    private UserEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ServiceBusProperties();
+        properties.setEnabled(true);
+        properties.getConsumer().setMaxWait(Duration.ofMillis(20));
+        properties.getConsumer().setRetryBackoff(Duration.ofMillis(1));
+        publisher = new UserEventPublisher(properties, null, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (consumer != null) {
+            consumer.close();
+        }
+    }
+
+    @Test
+    void appliesEachUsersEventsInOrderAndCompletesInBatches() throws InterruptedException {
+        Map<Long, List<String>> applied = new ConcurrentHashMap<>();
+        start(event -> {
+            if (event.userId() % 7 == 0) {
+                Thread.yield();
+            }
+            applied.computeIfAbsent(event.userId(), id -> new CopyOnWriteArrayList<>()).add(event.username());
+        });
+
+        List<ServiceBusMessage> messages = new ArrayList<>();
+        for (int version = 0; version < 40; version++) {
+            for (long userId = 1; userId <= 50; userId++) {
+                messages.add(message(userId, "USER_UPDATED", "v" + version));
+            }
+        }
+        queue.send(messages);
+        awaitSettled(2000);
+
+        List<String> expected = IntStream.range(0, 40).mapToObj(version -> "v" + version).toList();
+        assertThat(applied).hasSize(50).allSatisfy((userId, versions) -> assertThat(versions).containsExactlyElementsOf(expected));
+        assertThat(queue.completed()).hasSize(2000);
+        assertThat(queue.completeCalls()).isLessThan(2000);
+    }
+
+    @Test
+    void completesRedeliveredMessagesWithoutApplyingThemAgain() throws InterruptedException {
+        UserDirectoryProjection directory = new UserDirectoryProjection();
+        List<UserEventPayload> applied = new CopyOnWriteArrayList<>();
+        start(event -> {
+            applied.add(event);
+            directory.apply(event);
+        });
+        ServiceBusMessage created = message(1, "USER_CREATED", "jsmith");
+
+        queue.send(List.of(created, created));
+        awaitSettled(2);
+
+        assertThat(applied).hasSize(1);
+        assertThat(directory.find(1L)).hasValueSatisfying(user -> assertThat(user.username()).isEqualTo("jsmith"));
+        assertThat(queue.completed()).containsExactly(created.getMessageId(), created.getMessageId());
+        assertThat(meterRegistry.get("user.events.consumer.processed").tag("outcome", "duplicate").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deadLettersEventsThatKeepFailingAndMovesOn() throws InterruptedException {
+        properties.getConsumer().setMaxAttempts(3);
+        List<String> applied = new CopyOnWriteArrayList<>();
+        start(event -> {
+            if (event.username().equals("poison")) {
+                throw new IllegalStateException("Read model rejected the event");
+            }
+            applied.add(event.userId() + ":" + event.username());
+        });
+        ServiceBusMessage poison = message(1, "USER_UPDATED", "poison");
+
+        queue.send(List.of(message(1, "USER_CREATED", "a"), poison, message(1, "USER_UPDATED", "b"), message(2, "USER_CREATED", "c")));
+        queue.send(List.of(new ServiceBusMessage("not json").setMessageId("garbage")));
+        awaitSettled(5);
+
+        assertThat(applied).containsExactlyInAnyOrder("1:a", "1:b", "2:c");
+        assertThat(applied.indexOf("1:a")).isLessThan(applied.indexOf("1:b"));
+        assertThat(queue.deadLettered()).containsExactlyInAnyOrder(poison.getMessageId(), "garbage");
+        assertThat(meterRegistry.get("user.events.consumer.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void deadLettersUndecodableEventsWithoutStallingTheBatch() throws InterruptedException {
+        properties.getConsumer().setMaxInFlight(2);
+        List<String> applied = new CopyOnWriteArrayList<>();
+        start(event -> applied.add(event.username()));
+        List<ServiceBusMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            messages.add(new ServiceBusMessage(UserEventCodecTest.OUT_OF_RANGE_OFFSET)
+                    .setContentType(UserEventCodec.CONTENT_TYPE).setMessageId("corrupt" + i));
+            messages.add(message(i, "USER_CREATED", "user" + i));
+        }
+
+        queue.send(messages);
+        awaitSettled(6);
+
+        assertThat(applied).containsExactlyInAnyOrder("user0", "user1", "user2");
+        assertThat(queue.deadLettered()).containsExactlyInAnyOrder("corrupt0", "corrupt1", "corrupt2");
+    }
+
+    @Test
+    void onlyTheLeaseHolderReceives() throws InterruptedException {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        start(event -> applied.add(event.username()));
+        queue.send(List.of(message(1, "USER_CREATED", "first")));
+        awaitSettled(1);
+        List<String> appliedByStandby = new CopyOnWriteArrayList<>();
+        try (UserEventConsumer standby = consumer(event -> appliedByStandby.add(event.username()))) {
+            standby.start();
+
+            queue.send(List.of(message(1, "USER_UPDATED", "second"), message(2, "USER_CREATED", "third")));
+            awaitSettled(3);
+
+            assertThat(applied).containsExactlyInAnyOrder("first", "second", "third");
+            assertThat(appliedByStandby).isEmpty();
+
+            consumer.close();
+            leases.expireAll();
+            queue.send(List.of(message(1, "USER_UPDATED", "fourth")));
+            awaitSettled(4);
+
+            assertThat(appliedByStandby).containsExactly("fourth");
+        }
+    }
+
+    @Test
+    void readsJsonAndBinaryEncodedEvents() throws InterruptedException {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        start(event -> applied.add(event.username()));
+        ServiceBusMessage json = message(1, "USER_CREATED", "json");
+        properties.setEncoding(ServiceBusProperties.Encoding.BINARY);
+        ServiceBusMessage binary = message(2, "USER_CREATED", "binary");
+
+        queue.send(List.of(json, binary));
+        awaitSettled(2);
+
+        assertThat(applied).containsExactlyInAnyOrder("json", "binary");
+        assertThat(queue.completed()).hasSize(2);
+    }
+
+    @Test
+    void slowReadModelIsFedInParallel() throws InterruptedException {
+        properties.getConsumer().setPartitions(8);
+        start(event -> sleep(2));
+        List<ServiceBusMessage> messages = new ArrayList<>();
+        for (long userId = 1; userId <= 400; userId++) {
+            messages.add(message(userId, "USER_CREATED", "user" + userId));
+        }
+
+        long started = System.nanoTime();
+        queue.send(messages);
+        awaitSettled(400);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // 400 events at 2 ms each take 800 ms on a single worker.
+        assertThat(elapsedMillis).isLessThan(400);
+    }
+
+    private void start(UserEventProjection projection) {
+        consumer = consumer(projection);
+        consumer.start();
+    }
+
+    private UserEventConsumer consumer(UserEventProjection projection) {
+        return new UserEventConsumer(queue, leases.holder("consumer"), projection, objectMapper, properties, meterRegistry,
+                new WorkerThreads(false));
+    }
+
+    private ServiceBusMessage message(long userId, String eventType, String username) {
+        User user = new User(username, username + "@example.com", "USER");
+        user.setId(userId);
+        return publisher.toMessage(new OutboxEvent(UUID.randomUUID().toString(), eventType, user, OffsetDateTime.now()));
+    }
+
+    private void awaitSettled(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (queue.settled() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(queue.settled()).isEqualTo(count);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.example.api.model.OutboxEvent;
+import com.example.api.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of {@link User} and {@link UserEventPayload} with an {@code ObjectMapper}
+ * configured the way Spring Boot configures its own, the same payload through
+ * {@link UserEventCodec}, and building a Service Bus message from an outbox row with
+ * {@link UserEventPublisher#toMessage}. The two payload encodings also count the messages and
+ * bytes they produced; JMH sums these over the measured iterations, so bytes per message is
+ * {@code messageBytes / messages}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserEventMessageBenchmark {
+
+    private ObjectMapper objectMapper;
+    private UserEventPublisher publisher;
+    private User user;
+    private UserEventPayload payload;
+    private OutboxEvent event;
+    private UserEventPublisher binaryPublisher;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ServiceBusProperties properties = new ServiceBusProperties();
+        properties.setEnabled(true);
+        publisher = new UserEventPublisher(properties, null, objectMapper);
+        user = new User("jane.doe", "jane.doe@example.com", "USER");
+        user.setId(4242L);
+        OffsetDateTime occurredAt = OffsetDateTime.now();
+        payload = new UserEventPayload("USER_CREATED", user.getId(), user.getUsername(), user.getEmail(), user.getRole(), occurredAt);
+        event = new OutboxEvent(UUID.randomUUID().toString(), "USER_CREATED", user, occurredAt);
+        ServiceBusProperties binaryProperties = new ServiceBusProperties();
+        binaryProperties.setEnabled(true);
+        binaryProperties.setEncoding(ServiceBusProperties.Encoding.BINARY);
+        binaryPublisher = new UserEventPublisher(binaryProperties, null, objectMapper);
+        json = objectMapper.writeValueAsBytes(payload);
+        binary = UserEventCodec.encode(payload);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class MessageSize {
+
+        public long messages;
+        public long messageBytes;
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializePayload(MessageSize size) throws Exception {
+        byte[] bytes = objectMapper.writeValueAsBytes(payload);
+        size.messages++;
+        size.messageBytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] encodePayloadBinary(MessageSize size) {
+        byte[] bytes = UserEventCodec.encode(payload);
+        size.messages++;
+        size.messageBytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public UserEventPayload decodePayload() throws Exception {
+        return objectMapper.readValue(json, UserEventPayload.class);
+    }
+
+    @Benchmark
+    public UserEventPayload decodePayloadBinary() {
+        return UserEventCodec.decode(binary);
+    }
+
+    @Benchmark
+    public ServiceBusMessage toMessage() {
+        return publisher.toMessage(event);
+    }
+
+    @Benchmark
+    public ServiceBusMessage toMessageBinary() {
+        return binaryPublisher.toMessage(event);
+    }
+}
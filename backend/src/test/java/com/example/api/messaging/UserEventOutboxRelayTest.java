@@ -0,0 +1,227 @@
+package com.example.api.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.example.api.model.OutboxEvent;
+import com.example.api.model.User;
+import com.example.api.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserEventOutboxRelayTest {
+
+    private final TreeMap<Long, OutboxEvent> outbox = new TreeMap<>();
+    private final InMemoryLeases leases = new InMemoryLeases();
+    private OutboxEventRepository repository;
+    private ServiceBusProperties properties;
+    private InMemoryUserEventSender sender;
+    private MeterRegistry meterRegistry;
+    private UserEventOutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        when(repository.findByOrderByChangeSeqAscIdAsc(any())).thenAnswer(invocation -> {
+            Limit limit = invocation.getArgument(0);
+            return outbox.values().stream()
+                    .sorted(Comparator.comparing(OutboxEvent::getChangeSeq).thenComparing(OutboxEvent::getId))
+                    .limit(limit.max())
+                    .toList();
+        });
+        when(repository.count()).thenAnswer(invocation -> (long) outbox.size());
+        doAnswer(invocation -> {
+            ((Collection<Long>) invocation.getArgument(0)).forEach(outbox::remove);
+            return null;
+        }).when(repository).deleteAllByIdInBatch(any());
+
+        properties = new ServiceBusProperties();
+        properties.setEnabled(true);
+        properties.getOutbox().setBatchSize(100);
+        properties.getOutbox().setInitialBackoff(Duration.ZERO);
+        sender = new InMemoryUserEventSender();
+        meterRegistry = new SimpleMeterRegistry();
+        relay = relay(sender, meterRegistry);
+    }
+
+    private UserEventOutboxRelay relay(UserEventSender sender, MeterRegistry meterRegistry) {
+        UserEventPublisher publisher = new UserEventPublisher(properties, repository, new ObjectMapper().findAndRegisterModules());
+        return new UserEventOutboxRelay(repository, leases.holder("outbox-relay"), publisher, sender, properties, meterRegistry);
+    }
+
+    @Test
+    void drainsOutboxInOrderAcrossBatches() {
+        List<String> expectedIds = enqueue(250);
+
+        relay.relay();
+
+        assertThat(sender.delivered()).extracting(ServiceBusMessage::getMessageId).containsExactlyElementsOf(expectedIds);
+        assertThat(sender.sendCalls()).isEqualTo(3);
+        assertThat(outbox).isEmpty();
+        assertThat(meterRegistry.get("user.events.outbox.sent").counter().count()).isEqualTo(250);
+        assertThat(meterRegistry.get("user.events.outbox.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void failedSendKeepsEventsAndRetriesWithSameMessageIds() {
+        List<String> expectedIds = enqueue(5);
+        sender.failNext(1);
+
+        relay.relay();
+
+        assertThat(sender.delivered()).isEmpty();
+        assertThat(outbox).hasSize(5);
+        assertThat(meterRegistry.get("user.events.outbox.failures").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("user.events.outbox.depth").gauge().value()).isEqualTo(5);
+
+        relay.relay();
+
+        assertThat(sender.delivered()).extracting(ServiceBusMessage::getMessageId).containsExactlyElementsOf(expectedIds);
+        assertThat(outbox).isEmpty();
+    }
+
+    @Test
+    void backsOffAfterFailure() {
+        properties.getOutbox().setInitialBackoff(Duration.ofHours(1));
+        enqueue(1);
+        sender.failNext(1);
+
+        relay.relay();
+        relay.relay();
+
+        assertThat(sender.sendCalls()).isEqualTo(1);
+        assertThat(outbox).hasSize(1);
+    }
+
+    @Test
+    void onlyTheLeaseHolderRelays() {
+        InMemoryUserEventSender otherSender = new InMemoryUserEventSender();
+        UserEventOutboxRelay other = relay(otherSender, new SimpleMeterRegistry());
+        enqueue(3);
+
+        relay.relay();
+        enqueue(2);
+        other.relay();
+
+        assertThat(sender.delivered()).hasSize(3);
+        assertThat(otherSender.delivered()).isEmpty();
+        assertThat(outbox).hasSize(2);
+
+        leases.expireAll();
+        other.relay();
+        relay.relay();
+
+        assertThat(otherSender.delivered()).hasSize(2);
+        assertThat(sender.delivered()).hasSize(3);
+        assertThat(outbox).isEmpty();
+    }
+
+    @Test
+    void sendsEachUsersEventsInChangeSequenceOrderWhateverTheirIds() throws Exception {
+        properties.getOutbox().setCoalesceWindow(Duration.ofMinutes(1));
+        OffsetDateTime settled = OffsetDateTime.now().minusMinutes(2);
+        // Ids drawn from two pods' pooled blocks: the later write got the lower id.
+        enqueue(51, 1, "USER_CREATED", "a1", 1, settled);
+        enqueue(2, 1, "USER_UPDATED", "a2", 2, settled);
+        enqueue(52, 2, "USER_UPDATED", "b1", 3, settled);
+        enqueue(3, 2, "USER_DELETED", "b1", 4, settled);
+
+        relay.relay();
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<UserEventPayload> sent = new ArrayList<>();
+        for (ServiceBusMessage message : sender.delivered()) {
+            sent.add(objectMapper.readValue(message.getBody().toBytes(), UserEventPayload.class));
+        }
+        assertThat(sent).extracting(UserEventPayload::userId, UserEventPayload::eventType, UserEventPayload::username)
+                .containsExactly(tuple(1L, "USER_CREATED", "a2"), tuple(2L, "USER_DELETED", "b1"));
+    }
+
+    @Test
+    void coalescesEachUsersEventsOnceTheWindowHasPassed() throws Exception {
+        properties.getOutbox().setCoalesceWindow(Duration.ofMinutes(1));
+        OffsetDateTime settled = OffsetDateTime.now().minusMinutes(2);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        enqueue(1, "USER_UPDATED", "a1", settled);
+        enqueue(2, "USER_CREATED", "b1", settled);
+        enqueue(1, "USER_UPDATED", "a2", settled);
+        enqueue(3, "USER_CREATED", "c1", settled);
+        enqueue(2, "USER_UPDATED", "b2", settled);
+        enqueue(3, "USER_UPDATED", "c2", settled);
+        enqueue(4, "USER_UPDATED", "d1", settled);
+        enqueue(3, "USER_DELETED", "c2", settled);
+        enqueue(1, "USER_UPDATED", "a3", OffsetDateTime.now());
+        String lastUpdateOfUser1 = outbox.lastEntry().getValue().getMessageId();
+        enqueue(4, "USER_DELETED", "d1", settled);
+
+        relay.relay();
+
+        List<UserEventPayload> sent = new ArrayList<>();
+        for (ServiceBusMessage message : sender.delivered()) {
+            sent.add(objectMapper.readValue(message.getBody().toBytes(), UserEventPayload.class));
+        }
+        assertThat(sent).extracting(UserEventPayload::userId, UserEventPayload::eventType, UserEventPayload::username)
+                .containsExactly(tuple(1L, "USER_UPDATED", "a3"), tuple(2L, "USER_CREATED", "b2"), tuple(4L, "USER_DELETED", "d1"));
+        assertThat(sender.delivered().get(0).getMessageId()).isEqualTo(lastUpdateOfUser1);
+        assertThat(outbox).isEmpty();
+        assertThat(meterRegistry.get("user.events.outbox.received").counter().count()).isEqualTo(10);
+        assertThat(meterRegistry.get("user.events.outbox.sent").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void holdsBackUsersWhoseOldestEventIsInsideTheWindow() {
+        properties.getOutbox().setCoalesceWindow(Duration.ofMinutes(1));
+        enqueue(1, "USER_CREATED", "a1", OffsetDateTime.now().minusMinutes(2));
+        enqueue(2, "USER_CREATED", "b1", OffsetDateTime.now());
+        enqueue(2, "USER_UPDATED", "b2", OffsetDateTime.now());
+
+        relay.relay();
+
+        assertThat(sender.delivered()).hasSize(1);
+        assertThat(outbox.values()).extracting(OutboxEvent::getUsername).containsExactly("b1", "b2");
+    }
+
+    private void enqueue(long userId, String eventType, String username, OffsetDateTime occurredAt) {
+        long id = outbox.isEmpty() ? 1 : outbox.lastKey() + 1;
+        enqueue(id, userId, eventType, username, id, occurredAt);
+    }
+
+    private void enqueue(long id, long userId, String eventType, String username, long changeSeq, OffsetDateTime occurredAt) {
+        User user = new User(username, username + "@example.com", "USER");
+        user.setId(userId);
+        OutboxEvent event = new OutboxEvent(UUID.randomUUID().toString(), eventType, user, changeSeq, occurredAt);
+        event.setId(id);
+        outbox.put(id, event);
+    }
+
+    private List<String> enqueue(int count) {
+        long nextId = outbox.isEmpty() ? 1 : outbox.lastKey() + 1;
+        for (int i = 0; i < count; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "USER");
+            user.setId(nextId + i);
+            OutboxEvent event = new OutboxEvent(UUID.randomUUID().toString(), "USER_CREATED", user, nextId + i, OffsetDateTime.now());
+            event.setId(nextId + i);
+            outbox.put(event.getId(), event);
+        }
+        return outbox.values().stream().map(OutboxEvent::getMessageId).toList();
+    }
+}
@@ -1,22 +1,24 @@
 package com.example.api.messaging;
 
 import com.azure.messaging.servicebus.ServiceBusMessage;
-import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.example.api.model.OutboxEvent;
 import com.example.api.model.User;
+import com.example.api.repository.OutboxEventRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
-import java.util.Optional;
-
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 class UserEventPublisherTest {
 
     private ServiceBusProperties properties;
-    private ServiceBusSenderClient senderClient;
+    private OutboxEventRepository outboxRepository;
     private UserEventPublisher publisher;
 
     @BeforeEach
@@ -24,20 +26,70 @@ class UserEventPublisherTest {
         properties = new ServiceBusProperties();
         properties.setEnabled(true);
         properties.setQueueName("user-events");
-        senderClient = mock(ServiceBusSenderClient.class);
-        publisher = new UserEventPublisher(properties, new ObjectMapper(), Optional.of(senderClient));
+        outboxRepository = mock(OutboxEventRepository.class);
+        publisher = new UserEventPublisher(properties, outboxRepository, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void publishUserCreatedWritesOutboxEvent() {
+        publisher.publishUserCreated(user());
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertThat(event.getEventType()).isEqualTo("USER_CREATED");
+        assertThat(event.getUserId()).isEqualTo(1L);
+        assertThat(event.getUsername()).isEqualTo("jsmith");
+        assertThat(event.getMessageId()).isNotBlank();
+        assertThat(event.getOccurredAt()).isNotNull();
     }
 
     @Test
-    void publishUserCreatedSendsMessage() {
+    void publishingDisabledSkipsOutbox() {
+        properties.setEnabled(false);
+
+        publisher.publishUserCreated(user());
+
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    void toMessageKeepsOutboxMessageId() {
+        publisher.publishUserUpdated(user());
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(captor.capture());
+
+        ServiceBusMessage message = publisher.toMessage(captor.getValue());
+
+        assertThat(message.getMessageId()).isEqualTo(captor.getValue().getMessageId());
+        assertThat(message.getSubject()).isEqualTo("USER_UPDATED");
+        assertThat(message.getContentType()).isEqualTo("application/json");
+        assertThat(message.getBody().toString()).contains("\"username\":\"jsmith\"");
+    }
+
+    @Test
+    void toMessageUsesCompactEncodingWhenConfigured() {
+        properties.setEncoding(ServiceBusProperties.Encoding.BINARY);
+        publisher.publishUserUpdated(user());
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(captor.capture());
+
+        ServiceBusMessage message = publisher.toMessage(captor.getValue());
+
+        assertThat(message.getContentType()).isEqualTo(UserEventCodec.CONTENT_TYPE);
+        assertThat(UserEventCodec.decode(message.getBody().toBytes())).satisfies(payload -> {
+            assertThat(payload.eventType()).isEqualTo("USER_UPDATED");
+            assertThat(payload.userId()).isEqualTo(1L);
+            assertThat(payload.username()).isEqualTo("jsmith");
+        });
+    }
+
+    private static User user() {
         User user = new User();
         user.setId(1L);
         user.setUsername("jsmith");
         user.setEmail("jsmith@example.com");
         user.setRole("ADMIN");
-
-        publisher.publishUserCreated(user);
-
-        verify(senderClient).sendMessage(any(ServiceBusMessage.class));
+        return user;
     }
 }
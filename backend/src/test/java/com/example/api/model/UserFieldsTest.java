@@ -0,0 +1,52 @@
+package com.example.api.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserFieldsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesOnlyRequestedFieldsInRepresentationOrder() throws IOException {
+        User user = new User("alice", "alice@example.com", "ADMIN");
+        user.setId(7L);
+        UserFields fields = UserFields.parse(" role, username ,");
+
+        assertThat(write(fields, user)).isEqualTo("{\"username\":\"alice\",\"role\":\"ADMIN\"}");
+        assertThat(fields.tag()).isEqualTo("username,role");
+    }
+
+    @Test
+    void alwaysSelectsTheIdForPaging() {
+        assertThat(UserFields.parse("email").selectClause("u")).isEqualTo("u.id as id, u.email as email");
+        assertThat(UserFields.parse("id").selectClause("u")).isEqualTo("u.id as id");
+    }
+
+    @Test
+    void blankMeansTheFullRepresentationAndUnknownFieldsAreRejected() {
+        assertThat(UserFields.parse(null)).isNull();
+        assertThat(UserFields.parse(" , ")).isNull();
+        assertThatThrownBy(() -> UserFields.parse("username,changeSeq"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .hasMessageContaining("changeSeq");
+    }
+
+    private String write(UserFields fields, User user) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            fields.write(generator, user);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.api.search;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.example.api.model.User;
+import com.example.api.model.UserSearchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over {@code users} users with {@code pending} writes not yet compacted into the
+ * sorted segment. Usernames are {@code user<n>}, so {@code narrowPrefix} matches about ten users
+ * and {@code widePrefix} about a ninth of the index; one in ten users is an admin. The index uses
+ * the default compaction threshold, so {@code write} includes the cost of background compaction.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=UserSearchIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserSearchIndexBenchmark {
+
+    @Param({"1000000"})
+    public int users;
+
+    @Param({"0", "1000"})
+    public int pending;
+
+    private UserSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new UserSearchIndex(consumer -> {
+            for (long id = 1; id <= users; id++) {
+                consumer.accept(user(id, id % 10 == 0 ? "ADMIN" : "USER"));
+            }
+        }, 1024, new SimpleMeterRegistry(), new WorkerThreads(false));
+        index.load();
+        for (int i = 0; i < pending; i++) {
+            index.index(user(1 + ThreadLocalRandom.current().nextInt(users), "USER"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        index.close();
+    }
+
+    @Benchmark
+    public UserSearchResult narrowPrefix() {
+        return index.search("user" + (10_000 + ThreadLocalRandom.current().nextInt(90_000)), null, null, 20);
+    }
+
+    @Benchmark
+    public UserSearchResult widePrefix() {
+        return index.search("user" + (1 + ThreadLocalRandom.current().nextInt(9)), null, null, 20);
+    }
+
+    @Benchmark
+    public UserSearchResult emailPrefixWithRole() {
+        return index.search(null, "user" + (1_000 + ThreadLocalRandom.current().nextInt(9_000)), "ADMIN", 20);
+    }
+
+    @Benchmark
+    public UserSearchResult roleOnly() {
+        return index.search(null, null, "ADMIN", 20);
+    }
+
+    @Benchmark
+    public void write() {
+        index.index(user(1 + ThreadLocalRandom.current().nextInt(users), "USER"));
+    }
+
+    private static User user(long id, String role) {
+        User user = new User("user" + id, "user" + id + "@example.com", role);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.api.search;
+
+import com.example.api.concurrent.WorkerThreads;
+import com.example.api.model.User;
+import com.example.api.model.UserSearchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void searchesByPrefixAndRoleInFieldOrder() {
+        index = new UserSearchIndex(consumer -> List.of(
+                user(1, "alice", "alice@example.com", "ADMIN"),
+                user(2, "Albert", "bert@contoso.com", "USER"),
+                user(3, "bob", "bob@example.com", "USER"),
+                user(4, "alfred", "alfred@contoso.com", "USER")).forEach(consumer),
+                100, new SimpleMeterRegistry(), new WorkerThreads(false));
+        assertThatThrownBy(() -> index.search("al", null, null, 10)).isInstanceOf(ResponseStatusException.class);
+        index.load();
+
+        UserSearchResult byUsername = index.search("AL", null, null, 2);
+        assertThat(usernames(byUsername)).containsExactly("Albert", "alfred");
+        assertThat(byUsername.total()).isEqualTo(3);
+
+        assertThat(usernames(index.search("al", null, "user", 10))).containsExactly("Albert", "alfred");
+        assertThat(usernames(index.search(null, "bert@", null, 10))).containsExactly("Albert");
+        assertThat(usernames(index.search(null, null, "USER", 10))).containsExactly("Albert", "bob", "alfred");
+        assertThat(index.search("al", "alice", "USER", 10).total()).isZero();
+        assertThat(index.search(null, null, "AUDITOR", 10).total()).isZero();
+        assertThat(index.search(" ", "", null, 10).total()).isEqualTo(4);
+    }
+
+    @Test
+    void writesAreVisibleImmediatelyAndSurviveCompaction() {
+        index = new UserSearchIndex(consumer -> List.of(
+                user(1, "alice", "alice@example.com", "ADMIN"),
+                user(2, "bob", "bob@example.com", "USER")).forEach(consumer),
+                100, new SimpleMeterRegistry(), new WorkerThreads(false));
+        index.load();
+
+        index.index(user(2, "albert", "albert@example.com", "USER"));
+        index.indexAll(List.of(user(3, "alma", "alma@example.com", "USER"), user(4, "zed", "zed@example.com", "USER")));
+        index.remove(1L);
+        assertThat(usernames(index.search("al", null, null, 10))).containsExactly("albert", "alma");
+        assertThat(index.search("b", null, null, 10).total()).isZero();
+
+        index.compact();
+
+        assertThat(usernames(index.search("al", null, null, 10))).containsExactly("albert", "alma");
+        assertThat(usernames(index.search(null, null, null, 10))).containsExactly("albert", "alma", "zed");
+    }
+
+    @Test
+    void ignoresWritesThatArriveAfterANewerOne() {
+        index = new UserSearchIndex(consumer -> List.of(
+                user(1, "alice", "alice@example.com", "USER", 3),
+                user(2, "bob", "bob@example.com", "USER", 1)).forEach(consumer),
+                100, new SimpleMeterRegistry(), new WorkerThreads(false));
+        index.load();
+
+        index.index(user(1, "alicia", "alice@example.com", "USER", 2));
+        index.index(user(2, "bobby", "bob@example.com", "USER", 3));
+        index.index(user(2, "robert", "bob@example.com", "USER", 2));
+        assertThat(usernames(index.search(null, null, null, 10))).containsExactly("alice", "bobby");
+
+        index.remove(1L);
+        index.index(user(1, "alice", "alice@example.com", "ADMIN", 4));
+        index.compact();
+        index.index(user(1, "alice", "alice@example.com", "ADMIN", 5));
+        assertThat(usernames(index.search(null, null, null, 10))).containsExactly("bobby");
+    }
+
+    @Test
+    void staysConsistentWithConcurrentWritersReadersAndCompaction() throws Exception {
+        int writers = 4;
+        int idsPerWriter = 500;
+        Map<Long, User> expected = new ConcurrentHashMap<>();
+        List<User> initial = new ArrayList<>();
+        for (long id = 1; id <= writers * idsPerWriter; id += 2) {
+            User user = user(id, "user" + id, "user" + id + "@example.com", "USER");
+            initial.add(user);
+            expected.put(id, user);
+        }
+        index = new UserSearchIndex(consumer -> initial.forEach(consumer), 64, new SimpleMeterRegistry(), new WorkerThreads(false));
+        index.load();
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long firstId = 1 + (long) w * idsPerWriter;
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                // Ids are never reused, so a deleted id is retired; each write bumps the version.
+                Map<Long, Long> versions = new HashMap<>();
+                Set<Long> retired = new HashSet<>();
+                for (int i = 0; i < 3_000; i++) {
+                    long id = firstId + random.nextInt(idsPerWriter);
+                    if (retired.contains(id)) {
+                        continue;
+                    }
+                    if (random.nextInt(8) == 0) {
+                        retired.add(id);
+                        expected.remove(id);
+                        index.remove(id);
+                    } else {
+                        String role = random.nextBoolean() ? "ADMIN" : "USER";
+                        User user = user(id, "user" + id + "-" + i, "user" + id + "@example.com", role);
+                        user.setVersion(versions.merge(id, 1L, Long::sum));
+                        expected.put(id, user);
+                        index.index(user);
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (writing.get()) {
+                        assertConsistent(index.search("user1", null, null, Integer.MAX_VALUE), Comparator.comparing(u -> u.getUsername().toLowerCase()));
+                        assertConsistent(index.search(null, null, "ADMIN", Integer.MAX_VALUE), Comparator.comparing(User::getId));
+                    }
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads.subList(0, writers)) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        writing.set(false);
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        assertThat(failures).isEmpty();
+
+        for (int pass = 0; pass < 2; pass++) {
+            UserSearchResult all = index.search(null, null, null, Integer.MAX_VALUE);
+            assertThat(all.total()).isEqualTo(expected.size());
+            assertThat(all.items()).extracting(User::getId)
+                    .containsExactlyElementsOf(expected.keySet().stream().sorted().toList());
+            assertThat(all.items()).allSatisfy(user -> {
+                User want = expected.get(user.getId());
+                assertThat(user.getUsername()).isEqualTo(want.getUsername());
+                assertThat(user.getRole()).isEqualTo(want.getRole());
+            });
+            index.compact();
+        }
+    }
+
+    private static void assertConsistent(UserSearchResult result, Comparator<User> order) {
+        assertThat(result.items()).hasSize((int) result.total());
+        Set<Long> ids = new HashSet<>();
+        result.items().forEach(user -> assertThat(ids.add(user.getId())).as("duplicate id %s", user.getId()).isTrue());
+        assertThat(result.items()).isSortedAccordingTo(order.thenComparing(User::getId));
+    }
+
+    private static List<String> usernames(UserSearchResult result) {
+        return result.items().stream().map(User::getUsername).toList();
+    }
+
+    private static User user(long id, String username, String email, String role) {
+        User user = new User(username, email, role);
+        user.setId(id);
+        return user;
+    }
+
+    private static User user(long id, String username, String email, String role, long version) {
+        User user = user(id, username, email, role);
+        user.setVersion(version);
+        return user;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.api.security;
+
+import com.example.api.config.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtAuthenticationManagerTest {
+
+    private final AtomicInteger decodes = new AtomicInteger();
+    private JwksStub jwks;
+    private RefreshingJwkSource jwkSource;
+    private CachingJwtAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwks = new JwksStub();
+        jwkSource = new RefreshingJwkSource(jwks.url(), new JwtProperties());
+        JwtDecoder decoder = JwtSecurityConfig.jwtDecoder(jwkSource, JwksStub.ISSUER, List.of(JwksStub.AUDIENCE));
+        JwtDecoder counting = token -> {
+            decodes.incrementAndGet();
+            return decoder.decode(token);
+        };
+        manager = new CachingJwtAuthenticationManager(counting, new SecurityConfig(null, true).jwtAuthenticationConverter(),
+                100, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwkSource.close();
+        jwks.close();
+    }
+
+    @Test
+    void validatesEachTokenOnceAndReturnsFreshCopies() throws Exception {
+        String token = jwks.token("alice", Instant.now().plus(Duration.ofMinutes(5)), "ADMIN");
+
+        Authentication first = manager.authenticate(new BearerTokenAuthenticationToken(token));
+        Authentication second = manager.authenticate(new BearerTokenAuthenticationToken(token));
+
+        assertThat(decodes).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("alice");
+        assertThat(second.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        assertThat(jwks.requests()).isEqualTo(1);
+
+        manager.authenticate(new BearerTokenAuthenticationToken(jwks.token("bob", Instant.now().plus(Duration.ofMinutes(5)), "USER")));
+        assertThat(decodes).hasValue(2);
+    }
+
+    @Test
+    void revalidatesOnceTheTokenHasExpired() throws Exception {
+        // Still accepted afterwards thanks to the validator's clock skew, but no longer from the cache.
+        Instant expiresAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        String token = jwks.token("alice", expiresAt, "USER");
+
+        manager.authenticate(new BearerTokenAuthenticationToken(token));
+        Thread.sleep(Duration.between(Instant.now(), expiresAt).toMillis() + 100);
+        manager.authenticate(new BearerTokenAuthenticationToken(token));
+
+        assertThat(decodes).hasValue(2);
+    }
+
+    @Test
+    void doesNotCacheRejectedTokens() throws Exception {
+        String forged = JwksStub.token(JwksStub.newKey("key-1"), "mallory", Instant.now().plus(Duration.ofMinutes(5)), "ADMIN");
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> manager.authenticate(new BearerTokenAuthenticationToken(forged)))
+                    .isInstanceOf(AuthenticationException.class);
+        }
+        assertThat(decodes).hasValue(2);
+    }
+}
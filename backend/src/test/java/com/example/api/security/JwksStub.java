@@ -0,0 +1,99 @@
+package com.example.api.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local JWKS endpoint for tests: serves the public half of the current signing key from a JDK
+ * HTTP server and signs tokens with it.
+ */
+class JwksStub implements AutoCloseable {
+
+    static final String ISSUER = "https://login.example.test/tenant/v2.0";
+    static final String AUDIENCE = "api://azure-api-first";
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile RSAKey signingKey;
+
+    JwksStub() throws IOException, JOSEException {
+        signingKey = newKey("key-1");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/keys", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    static RSAKey newKey(String keyId) throws JOSEException {
+        return new RSAKeyGenerator(2048).keyID(keyId).generate();
+    }
+
+    URL url() throws MalformedURLException {
+        return new URL("http://localhost:" + server.getAddress().getPort() + "/keys");
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    RSAKey signingKey() {
+        return signingKey;
+    }
+
+    void rotate(String keyId) throws JOSEException {
+        signingKey = newKey(keyId);
+    }
+
+    String token(String subject, Instant expiresAt, String... roles) throws JOSEException {
+        return token(signingKey, subject, expiresAt, roles);
+    }
+
+    static String token(RSAKey key, String subject, Instant expiresAt, String... roles) throws JOSEException {
+        return token(key, AUDIENCE, subject, expiresAt, roles);
+    }
+
+    static String token(RSAKey key, String audience, String subject, Instant expiresAt, String... roles) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .audience(audience)
+                .subject(subject)
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .claim("roles", List.of(roles))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.api.security;
+
+import com.example.api.config.SecurityConfig;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a repeated bearer token: the default provider (parse,
+ * RS256 verification, claim validation and authority conversion every time) against
+ * {@link CachingJwtAuthenticationManager}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private JwtAuthenticationProvider uncached;
+    private CachingJwtAuthenticationManager cached;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = JwksStub.newKey("key-1");
+        JwtDecoder decoder = JwtSecurityConfig.jwtDecoder(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), JwksStub.ISSUER, List.of(JwksStub.AUDIENCE));
+        JwtAuthenticationConverter converter = new SecurityConfig(null, true).jwtAuthenticationConverter();
+        uncached = new JwtAuthenticationProvider(decoder);
+        uncached.setJwtAuthenticationConverter(converter);
+        cached = new CachingJwtAuthenticationManager(decoder, converter, 10_000, new SimpleMeterRegistry());
+        token = JwksStub.token(key, "alice", Instant.now().plus(Duration.ofHours(1)), "ADMIN", "USER");
+    }
+
+    @Benchmark
+    public Authentication uncached() {
+        return uncached.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+
+    @Benchmark
+    public Authentication cached() {
+        return cached.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.api.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtSecurityConfigTest {
+
+    private static final String CLIENT_ID = "5f0c2b7e-client-id";
+
+    private RSAKey key;
+    private JwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        key = JwksStub.newKey("key-1");
+        decoder = JwtSecurityConfig.jwtDecoder(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), JwksStub.ISSUER,
+                List.of(JwksStub.AUDIENCE, CLIENT_ID));
+    }
+
+    @Test
+    void acceptsTokensForTheAppIdUriOrTheClientId() throws Exception {
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(5));
+
+        assertThat(decoder.decode(JwksStub.token(key, JwksStub.AUDIENCE, "alice", expiresAt, "USER")).getSubject()).isEqualTo("alice");
+        assertThat(decoder.decode(JwksStub.token(key, CLIENT_ID, "bob", expiresAt, "USER")).getSubject()).isEqualTo("bob");
+    }
+
+    @Test
+    void rejectsTokensIssuedForAnotherApi() throws Exception {
+        String foreign = JwksStub.token(key, "api://another-api", "mallory", Instant.now().plus(Duration.ofMinutes(5)), "ADMIN");
+
+        assertThatThrownBy(() -> decoder.decode(foreign))
+                .isInstanceOf(JwtValidationException.class)
+                .hasMessageContaining("aud");
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.api.security;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshingJwkSourceTest {
+
+    private final JwtProperties properties = new JwtProperties();
+    private JwksStub jwks;
+    private RefreshingJwkSource jwkSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwks = new JwksStub();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwkSource.close();
+        jwks.close();
+    }
+
+    @Test
+    void prefetchesKeysOnStart() throws Exception {
+        jwkSource = new RefreshingJwkSource(jwks.url(), properties);
+
+        jwkSource.start();
+        awaitRequests(1);
+
+        JwtDecoder decoder = JwtSecurityConfig.jwtDecoder(jwkSource, JwksStub.ISSUER, List.of(JwksStub.AUDIENCE));
+        assertThat(decoder.decode(jwks.token("alice", inFiveMinutes(), "USER")).getSubject()).isEqualTo("alice");
+        assertThat(jwks.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshesOnceForTokensSignedWithARotatedKey() throws Exception {
+        properties.setJwksMinRefreshInterval(Duration.ZERO);
+        jwkSource = new RefreshingJwkSource(jwks.url(), properties);
+        jwkSource.start();
+        awaitRequests(1);
+        JwtDecoder decoder = JwtSecurityConfig.jwtDecoder(jwkSource, JwksStub.ISSUER, List.of(JwksStub.AUDIENCE));
+
+        jwks.rotate("key-2");
+        String token = jwks.token("alice", inFiveMinutes(), "USER");
+
+        assertThat(decoder.decode(token).getSubject()).isEqualTo("alice");
+        assertThat(decoder.decode(token).getSubject()).isEqualTo("alice");
+        assertThat(jwks.requests()).isEqualTo(2);
+    }
+
+    @Test
+    void rateLimitsRefreshesForUnknownKeys() throws Exception {
+        properties.setJwksMinRefreshInterval(Duration.ofHours(1));
+        jwkSource = new RefreshingJwkSource(jwks.url(), properties);
+        jwkSource.start();
+        awaitRequests(1);
+        JwtDecoder decoder = JwtSecurityConfig.jwtDecoder(jwkSource, JwksStub.ISSUER, List.of(JwksStub.AUDIENCE));
+
+        RSAKey unknown = JwksStub.newKey("bogus");
+        for (int i = 0; i < 5; i++) {
+            String bogus = JwksStub.token(new RSAKey.Builder(unknown).keyID("bogus-" + i).build(), "mallory", inFiveMinutes(), "ADMIN");
+            assertThatThrownBy(() -> decoder.decode(bogus)).isInstanceOf(JwtException.class);
+        }
+        assertThat(jwks.requests()).isEqualTo(1);
+    }
+
+    private void awaitRequests(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jwks.requests() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // The keys are stored right after the response is read.
+        Thread.sleep(50);
+        assertThat(jwks.requests()).isEqualTo(expected);
+    }
+
+    private static Instant inFiveMinutes() {
+        return Instant.now().plus(Duration.ofMinutes(5));
+    }
+}
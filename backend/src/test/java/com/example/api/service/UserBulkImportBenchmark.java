@@ -0,0 +1,129 @@
+package com.example.api.service;
+
+import com.example.api.BenchmarkApplication;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput of {@code POST /api/v1/users/bulk} and {@code GET /api/v1/users/export}
+ * against the H2 profile, reported as rows per second in the {@code rows} secondary result.
+ * A single invocation at 1M rows runs well past the iteration time, so expect few samples there.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=UserBulkImportBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserBulkImportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private HttpClient client;
+    private URI baseUri;
+    private byte[] ndjson;
+    private boolean export;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void start(BenchmarkParams params) {
+        context = BenchmarkApplication.start();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        client = HttpClient.newHttpClient();
+        baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/users");
+        ndjson = generate(rows);
+        export = params.getBenchmark().endsWith("exportUsers");
+    }
+
+    @Setup(Level.Iteration)
+    public void resetTable() throws Exception {
+        jdbcTemplate.execute("TRUNCATE TABLE users");
+        if (export) {
+            importUsers(new Rows());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public String importUsers(Rows counter) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("users/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(ndjson))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Bulk import failed with " + response.statusCode() + ": " + response.body());
+        }
+        counter.rows += rows;
+        return response.body();
+    }
+
+    @Benchmark
+    public long exportUsers(Rows counter) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("users/export")).GET().build();
+        long lines = 0;
+        try (InputStream body = client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        counter.rows += lines;
+        return lines;
+    }
+
+    private static byte[] generate(int rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 72);
+        for (int i = 0; i < rows; i++) {
+            String line = "{\"username\":\"user" + i + "\",\"email\":\"user" + i + "@example.com\",\"role\":\"USER\"}\n";
+            out.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
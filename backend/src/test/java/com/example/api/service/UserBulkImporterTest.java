@@ -0,0 +1,124 @@
+package com.example.api.service;
+
+import com.example.api.model.BulkImportError;
+import com.example.api.model.BulkImportResult;
+import com.example.api.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserBulkImporterTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final List<List<String>> chunks = new ArrayList<>();
+    private ValidatorFactory validatorFactory;
+    private UserBulkImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        when(userService.createAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            chunks.add(users.stream().map(User::getUsername).toList());
+            return List.copyOf(users);
+        });
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importer = new UserBulkImporter(userService, new ObjectMapper(), validatorFactory.getValidator(), 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importsNdjsonInChunks() throws IOException {
+        BulkImportResult result = importer.importUsers(body("""
+                {"username":"u1","email":"u1@example.com","role":"USER"}
+                {"username":"u2","email":"u2@example.com","role":"USER"}
+                {"id":1,"username":"u3","email":"u3@example.com","role":"ADMIN"}
+                """));
+
+        assertThat(result.created()).isEqualTo(3);
+        assertThat(result.completed()).isTrue();
+        assertThat(chunks).containsExactly(List.of("u1", "u2"), List.of("u3"));
+    }
+
+    @Test
+    void importsJsonArrayAndRejectsInvalidUsers() throws IOException {
+        BulkImportResult result = importer.importUsers(body("""
+                [{"username":"u1","email":"u1@example.com","role":"USER"},
+                 {"username":"u2","email":"not-an-email","role":""},
+                 {"username":"u3","email":"u3@example.com","role":"USER"}]
+                """));
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.index()).isEqualTo(1);
+            assertThat(error.message()).contains("email: ").contains("role: ");
+        });
+        assertThat(chunks).containsExactly(List.of("u1", "u3"));
+    }
+
+    @Test
+    void stopsAtMalformedJsonAfterCommittingEarlierUsers() throws IOException {
+        BulkImportResult result = importer.importUsers(body("""
+                {"username":"u1","email":"u1@example.com","role":"USER"}
+                {"username":"u2","email":
+                """));
+
+        assertThat(result.completed()).isFalse();
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.index()).isEqualTo(1);
+            assertThat(error.message()).startsWith("Malformed JSON");
+        });
+    }
+
+    @Test
+    void stopsAtAChunkThatFailsToCommitAndReportsWhere() throws IOException {
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (!chunks.isEmpty()) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            chunks.add(users.stream().map(User::getUsername).toList());
+            return List.copyOf(users);
+        }).when(userService).createAll(anyList());
+
+        BulkImportResult result = importer.importUsers(body("""
+                {"username":"u1","email":"u1@example.com","role":"USER"}
+                {"username":"u2","email":"u2@example.com","role":"USER"}
+                {"username":"u3","email":"not-an-email","role":"USER"}
+                {"username":"u4","email":"u4@example.com","role":"USER"}
+                {"username":"u5","email":"u5@example.com","role":"USER"}
+                {"username":"u6","email":"u6@example.com","role":"USER"}
+                """));
+
+        assertThat(result.completed()).isFalse();
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.errors()).extracting(BulkImportError::index).containsExactly(2L, 3L);
+        assertThat(result.errors().get(1).message()).contains("failed to commit");
+        assertThat(chunks).containsExactly(List.of("u1", "u2"));
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
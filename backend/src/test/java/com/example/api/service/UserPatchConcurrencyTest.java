@@ -0,0 +1,145 @@
+package com.example.api.service;
+
+import com.example.api.ApiFirstApplication;
+import com.example.api.model.User;
+import com.example.api.model.UserPatch;
+import com.example.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Conditional PATCH updates racing against the embedded H2 database, and the native writes behind
+ * them.
+ */
+@Timeout(value = 2, unit = TimeUnit.MINUTES)
+class UserPatchConcurrencyTest {
+
+    private static final int WRITERS = 8;
+
+    private static ConfigurableApplicationContext context;
+    private static UserService userService;
+    private static UserRepository userRepository;
+
+    @BeforeAll
+    static void start() {
+        context = new SpringApplicationBuilder(ApiFirstApplication.class).run(
+                "--server.port=0",
+                "--azure.activedirectory.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--app.audit.store.enabled=false",
+                "--logging.level.com.example.api=WARN");
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+
+    @Test
+    void onlyOneOfConcurrentPatchesOfTheSameVersionWins() throws Exception {
+        User user = userService.create(new User("race", "race@example.com", "USER"));
+        long version = user.getVersion();
+
+        List<Boolean> outcomes = race(writer -> {
+            try {
+                userService.patch(user.getId(), version, new UserPatch(null, null, "ROLE_" + writer));
+                return true;
+            } catch (ResponseStatusException ex) {
+                assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+                return false;
+            }
+        });
+
+        assertThat(outcomes).containsOnlyOnce(true);
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getVersion()).isEqualTo(version + 1);
+        assertThat(stored.getRole()).startsWith("ROLE_");
+    }
+
+    @Test
+    void retryingWritersLoseNoUpdates() throws Exception {
+        int increments = 10;
+        User user = userService.create(new User("n", "counter@example.com", "USER"));
+
+        race(writer -> {
+            for (int done = 0; done < increments; ) {
+                User current = userRepository.findById(user.getId()).orElseThrow();
+                try {
+                    userService.patch(current.getId(), current.getVersion(), new UserPatch(current.getUsername() + "+", null, null));
+                    done++;
+                } catch (ResponseStatusException ex) {
+                    // Lost the race for this version; read again and retry.
+                }
+            }
+            return true;
+        });
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getUsername()).isEqualTo("n" + "+".repeat(WRITERS * increments));
+        assertThat(stored.getVersion()).isEqualTo(user.getVersion() + WRITERS * increments);
+    }
+
+    @Test
+    void unversionedPatchAndUncachedDeleteRunAgainstTheCurrentRow() {
+        User user = userService.create(new User("wildcard", "wildcard@example.com", "USER"));
+
+        User patched = userService.patch(user.getId(), null, new UserPatch(null, null, "ADMIN"));
+
+        assertThat(patched).extracting(User::getUsername, User::getRole, User::getVersion)
+                .containsExactly("wildcard", "ADMIN", user.getVersion() + 1);
+        assertThatThrownBy(() -> userService.delete(user.getId(), user.getVersion()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED));
+        userService.delete(user.getId(), patched.getVersion());
+        assertThat(userRepository.existsById(user.getId())).isFalse();
+    }
+
+    private static <T> List<T> race(Writer<T> writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                int index = i;
+                Callable<T> task = () -> {
+                    start.await();
+                    return writer.write(index);
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Writer<T> {
+
+        T write(int writer) throws Exception;
+    }
+}
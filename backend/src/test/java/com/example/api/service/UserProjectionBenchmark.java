@@ -0,0 +1,78 @@
+package com.example.api.service;
+
+import com.example.api.BenchmarkApplication;
+import com.example.api.controller.UserController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pages through {@code users} rows of the embedded H2 database with {@code GET /users}, 1000 per
+ * page, as full representations and as {@code fields=id,username} projections. Each operation
+ * reads the whole table and returns the number of JSON bytes written. The page cache and gzip
+ * are off so every page is loaded and serialized.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=UserProjectionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserProjectionBenchmark {
+
+    private static final long FIRST_ID = 1_000;
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"all", "id,username"})
+    public String fields;
+
+    @Param({"100000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserController controller;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start(
+                "--app.cache.users.page-maximum-bytes=0",
+                "--app.cache.users.gzip-min-size=1GB");
+        // Called directly rather than through the secured proxy.
+        controller = new UserController(context.getBean(UserService.class), null, null, context.getBean(ObjectMapper.class));
+        BenchmarkApplication.seedUsers(context.getBean(JdbcTemplate.class), FIRST_ID, users);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public long listAll() {
+        String selected = fields.equals("all") ? null : fields;
+        long bytes = 0;
+        for (long after = FIRST_ID - 1; after < FIRST_ID - 1 + users; after += PAGE_SIZE) {
+            bytes += controller.findAll(after, PAGE_SIZE, selected, null).getBody().length;
+        }
+        return bytes;
+    }
+}
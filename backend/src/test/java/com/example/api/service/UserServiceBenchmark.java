@@ -0,0 +1,83 @@
+package com.example.api.service;
+
+import com.example.api.BenchmarkApplication;
+import com.example.api.model.User;
+import com.example.api.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService#findById} against the embedded H2 database over {@code users} random ids,
+ * with the read-through user cache enabled and warm, and with it sized to zero so every call
+ * reaches JPA.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=UserServiceBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final long FIRST_ID = 1_000;
+
+    @Param({"on", "off"})
+    public String cache;
+
+    @Param({"10000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start("--app.cache.users.maximum-bytes=" + (cache.equals("on") ? "1GB" : "0"));
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        BenchmarkApplication.seedUsers(context.getBean(JdbcTemplate.class), FIRST_ID, users);
+        if (cache.equals("on")) {
+            // Measure steady-state hits rather than the first pass of misses.
+            for (long id = FIRST_ID; id < FIRST_ID + users; id++) {
+                userService.findById(id);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public User findById() {
+        return userService.findById(FIRST_ID + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    public Optional<User> repositoryFindById() {
+        return userRepository.findById(FIRST_ID + ThreadLocalRandom.current().nextInt(users));
+    }
+}
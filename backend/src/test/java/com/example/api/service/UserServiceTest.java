@@ -0,0 +1,154 @@
+package com.example.api.service;
+
+import com.example.api.cache.UserCache;
+import com.example.api.cache.UserCacheProperties;
+import com.example.api.exception.UserNotFoundException;
+import com.example.api.messaging.UserEventPublisher;
+import com.example.api.model.User;
+import com.example.api.model.UserPatch;
+import com.example.api.model.UserTombstone;
+import com.example.api.repository.UserRepository;
+import com.example.api.search.UserSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserEventPublisher eventPublisher = mock(UserEventPublisher.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final UserCache userCache = new UserCache(new UserCacheProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+    private final UserService userService = new UserService(userRepository, eventPublisher, entityManager, userCache,
+            mock(UserSearchIndex.class));
+
+    @Test
+    void completePatchIsASingleUpdate() {
+        when(userRepository.nextChangeSeq()).thenReturn(42L);
+        when(userRepository.updateIfVersion(eq(1L), eq(3L), eq("jdoe"), eq("jdoe@example.com"), eq("ADMIN"), eq(42L), any())).thenReturn(1);
+
+        User patched = userService.patch(1L, 3L, new UserPatch("jdoe", "jdoe@example.com", "ADMIN"));
+
+        assertThat(patched).extracting(User::getId, User::getUsername, User::getEmail, User::getRole, User::getVersion, User::getChangeSeq)
+                .containsExactly(1L, "jdoe", "jdoe@example.com", "ADMIN", 4L, 42L);
+        verify(eventPublisher).publishUserUpdated(patched);
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void partialPatchMergesTheCachedSnapshotOfThatVersionOnly() {
+        cache(user(3L));
+        when(userRepository.updateIfVersion(anyLong(), any(), any(), any(), any(), anyLong(), any())).thenReturn(1);
+
+        User patched = userService.patch(1L, 3L, new UserPatch(null, null, "ADMIN"));
+
+        assertThat(patched).extracting(User::getUsername, User::getRole, User::getVersion).containsExactly("jsmith", "ADMIN", 4L);
+        verify(userRepository, never()).findById(any());
+
+        cache(user(5L));
+        User current = user(7L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        assertThat(userService.patch(1L, 6L, new UserPatch(null, null, "ADMIN"))).isSameAs(current);
+    }
+
+    @Test
+    void failedConditionIsAConflictUnlessTheUserIsGone() {
+        when(userRepository.updateIfVersion(anyLong(), any(), any(), any(), any(), anyLong(), any())).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.patch(1L, 3L, new UserPatch(null, null, "ADMIN")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED));
+        assertThatThrownBy(() -> userService.patch(2L, 3L, new UserPatch(null, null, "ADMIN")))
+                .isInstanceOf(UserNotFoundException.class);
+        verify(eventPublisher, never()).publishUserUpdated(any());
+    }
+
+    @Test
+    void deleteOfTheCachedVersionDoesNotLoadTheUser() {
+        cache(user(3L));
+        when(userRepository.deleteIfVersion(1L, 3L)).thenReturn(1);
+        when(userRepository.nextChangeSeq()).thenReturn(42L);
+
+        userService.delete(1L, 3L);
+
+        ArgumentCaptor<User> deleted = ArgumentCaptor.forClass(User.class);
+        verify(eventPublisher).publishUserDeleted(deleted.capture(), eq(42L));
+        assertThat(deleted.getValue()).extracting(User::getId, User::getUsername, User::getEmail, User::getRole)
+                .containsExactly(1L, "jsmith", "jsmith@example.com", "USER");
+        verify(entityManager).persist(any(UserTombstone.class));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void deleteOfAnUncachedVersionPublishesTheDeletedRow() {
+        cache(user(2L));
+        User current = user(3L);
+        when(userRepository.deleteReturning(1L, 3L)).thenReturn(Optional.of(current));
+
+        userService.delete(1L, 3L);
+
+        verify(eventPublisher).publishUserDeleted(eq(current), anyLong());
+        verify(userRepository, never()).findById(any());
+        when(userRepository.deleteReturning(1L, 2L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        assertThatThrownBy(() -> userService.delete(1L, 2L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED));
+    }
+
+    @Test
+    void unconditionalDeleteFallsBackToTheDeletedRowWhenTheSnapshotIsStale() {
+        cache(user(2L));
+        User current = user(3L);
+        when(userRepository.deleteIfVersion(1L, 2L)).thenReturn(0);
+        when(userRepository.deleteReturning(1L, null)).thenReturn(Optional.of(current));
+
+        userService.delete(1L);
+
+        verify(eventPublisher).publishUserDeleted(eq(current), anyLong());
+        when(userRepository.deleteReturning(2L, null)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> userService.delete(2L)).isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void unversionedPatchReadsBackTheCurrentState() {
+        cache(user(3L));
+        User current = user(8L);
+        when(userRepository.updateIfVersion(eq(1L), eq(null), any(), any(), any(), anyLong(), any())).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        assertThat(userService.patch(1L, null, new UserPatch("jdoe", "jdoe@example.com", "ADMIN"))).isSameAs(current);
+        assertThatThrownBy(() -> userService.patch(2L, null, new UserPatch(null, null, "ADMIN")))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    private void cache(User user) {
+        userCache.invalidate(user.getId());
+        userCache.get(user.getId(), id -> Optional.of(user));
+    }
+
+    private static User user(long version) {
+        User user = new User("jsmith", "jsmith@example.com", "USER");
+        user.setId(1L);
+        user.setVersion(version);
+        return user;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.api.service;
+
+import com.example.api.BenchmarkApplication;
+import com.example.api.model.User;
+import com.example.api.model.UserPatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-user writes against the embedded H2 database over {@code users} random ids:
+ * {@link UserService#update} (load, then a full UPDATE) against {@link UserService#patch} with
+ * every attribute (one conditional UPDATE) and with the role only, which reads the row back
+ * because the user is not cached.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=UserWriteBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserWriteBenchmark {
+
+    private static final long FIRST_ID = 1_000;
+
+    @Param({"10000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private long[] versions;
+    private long writes;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        userService = context.getBean(UserService.class);
+        BenchmarkApplication.seedUsers(context.getBean(JdbcTemplate.class), FIRST_ID, users);
+        versions = new long[users];
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public User put() {
+        int index = ThreadLocalRandom.current().nextInt(users);
+        User user = userService.update(FIRST_ID + index, new User("user" + index, "user" + index + "@example.com", role()));
+        versions[index] = user.getVersion();
+        return user;
+    }
+
+    @Benchmark
+    public User patchAll() {
+        int index = ThreadLocalRandom.current().nextInt(users);
+        User user = userService.patch(FIRST_ID + index, versions[index], new UserPatch("user" + index, "user" + index + "@example.com", role()));
+        versions[index] = user.getVersion();
+        return user;
+    }
+
+    @Benchmark
+    public User patchRole() {
+        int index = ThreadLocalRandom.current().nextInt(users);
+        User user = userService.patch(FIRST_ID + index, versions[index], new UserPatch(null, null, role()));
+        versions[index] = user.getVersion();
+        return user;
+    }
+
+    // A new value on every write, so the full update is never skipped as a no-op.
+    private String role() {
+        return "ROLE_" + writes++;
+    }
+}
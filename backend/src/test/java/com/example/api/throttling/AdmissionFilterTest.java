@@ -0,0 +1,101 @@
+package com.example.api.throttling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shedsRequestsOnceSlotsAndQueueWaitAreExhausted() throws Exception {
+        ThrottlingProperties.Admission settings = new ThrottlingProperties.Admission();
+        settings.setMaxConcurrent(1);
+        settings.setMaxQueueWait(Duration.ofMillis(20));
+        settings.setRetryAfter(Duration.ofSeconds(2));
+        AdmissionFilter filter = new AdmissionFilter(settings, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MockHttpServletResponse> slow = executor.submit(() -> handle(filter, "/api/v1/users", (request, response) -> {
+                entered.countDown();
+                awaitQuietly(release);
+            }));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(meterRegistry.get("api.admission.in-flight").gauge().value()).isEqualTo(1);
+
+            MockHttpServletResponse shed = handle(filter, "/api/v1/users", new MockFilterChain());
+            MockHttpServletResponse health = handle(filter, "/actuator/health", new MockFilterChain());
+
+            release.countDown();
+            assertThat(slow.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+            assertThat(shed.getStatus()).isEqualTo(429);
+            assertThat(shed.getHeader("Retry-After")).isEqualTo("2");
+            assertThat(health.getStatus()).isEqualTo(200);
+            assertThat(handle(filter, "/api/v1/users", new MockFilterChain()).getStatus()).isEqualTo(200);
+            assertThat(meterRegistry.get("api.admission.rejected").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("api.admission.in-flight").gauge().value()).isZero();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void queuedRequestIsAdmittedWhenASlotFreesInTime() throws Exception {
+        ThrottlingProperties.Admission settings = new ThrottlingProperties.Admission();
+        settings.setMaxConcurrent(1);
+        settings.setMaxQueueWait(Duration.ofSeconds(5));
+        AdmissionFilter filter = new AdmissionFilter(settings, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> handle(filter, "/api/v1/users", (request, response) -> {
+                entered.countDown();
+                sleepQuietly(50);
+            }));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(handle(filter, "/api/v1/users", new MockFilterChain()).getStatus()).isEqualTo(200);
+            assertThat(meterRegistry.get("api.admission.wait").timer().max(TimeUnit.MILLISECONDS)).isGreaterThan(10);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MockHttpServletResponse handle(AdmissionFilter filter, String uri, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+        return response;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
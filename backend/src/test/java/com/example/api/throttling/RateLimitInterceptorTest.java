@@ -0,0 +1,105 @@
+package com.example.api.throttling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void limitsEachPrincipalToItsBurstAndSignalsRetryAfter() {
+        RateLimitInterceptor interceptor = interceptor(1, 3);
+
+        List<MockHttpServletResponse> alice = IntStream.range(0, 4).mapToObj(i -> handle(interceptor, "alice", "GET", "/api/v1/users/{id}")).toList();
+        MockHttpServletResponse bob = handle(interceptor, "bob", "GET", "/api/v1/users/{id}");
+
+        assertThat(alice).extracting(MockHttpServletResponse::getStatus).containsExactly(200, 200, 200, 429);
+        assertThat(alice).extracting(response -> response.getHeader("X-RateLimit-Remaining")).containsExactly("2", "1", "0", "0");
+        assertThat(alice.get(3).getHeader("Retry-After")).isEqualTo("1");
+        assertThat(bob.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("api.rate-limit.requests").tags("rule", "default", "outcome", "limited").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void routeRulesHaveTheirOwnBudget() {
+        ThrottlingProperties.RateLimit settings = new ThrottlingProperties.RateLimit();
+        settings.getDefaultLimit().setBurst(1);
+        ThrottlingProperties.Route bulk = new ThrottlingProperties.Route();
+        bulk.setMethod("post");
+        bulk.setPattern("/api/v1/users/bulk");
+        bulk.setRate(0.1);
+        bulk.setBurst(1);
+        settings.setRoutes(List.of(bulk));
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(settings, meterRegistry);
+
+        assertThat(handle(interceptor, "alice", "POST", "/api/v1/users/bulk").getStatus()).isEqualTo(200);
+        MockHttpServletResponse limited = handle(interceptor, "alice", "POST", "/api/v1/users/bulk");
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("10");
+        assertThat(handle(interceptor, "alice", "GET", "/api/v1/users/bulk").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("api.rate-limit.requests").tags("rule", "POST /api/v1/users/bulk", "outcome", "limited").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheBurst() throws Exception {
+        RateLimitInterceptor interceptor = interceptor(0.001, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Callable<Integer> caller = () -> {
+                int allowed = 0;
+                for (int i = 0; i < 50; i++) {
+                    if (handle(interceptor, "alice", "GET", "/api/v1/users").getStatus() == 200) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            };
+            int allowed = 0;
+            for (Future<Integer> result : executor.invokeAll(Collections.nCopies(8, caller))) {
+                allowed += result.get();
+            }
+            assertThat(allowed).isEqualTo(100);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RateLimitInterceptor interceptor(double rate, int burst) {
+        ThrottlingProperties.RateLimit settings = new ThrottlingProperties.RateLimit();
+        settings.getDefaultLimit().setRate(rate);
+        settings.getDefaultLimit().setBurst(burst);
+        return new RateLimitInterceptor(settings, meterRegistry);
+    }
+
+    private static MockHttpServletResponse handle(RateLimitInterceptor interceptor, String principal, String method, String route) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null, "ROLE_USER"));
+        MockHttpServletRequest request = new MockHttpServletRequest(method, route);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        return response;
+    }
+}
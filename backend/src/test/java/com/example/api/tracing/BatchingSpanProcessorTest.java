@@ -0,0 +1,90 @@
+package com.example.api.tracing;
+
+import com.example.api.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchingSpanProcessorTest {
+
+    private final TracingProperties properties = new TracingProperties();
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.shutdown().join(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void exportsInBoundedBatchesOffTheCallingThread() {
+        properties.getExport().setMaxBatchSize(2);
+        properties.getExport().setFlushInterval(Duration.ofHours(1));
+        Tracer tracer = tracer();
+
+        for (int i = 0; i < 5; i++) {
+            tracer.spanBuilder("span-" + i).startSpan().end();
+        }
+        assertThat(tracerProvider.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+
+        assertThat(exporter.spans()).extracting(SpanData::getName)
+                .containsExactlyInAnyOrder("span-0", "span-1", "span-2", "span-3", "span-4");
+        assertThat(exporter.batches()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(registry.get("tracing.spans.exported").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void dropsAndCountsSpansWhileTheQueueIsFull() throws InterruptedException {
+        properties.getExport().setMaxQueueSize(2);
+        properties.getExport().setMaxBatchSize(1);
+        CountDownLatch release = new CountDownLatch(1);
+        exporter.hold(release);
+        Tracer tracer = tracer();
+
+        tracer.spanBuilder("in-flight").startSpan().end();
+        assertThat(exporter.firstExport().await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 5; i++) {
+            tracer.spanBuilder("queued-" + i).startSpan().end();
+        }
+        release.countDown();
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        assertThat(registry.get("tracing.spans.dropped").counter().count()).isEqualTo(3);
+        assertThat(exporter.spans()).extracting(SpanData::getName).containsExactly("in-flight", "queued-0", "queued-1");
+    }
+
+    @Test
+    void samplesNewTracesByRatioAndFollowsSampledParents() {
+        properties.getSampler().setRatio(0.0);
+        Tracer tracer = tracer();
+        Context sampledParent = Context.root().with(Span.wrap(SpanContext.createFromRemoteParent(
+                "0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault())));
+
+        tracer.spanBuilder("root").startSpan().end();
+        tracer.spanBuilder("child").setParent(sampledParent).startSpan().end();
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        assertThat(exporter.spans()).extracting(SpanData::getName).containsExactly("child");
+        assertThat(exporter.spans().get(0).getTraceId()).isEqualTo("0af7651916cd43dd8448eb211c80319c");
+    }
+
+    private Tracer tracer() {
+        tracerProvider = TracingConfig.tracerProvider(exporter, properties, registry, new WorkerThreads(false));
+        return tracerProvider.get("test");
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.api.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeferredSpanExporterTest {
+
+    private final InMemorySpanExporter delegate = new InMemorySpanExporter();
+    private final AtomicInteger created = new AtomicInteger();
+    private final DeferredSpanExporter exporter = new DeferredSpanExporter(() -> {
+        created.incrementAndGet();
+        return delegate;
+    });
+
+    @Test
+    void createsTheDelegateOnceOnTheFirstExport() {
+        assertThat(exporter.flush().isSuccess()).isTrue();
+        assertThat(created).hasValue(0);
+
+        assertThat(exporter.export(List.of()).isSuccess()).isTrue();
+        assertThat(exporter.export(List.of()).isSuccess()).isTrue();
+
+        assertThat(created).hasValue(1);
+        assertThat(delegate.batches()).hasSize(2);
+    }
+
+    @Test
+    void neverCreatesTheDelegateAfterShutdown() {
+        assertThat(exporter.shutdown().isSuccess()).isTrue();
+
+        assertThat(exporter.export(List.of()).isSuccess()).isFalse();
+        assertThat(created).hasValue(0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.api.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Exporter stand-in that keeps every batch in memory and can hold the export thread on a latch
+ * or a fixed delay to simulate a slow collector.
+ */
+class InMemorySpanExporter implements SpanExporter {
+
+    private final List<List<SpanData>> batches = new CopyOnWriteArrayList<>();
+    private final long delayMillis;
+    private volatile CountDownLatch gate;
+    private final CountDownLatch firstExport = new CountDownLatch(1);
+
+    InMemorySpanExporter() {
+        this(0);
+    }
+
+    InMemorySpanExporter(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    void hold(CountDownLatch gate) {
+        this.gate = gate;
+    }
+
+    CountDownLatch firstExport() {
+        return firstExport;
+    }
+
+    List<List<SpanData>> batches() {
+        return batches;
+    }
+
+    List<SpanData> spans() {
+        List<SpanData> spans = new ArrayList<>();
+        batches.forEach(spans::addAll);
+        return spans;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        firstExport.countDown();
+        try {
+            CountDownLatch current = gate;
+            if (current != null) {
+                current.await();
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CompletableResultCode.ofFailure();
+        }
+        batches.add(List.copyOf(spans));
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
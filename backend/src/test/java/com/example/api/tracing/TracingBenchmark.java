@@ -0,0 +1,121 @@
+package com.example.api.tracing;
+
+import com.example.api.ApiFirstApplication;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request latency of {@code GET /api/v1/users/{id}} with tracing off and with every request
+ * sampled and exported to a stand-in collector that takes {@code exportLatencyMillis} per batch.
+ * The exporter runs on the batch thread, so its latency should not show up in the request.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args=TracingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(4)
+@Fork(1)
+public class TracingBenchmark {
+
+    @Param({"off", "on"})
+    public String tracing;
+
+    @Param({"20"})
+    public int exportLatencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void start() {
+        SpringApplicationBuilder builder = tracing.equals("on")
+                ? new SpringApplicationBuilder(ApiFirstApplication.class, SlowCollector.class)
+                : new SpringApplicationBuilder(ApiFirstApplication.class);
+        context = builder.run(
+                "--server.port=0",
+                "--azure.activedirectory.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--app.audit.store.enabled=false",
+                "--logging.level.com.example.api=WARN",
+                "--benchmark.export-latency=" + exportLatencyMillis);
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                + context.getEnvironment().getProperty("local.server.port") + "/api/v1/users/1")).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUser() throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/v1/users/1 returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    // Registered as a source rather than @Configuration so component scanning never picks it up.
+    static class SlowCollector {
+
+        @Bean
+        SpanExporter slowCollector(@Value("${benchmark.export-latency}") long millis) {
+            return new SpanExporter() {
+                @Override
+                public CompletableResultCode export(Collection<SpanData> spans) {
+                    try {
+                        Thread.sleep(millis);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return CompletableResultCode.ofFailure();
+                    }
+                    return CompletableResultCode.ofSuccess();
+                }
+
+                @Override
+                public CompletableResultCode flush() {
+                    return CompletableResultCode.ofSuccess();
+                }
+
+                @Override
+                public CompletableResultCode shutdown() {
+                    return CompletableResultCode.ofSuccess();
+                }
+            };
+        }
+    }
+}
@@ -21,7 +21,7 @@ export class DashboardComponent implements OnInit {
   }
 
   refresh(): void {
-    this.api.getUsers().subscribe(users => (this.users = users));
+    this.api.getUsers().subscribe(page => (this.users = page.items));
     this.api.getAudit().subscribe(events => (this.audit = events));
     this.api.getHealth().subscribe(status => (this.health = status.status));
   }
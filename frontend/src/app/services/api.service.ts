@@ -10,12 +10,31 @@ export interface User {
   role: string;
 }
 
+export interface UserPage {
+  items: User[];
+  next: number | null;
+}
+
+export interface UserSearchResult {
+  items: User[];
+  total: number;
+}
+
+export interface UserSearchCriteria {
+  username?: string;
+  email?: string;
+  role?: string;
+  limit?: number;
+}
+
 export interface AuditEvent {
+  sequence: number;
   timestamp: string;
   method: string;
   path: string;
   user: string;
   status: number;
+  durationMicros: number;
 }
 
 @Injectable({ providedIn: 'root' })
@@ -25,8 +44,19 @@ export class ApiService {
 
   constructor(private http: HttpClient) {}
 
-  getUsers(): Observable<User[]> {
-    return this.http.get<User[]>(`${this.baseUrl}/users`);
+  getUsers(after?: number): Observable<UserPage> {
+    const params: Record<string, number> = after != null ? { after } : {};
+    return this.http.get<UserPage>(`${this.baseUrl}/users`, { params });
+  }
+
+  searchUsers(criteria: UserSearchCriteria): Observable<UserSearchResult> {
+    const params: Record<string, string | number> = {};
+    for (const [key, value] of Object.entries(criteria)) {
+      if (value != null && value !== '') {
+        params[key] = value;
+      }
+    }
+    return this.http.get<UserSearchResult>(`${this.baseUrl}/users/search`, { params });
   }
 
   getAudit(): Observable<AuditEvent[]> {